@@ -0,0 +1,68 @@
+package com.banking.securetransactionapi.benchmark;
+
+import com.banking.securetransactionapi.util.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scale-2 BigDecimal arithmetic as performed on every balance check and update, next to the same
+ * operations on {@link Money} cents.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BalanceArithmeticBenchmark {
+    
+    private BigDecimal balance;
+    private BigDecimal amount;
+    private Money balanceCents;
+    private Money amountCents;
+    
+    @Setup
+    public void setUp() {
+        balance = new BigDecimal("15000.75");
+        amount = new BigDecimal("125.50");
+        balanceCents = Money.of(balance);
+        amountCents = Money.of(amount);
+    }
+    
+    @Benchmark
+    public boolean sufficientBalanceCheck() {
+        return balance.compareTo(amount) >= 0;
+    }
+    
+    @Benchmark
+    public BigDecimal withdraw() {
+        return balance.compareTo(amount) >= 0 ? balance.subtract(amount) : balance;
+    }
+    
+    @Benchmark
+    public BigDecimal transfer() {
+        // Debit the source and credit the target, as a transfer does
+        BigDecimal sourceBalance = balance.subtract(amount);
+        BigDecimal targetBalance = balance.add(amount);
+        return sourceBalance.compareTo(targetBalance) < 0 ? sourceBalance : targetBalance;
+    }
+    
+    @Benchmark
+    public boolean sufficientBalanceCheckCents() {
+        return !balanceCents.isLessThan(amountCents);
+    }
+    
+    @Benchmark
+    public Money withdrawCents() {
+        return balanceCents.isLessThan(amountCents) ? balanceCents : balanceCents.minus(amountCents);
+    }
+    
+    @Benchmark
+    public Money transferCents() {
+        Money sourceBalance = balanceCents.minus(amountCents);
+        Money targetBalance = balanceCents.plus(amountCents);
+        return sourceBalance.isLessThan(targetBalance) ? sourceBalance : targetBalance;
+    }
+}
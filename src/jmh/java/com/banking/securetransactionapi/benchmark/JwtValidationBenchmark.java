@@ -0,0 +1,84 @@
+package com.banking.securetransactionapi.benchmark;
+
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.util.JwtClaims;
+import com.banking.securetransactionapi.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the original three-parse path
+ * against parse-once validation with and without the verified-token cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+    
+    private static final String SECRET = "benchmarkSecretKey123456789012345678901234567890123456789012345678901234567890";
+    
+    private JwtUtil cachingJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private User user;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        cachingJwtUtil = newJwtUtil(10_000);
+        uncachedJwtUtil = newJwtUtil(0);
+        
+        user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark-user");
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        token = cachingJwtUtil.generateToken(user);
+    }
+    
+    @Benchmark
+    public boolean legacyThreeParses() {
+        // Mirrors the filter before parse-once validation: extractUsername, then validateToken
+        String username = legacyClaims(token).getSubject();
+        return username.equals(user.getUsername())
+                && legacyClaims(token).getSubject().equals(user.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+    
+    @Benchmark
+    public boolean parseOnceUncached() {
+        JwtClaims claims = uncachedJwtUtil.validate(token);
+        return uncachedJwtUtil.validateToken(claims, user);
+    }
+    
+    @Benchmark
+    public boolean parseOnceCached() {
+        JwtClaims claims = cachingJwtUtil.validate(token);
+        return cachingJwtUtil.validateToken(claims, user);
+    }
+    
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+    
+    private static JwtUtil newJwtUtil(int cacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedTokenCacheMaxSize", cacheSize);
+        return jwtUtil;
+    }
+}
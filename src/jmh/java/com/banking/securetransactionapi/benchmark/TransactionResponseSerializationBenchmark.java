@@ -0,0 +1,73 @@
+package com.banking.securetransactionapi.benchmark;
+
+import com.banking.securetransactionapi.dto.TransactionResponse;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of transaction responses with the same defaults Spring MVC uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionResponseSerializationBenchmark {
+    
+    @Param({"50"})
+    private int pageSize;
+    
+    private ObjectMapper objectMapper;
+    private ObjectWriter responseWriter;
+    private TransactionResponse response;
+    private List<TransactionResponse> page;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        responseWriter = objectMapper.writerFor(TransactionResponse.class);
+        response = newResponse(1L);
+        page = new ArrayList<>(pageSize);
+        for (long i = 0; i < pageSize; i++) {
+            page.add(newResponse(i));
+        }
+    }
+    
+    @Benchmark
+    public byte[] serializeSingle() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+    
+    @Benchmark
+    public byte[] serializeSingleWithPrebuiltWriter() throws JsonProcessingException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+    
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+    
+    private static TransactionResponse newResponse(long id) {
+        return new TransactionResponse(
+                id,
+                TransactionType.TRANSFER_OUT,
+                new BigDecimal("125.50"),
+                2L,
+                "Payment for consulting services",
+                LocalDateTime.of(2024, 4, 1, 10, 30),
+                new BigDecimal("1500.75")
+        );
+    }
+}
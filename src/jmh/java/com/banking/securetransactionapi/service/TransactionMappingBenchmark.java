@@ -0,0 +1,67 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.dto.TransactionResponse;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning ledger rows into API responses, per row and for a history page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionMappingBenchmark {
+    
+    @Param({"50"})
+    private int pageSize;
+    
+    private Transaction transaction;
+    private List<Transaction> page;
+    private BigDecimal balance;
+    
+    @Setup
+    public void setUp() {
+        transaction = newTransaction(1L);
+        balance = new BigDecimal("1500.75");
+        page = new ArrayList<>(pageSize);
+        for (long i = 0; i < pageSize; i++) {
+            page.add(newTransaction(i));
+        }
+    }
+    
+    @Benchmark
+    public TransactionResponse mapSingle() {
+        return TransactionService.mapToResponse(transaction, balance);
+    }
+    
+    @Benchmark
+    public List<TransactionResponse> mapPage() {
+        List<TransactionResponse> responses = new ArrayList<>(page.size());
+        for (Transaction row : page) {
+            responses.add(TransactionService.mapToResponse(row, balance));
+        }
+        return responses;
+    }
+    
+    private static Transaction newTransaction(long id) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setAccountId(1L);
+        transaction.setType(TransactionType.TRANSFER_OUT);
+        transaction.setAmount(new BigDecimal("125.50"));
+        transaction.setTargetAccountId(2L);
+        transaction.setDescription("Payment for consulting services");
+        transaction.setTimestamp(LocalDateTime.of(2024, 4, 1, 10, 30));
+        return transaction;
+    }
+}
@@ -0,0 +1,107 @@
+package com.banking.securetransactionapi.archive;
+
+import com.banking.securetransactionapi.entity.Transaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Read-only view of one archive file, memory-mapped so lookups touch only the index pages and
+ * the blocks of the requested account.
+ */
+class ArchiveFile {
+    
+    private final YearMonth month;
+    private final MappedByteBuffer buffer;
+    private final long indexOffset;
+    private final int blockCount;
+    
+    ArchiveFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int footer = buffer.capacity() - ArchiveFormat.FOOTER_SIZE;
+        if (buffer.capacity() < ArchiveFormat.HEADER_SIZE + ArchiveFormat.FOOTER_SIZE
+                || buffer.getInt(0) != ArchiveFormat.MAGIC
+                || buffer.getInt(footer + 20) != ArchiveFormat.MAGIC) {
+            throw new IOException("Not a transaction archive: " + path);
+        }
+        if (buffer.getInt(4) != ArchiveFormat.VERSION) {
+            throw new IOException("Unsupported archive version " + buffer.getInt(4) + ": " + path);
+        }
+        month = YearMonth.of(buffer.getInt(8), buffer.getInt(12));
+        indexOffset = buffer.getLong(footer);
+        blockCount = buffer.getInt(footer + 8);
+    }
+    
+    YearMonth getMonth() {
+        return month;
+    }
+    
+    /**
+     * Appends up to {@code limit} of the account's rows that sort before {@code (timestamp, id)},
+     * newest first; a null position starts from the newest row.
+     */
+    void collectBefore(long accountId, LocalDateTime timestamp, Long id, int limit, List<Transaction> into)
+            throws IOException {
+        long positionMillis = timestamp == null ? Long.MAX_VALUE : ArchiveFormat.epochMillis(timestamp);
+        for (int block = firstBlock(accountId); block < blockCount && into.size() < limit; block++) {
+            int entry = (int) (indexOffset + (long) block * ArchiveFormat.INDEX_ENTRY_SIZE);
+            if (buffer.getLong(entry) != accountId) {
+                break;
+            }
+            if (buffer.getLong(entry + 8) > positionMillis) {
+                // Every row in this block is newer than the position
+                continue;
+            }
+            readBlock(entry, accountId, timestamp, id, limit, into);
+        }
+    }
+    
+    private int firstBlock(long accountId) {
+        int low = 0;
+        int high = blockCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long midAccount = buffer.getLong((int) (indexOffset + (long) mid * ArchiveFormat.INDEX_ENTRY_SIZE));
+            if (midAccount < accountId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private void readBlock(int entry, long accountId, LocalDateTime timestamp, Long id, int limit,
+                           List<Transaction> into) throws IOException {
+        int offset = (int) buffer.getLong(entry + 24);
+        byte[] compressed = new byte[buffer.getInt(entry + 32)];
+        int rows = buffer.getInt(entry + 36);
+        buffer.get(offset, compressed);
+        
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed)))) {
+            for (int i = 0; i < rows && into.size() < limit; i++) {
+                Transaction transaction = ArchiveFormat.readRow(in, accountId);
+                if (timestamp == null || isBefore(transaction, timestamp, id)) {
+                    into.add(transaction);
+                }
+            }
+        }
+    }
+    
+    private static boolean isBefore(Transaction transaction, LocalDateTime timestamp, Long id) {
+        int compare = transaction.getTimestamp().compareTo(timestamp);
+        return compare < 0 || (compare == 0 && transaction.getId() < id);
+    }
+}
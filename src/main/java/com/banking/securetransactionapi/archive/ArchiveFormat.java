@@ -0,0 +1,81 @@
+package com.banking.securetransactionapi.archive;
+
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Layout of a monthly archive file, written once and never modified:
+ * <pre>
+ * header  magic, version, year, month                          (4 x int)
+ * blocks  deflate-compressed rows of one account, newest first
+ * index   per block: accountId, oldest and newest timestamp (epoch ms),
+ *         file offset, compressed length, row count             (4 x long, 2 x int)
+ * footer  index offset, block count, row count, magic           (long, int, long, int)
+ * </pre>
+ * Index entries are sorted by account id, so a reader binary-searches the index in the mapped
+ * file and inflates only that account's blocks.
+ */
+final class ArchiveFormat {
+    
+    static final int MAGIC = 0x54584131; // "TXA1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int INDEX_ENTRY_SIZE = 40;
+    static final int FOOTER_SIZE = 24;
+    
+    private ArchiveFormat() {
+    }
+    
+    static void writeRow(DataOutput out, Transaction transaction) throws IOException {
+        out.writeLong(transaction.getId());
+        out.writeUTF(transaction.getType().name());
+        out.writeUTF(transaction.getAmount().toPlainString());
+        writeNullableLong(out, transaction.getTargetAccountId());
+        out.writeBoolean(transaction.getBalanceAfter() != null);
+        if (transaction.getBalanceAfter() != null) {
+            out.writeUTF(transaction.getBalanceAfter().toPlainString());
+        }
+        out.writeBoolean(transaction.getDescription() != null);
+        if (transaction.getDescription() != null) {
+            out.writeUTF(transaction.getDescription());
+        }
+        out.writeLong(transaction.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(transaction.getTimestamp().getNano());
+    }
+    
+    static Transaction readRow(DataInput in, long accountId) throws IOException {
+        Transaction transaction = new Transaction();
+        transaction.setId(in.readLong());
+        transaction.setAccountId(accountId);
+        transaction.setType(TransactionType.valueOf(in.readUTF()));
+        transaction.setAmount(new BigDecimal(in.readUTF()));
+        transaction.setTargetAccountId(readNullableLong(in));
+        transaction.setBalanceAfter(in.readBoolean() ? new BigDecimal(in.readUTF()) : null);
+        transaction.setDescription(in.readBoolean() ? in.readUTF() : null);
+        long seconds = in.readLong();
+        transaction.setTimestamp(LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC));
+        return transaction;
+    }
+    
+    static long epochMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+    
+    private static void writeNullableLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+    
+    private static Long readNullableLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+}
@@ -0,0 +1,134 @@
+package com.banking.securetransactionapi.archive;
+
+import com.banking.securetransactionapi.entity.Transaction;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Streams one month of rows, ordered by account id and then newest first, into an archive file.
+ * The file is built under a temporary name and only moved into place by {@link #commit()} once
+ * it is synced to disk, so a reader never sees a partial archive.
+ */
+public class ArchiveWriter implements AutoCloseable {
+    
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final DataOutputStream out;
+    private final int blockRows;
+    private final Runnable onCommit;
+    private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+    private final DataOutputStream indexOut = new DataOutputStream(index);
+    
+    private long offset;
+    private int blockCount;
+    private long rowCount;
+    
+    private Long blockAccountId;
+    private ByteArrayOutputStream block;
+    private DataOutputStream blockOut;
+    private int blockRowCount;
+    private long blockOldest;
+    private long blockNewest;
+    private boolean committed;
+    
+    ArchiveWriter(Path target, YearMonth month, int blockRows, Runnable onCommit) throws IOException {
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.blockRows = blockRows;
+        this.onCommit = onCommit;
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+        out.writeInt(ArchiveFormat.MAGIC);
+        out.writeInt(ArchiveFormat.VERSION);
+        out.writeInt(month.getYear());
+        out.writeInt(month.getMonthValue());
+        offset = ArchiveFormat.HEADER_SIZE;
+    }
+    
+    public void append(Transaction transaction) {
+        try {
+            if (blockOut != null && (!transaction.getAccountId().equals(blockAccountId) || blockRowCount == blockRows)) {
+                finishBlock();
+            }
+            if (blockOut == null) {
+                blockAccountId = transaction.getAccountId();
+                block = new ByteArrayOutputStream();
+                blockOut = new DataOutputStream(new DeflaterOutputStream(block, new Deflater(Deflater.BEST_COMPRESSION)));
+                blockRowCount = 0;
+                blockNewest = ArchiveFormat.epochMillis(transaction.getTimestamp());
+            }
+            ArchiveFormat.writeRow(blockOut, transaction);
+            blockOldest = ArchiveFormat.epochMillis(transaction.getTimestamp());
+            blockRowCount++;
+            rowCount++;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    /**
+     * Writes the index and footer, syncs the file and moves it to its final name.
+     */
+    public void commit() throws IOException {
+        if (blockOut != null) {
+            finishBlock();
+        }
+        long indexOffset = offset;
+        index.writeTo(out);
+        out.writeLong(indexOffset);
+        out.writeInt(blockCount);
+        out.writeLong(rowCount);
+        out.writeInt(ArchiveFormat.MAGIC);
+        out.flush();
+        channel.force(true);
+        channel.close();
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+        onCommit.run();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private void finishBlock() throws IOException {
+        blockOut.close();
+        int length = block.size();
+        block.writeTo(out);
+        
+        indexOut.writeLong(blockAccountId);
+        indexOut.writeLong(blockOldest);
+        indexOut.writeLong(blockNewest);
+        indexOut.writeLong(offset);
+        indexOut.writeInt(length);
+        indexOut.writeInt(blockRowCount);
+        
+        offset += length;
+        blockCount++;
+        blockOut = null;
+        block = null;
+    }
+}
@@ -0,0 +1,166 @@
+package com.banking.securetransactionapi.archive;
+
+import com.banking.securetransactionapi.entity.Transaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Cold storage for transaction months that have been moved out of the database: one immutable,
+ * compressed file per month in {@code banking.archive.directory}. History pages that run past
+ * the oldest row still in the database continue here.
+ */
+@Component
+@Slf4j
+public class TransactionArchive {
+    
+    private static final String PREFIX = "transactions-";
+    private static final String SUFFIX = ".txa";
+    
+    private final Path directory;
+    private final int blockRows;
+    private final Map<YearMonth, ArchiveFile> openFiles = new ConcurrentHashMap<>();
+    
+    // Archived months, kept in memory so history requests do not list the directory
+    private volatile NavigableMap<YearMonth, Path> months = new ConcurrentSkipListMap<>();
+    
+    public TransactionArchive(@Value("${banking.archive.directory:archive}") Path directory,
+                              @Value("${banking.archive.block-rows:1024}") int blockRows) {
+        this.directory = directory;
+        this.blockRows = blockRows;
+        refresh();
+    }
+    
+    /**
+     * Opens a writer for {@code month}; the archive becomes visible once the writer commits.
+     */
+    public ArchiveWriter openWriter(YearMonth month) throws IOException {
+        Files.createDirectories(directory);
+        return new ArchiveWriter(pathFor(month), month, blockRows, () -> registerMonth(month));
+    }
+    
+    public boolean contains(YearMonth month) {
+        return months.containsKey(month);
+    }
+    
+    /**
+     * Up to {@code limit} archived rows of the account that sort before {@code (timestamp, id)},
+     * newest first; a null position starts from the newest archived row.
+     */
+    public List<Transaction> findPageBefore(Long accountId, LocalDateTime timestamp, Long id, int limit) {
+        List<Transaction> page = new ArrayList<>();
+        if (months.isEmpty()) {
+            return page;
+        }
+        NavigableMap<YearMonth, Path> candidates = timestamp == null
+                ? months.descendingMap()
+                : months.headMap(YearMonth.from(timestamp), true).descendingMap();
+        for (YearMonth month : candidates.keySet()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            try {
+                file(month).collectBefore(accountId, timestamp, id, limit, page);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot read transaction archive for " + month, ex);
+            }
+        }
+        return page;
+    }
+    
+    /**
+     * Archived months from {@code from} to {@code to}, both included, oldest first.
+     */
+    public NavigableSet<YearMonth> monthsBetween(YearMonth from, YearMonth to) {
+        return months.navigableKeySet().subSet(from, true, to, true);
+    }
+    
+    /**
+     * The account's rows archived for {@code month} and stamped from {@code from} up to and
+     * including {@code upTo}, newest first.
+     */
+    public List<Transaction> findInMonth(Long accountId, YearMonth month, LocalDateTime from, LocalDateTime upTo) {
+        List<Transaction> rows = new ArrayList<>();
+        if (!months.containsKey(month)) {
+            return rows;
+        }
+        try {
+            file(month).collectBefore(accountId, upTo, Long.MAX_VALUE, Integer.MAX_VALUE, rows);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read transaction archive for " + month, ex);
+        }
+        rows.removeIf(transaction -> transaction.getTimestamp().isBefore(from));
+        return rows;
+    }
+    
+    /**
+     * Re-reads the archive directory, picking up months archived by another instance.
+     */
+    @Scheduled(fixedDelayString = "${banking.archive.refresh-interval-ms:60000}",
+            initialDelayString = "${banking.archive.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        NavigableMap<YearMonth, Path> found = new ConcurrentSkipListMap<>();
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.forEach(path -> {
+                    YearMonth month = monthOf(path);
+                    if (month != null) {
+                        found.put(month, path);
+                    }
+                });
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot list transaction archive " + directory, ex);
+            }
+        }
+        openFiles.keySet().retainAll(found.keySet());
+        months = found;
+    }
+    
+    private void registerMonth(YearMonth month) {
+        openFiles.remove(month);
+        months.put(month, pathFor(month));
+        log.info("Archived transactions for {} to {}", month, pathFor(month));
+    }
+    
+    private ArchiveFile file(YearMonth month) throws IOException {
+        ArchiveFile file = openFiles.get(month);
+        if (file == null) {
+            file = new ArchiveFile(months.get(month));
+            openFiles.put(month, file);
+        }
+        return file;
+    }
+    
+    private Path pathFor(YearMonth month) {
+        return directory.resolve(PREFIX + month + SUFFIX);
+    }
+    
+    private static YearMonth monthOf(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
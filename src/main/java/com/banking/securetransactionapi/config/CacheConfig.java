@@ -0,0 +1,20 @@
+package com.banking.securetransactionapi.config;
+
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.util.ExpiringLruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+    
+    @Bean
+    public ExpiringLruCache<String, User> principalCache(
+            @Value("${banking.cache.principal.max-size:10000}") int maxSize,
+            @Value("${banking.cache.principal.ttl:5m}") Duration ttl) {
+        return new ExpiringLruCache<>(maxSize, ttl);
+    }
+}
@@ -0,0 +1,18 @@
+package com.banking.securetransactionapi.config;
+
+import com.banking.securetransactionapi.entity.SnowflakeIdentifierGenerator;
+import com.banking.securetransactionapi.util.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+    
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(
+            @Value("${spring.jpa.properties.banking.id.node-id:0}") long nodeId) {
+        // Same instance Hibernate uses, for rows written with plain JDBC
+        return SnowflakeIdentifierGenerator.forNode(nodeId);
+    }
+}
@@ -0,0 +1,33 @@
+package com.banking.securetransactionapi.config;
+
+import com.banking.securetransactionapi.invalidation.InvalidationBus;
+import com.banking.securetransactionapi.invalidation.InvalidationBusType;
+import com.banking.securetransactionapi.invalidation.LoopbackInvalidationBus;
+import com.banking.securetransactionapi.invalidation.PostgresInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class InvalidationConfig {
+    
+    @Bean
+    public InvalidationBus invalidationBus(
+            @Value("${banking.invalidation.bus:LOOPBACK}") InvalidationBusType type,
+            @Value("${banking.invalidation.channel:cache_invalidation}") String channel,
+            @Value("${banking.invalidation.reconnect-delay:5s}") Duration reconnectDelay,
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties) {
+        return switch (type) {
+            case LOOPBACK -> new LoopbackInvalidationBus();
+            // The listener connects to the primary directly, outside the connection pool
+            case POSTGRES -> new PostgresInvalidationBus(jdbcTemplate, dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(),
+                    channel, reconnectDelay);
+        };
+    }
+}
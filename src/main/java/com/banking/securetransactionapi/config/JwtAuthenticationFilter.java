@@ -1,11 +1,15 @@
 package com.banking.securetransactionapi.config;
 
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.util.JwtClaims;
 import com.banking.securetransactionapi.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,6 +27,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
     
+    @Value("${jwt.claims-principal.enabled:false}")
+    private boolean claimsPrincipalEnabled;
+    
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -32,6 +39,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final JwtClaims claims;
         final String username;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -40,12 +48,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         jwt = authHeader.substring(7);
-        username = jwtUtil.extractUsername(jwt);
+        // Signature and expiry are verified once here; the claims are reused below
+        claims = jwtUtil.validate(jwt);
+        username = claims.getSubject();
         
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = claimsPrincipalEnabled && claims.hasPrincipalDetails()
+                    ? toPrincipal(claims)
+                    : this.userDetailsService.loadUserByUsername(username);
             
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (jwtUtil.validateToken(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = 
                     new UsernamePasswordAuthenticationToken(
                         userDetails,
@@ -60,4 +72,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+    
+    private User toPrincipal(JwtClaims claims) {
+        // Lightweight principal trusted from the verified token; it carries no password
+        User user = new User();
+        user.setId(claims.getUserId());
+        user.setUsername(claims.getSubject());
+        user.setRole(Role.valueOf(claims.getRole()));
+        user.setAccountId(claims.getAccountId());
+        return user;
+    }
 }
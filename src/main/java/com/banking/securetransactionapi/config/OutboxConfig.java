@@ -0,0 +1,27 @@
+package com.banking.securetransactionapi.config;
+
+import com.banking.securetransactionapi.outbox.FileOutboxSink;
+import com.banking.securetransactionapi.outbox.InMemoryOutboxSink;
+import com.banking.securetransactionapi.outbox.OutboxSink;
+import com.banking.securetransactionapi.outbox.OutboxSinkType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+    
+    @Bean
+    public OutboxSink outboxSink(
+            @Value("${banking.outbox.sink:FILE}") OutboxSinkType type,
+            @Value("${banking.outbox.file:outbox/transaction-events.ndjson}") Path file,
+            ObjectMapper objectMapper) {
+        return switch (type) {
+            case MEMORY -> new InMemoryOutboxSink();
+            case FILE -> new FileOutboxSink(file, objectMapper.writer());
+        };
+    }
+}
@@ -4,7 +4,9 @@ import com.banking.securetransactionapi.dto.ErrorResponse;
 import com.banking.securetransactionapi.entity.Account;
 import com.banking.securetransactionapi.entity.User;
 import com.banking.securetransactionapi.service.AccountService;
+import com.banking.securetransactionapi.service.BalanceSnapshotService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,12 +14,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @RestController
@@ -28,11 +33,13 @@ import java.util.Map;
 public class AccountController {
     
     private final AccountService accountService;
+    private final BalanceSnapshotService balanceSnapshotService;
     
     @GetMapping("/balance")
     @Operation(
         summary = "Get account balance",
-        description = "Retrieves the current balance for the authenticated user's account"
+        description = "Retrieves the current balance for the authenticated user's account, or the balance " +
+                     "as of a past instant from the nearest end-of-day snapshot plus later transactions"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", 
@@ -44,8 +51,22 @@ public class AccountController {
                     description = "Account not found for user",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public ResponseEntity<Map<String, Object>> getBalance(Authentication authentication) {
+    public ResponseEntity<Map<String, Object>> getBalance(
+            Authentication authentication,
+            @Parameter(description = "Point in time (ISO-8601 date-time) to report the balance at")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
         User user = (User) authentication.getPrincipal();
+        
+        if (asOf != null) {
+            Long accountId = accountService.getUserAccountId(user);
+            return ResponseEntity.ok(Map.of(
+                    "accountId", accountId,
+                    "balance", balanceSnapshotService.getBalanceAsOf(accountId, asOf),
+                    "asOf", asOf,
+                    "username", user.getUsername()
+            ));
+        }
+        
         Account account = accountService.getUserAccount(user);
         
         return ResponseEntity.ok(Map.of(
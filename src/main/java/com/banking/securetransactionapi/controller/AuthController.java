@@ -69,9 +69,9 @@ public class AuthController {
         Account account = new Account();
         account.setUserId(savedUser.getId());
         account.setBalance(BigDecimal.ZERO);
-        accountRepository.save(account);
+        Account savedAccount = accountRepository.save(account);
         
-        String jwt = jwtUtil.generateToken(savedUser);
+        String jwt = jwtUtil.generateToken(savedUser, savedAccount.getId());
         
         return ResponseEntity.ok(new AuthResponse(
                 jwt,
@@ -102,7 +102,10 @@ public class AuthController {
         );
         
         User user = userService.findByUsername(request.getUsername());
-        String jwt = jwtUtil.generateToken(user);
+        Long accountId = accountRepository.findByUserId(user.getId())
+                .map(Account::getId)
+                .orElse(null);
+        String jwt = jwtUtil.generateToken(user, accountId);
         
         return ResponseEntity.ok(new AuthResponse(
                 jwt,
@@ -1,12 +1,20 @@
 package com.banking.securetransactionapi.controller;
 
+import com.banking.securetransactionapi.dto.BatchTransferRequest;
+import com.banking.securetransactionapi.dto.BatchTransferResponse;
 import com.banking.securetransactionapi.dto.ErrorResponse;
+import com.banking.securetransactionapi.dto.TransactionHistoryResponse;
 import com.banking.securetransactionapi.dto.TransactionRequest;
 import com.banking.securetransactionapi.dto.TransactionResponse;
 import com.banking.securetransactionapi.dto.TransferRequest;
 import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.service.BatchTransferService;
+import com.banking.securetransactionapi.service.ExportFormat;
+import com.banking.securetransactionapi.service.IdempotencyService;
+import com.banking.securetransactionapi.service.TransactionExportService;
 import com.banking.securetransactionapi.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -16,11 +24,12 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -29,7 +38,12 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class TransactionController {
     
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final BatchTransferService batchTransferService;
+    private final IdempotencyService idempotencyService;
     
     @PostMapping("/deposit")
     @Operation(
@@ -77,14 +91,17 @@ public class TransactionController {
     })
     public ResponseEntity<TransactionResponse> deposit(
             @Valid @RequestBody TransactionRequest request,
+            @Parameter(description = "Client-generated key; retries with the same key return the original response")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         
         User user = (User) authentication.getPrincipal();
-        TransactionResponse response = transactionService.deposit(
-                user, 
-                request.getAmount(), 
-                request.getDescription()
-        );
+        TransactionResponse response = idempotencyService.execute(user, idempotencyKey, "DEPOSIT", request,
+                () -> transactionService.deposit(
+                        user,
+                        request.getAmount(),
+                        request.getDescription()
+                ));
         
         return ResponseEntity.ok(response);
     }
@@ -140,14 +157,17 @@ public class TransactionController {
     })
     public ResponseEntity<TransactionResponse> withdraw(
             @Valid @RequestBody TransactionRequest request,
+            @Parameter(description = "Client-generated key; retries with the same key return the original response")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         
         User user = (User) authentication.getPrincipal();
-        TransactionResponse response = transactionService.withdraw(
-                user, 
-                request.getAmount(), 
-                request.getDescription()
-        );
+        TransactionResponse response = idempotencyService.execute(user, idempotencyKey, "WITHDRAW", request,
+                () -> transactionService.withdraw(
+                        user,
+                        request.getAmount(),
+                        request.getDescription()
+                ));
         
         return ResponseEntity.ok(response);
     }
@@ -201,15 +221,60 @@ public class TransactionController {
     })
     public ResponseEntity<TransactionResponse> transfer(
             @Valid @RequestBody TransferRequest request,
+            @Parameter(description = "Client-generated key; retries with the same key return the original response")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         
         User user = (User) authentication.getPrincipal();
-        TransactionResponse response = transactionService.transfer(
-                user,
-                request.getTargetAccountId(),
-                request.getAmount(),
-                request.getDescription()
-        );
+        TransactionResponse response = idempotencyService.execute(user, idempotencyKey, "TRANSFER", request,
+                () -> transactionService.transfer(
+                        user,
+                        request.getTargetAccountId(),
+                        request.getAmount(),
+                        request.getDescription()
+                ));
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/transfer/batch")
+    @Operation(
+        summary = "Transfer money in bulk",
+        description = "Executes up to 10000 transfers from the authenticated user's account in one transaction, " +
+                      "e.g. a payroll run. The total is checked against the balance once; items with an unknown " +
+                      "or same-account target are rejected individually and the rest are executed.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Transfers to execute",
+            content = @Content(
+                schema = @Schema(implementation = BatchTransferRequest.class),
+                examples = {
+                    @ExampleObject(
+                        name = "Payroll Run",
+                        summary = "Monthly salaries",
+                        value = "{\"transfers\": [{\"amount\": 2500.00, \"targetAccountId\": 2, \"description\": \"Salary April\"}, " +
+                                "{\"amount\": 3100.00, \"targetAccountId\": 3, \"description\": \"Salary April\"}]}"
+                    )
+                }
+            )
+        )
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Batch processed; see per-item results", 
+                    content = @Content(schema = @Schema(implementation = BatchTransferResponse.class))),
+        @ApiResponse(responseCode = "400", 
+                    description = "Insufficient funds for the batch total or validation failed",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", 
+                    description = "User not authenticated",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BatchTransferResponse> batchTransfer(
+            @Valid @RequestBody BatchTransferRequest request,
+            Authentication authentication) {
+        
+        User user = (User) authentication.getPrincipal();
+        BatchTransferResponse response = batchTransferService.transfer(user, request.getTransfers());
         
         return ResponseEntity.ok(response);
     }
@@ -217,21 +282,58 @@ public class TransactionController {
     @GetMapping("/history")
     @Operation(
         summary = "Get transaction history",
-        description = "Retrieves the transaction history for the authenticated user's account"
+        description = "Retrieves the transaction history for the authenticated user's account, newest first. " +
+                      "Pass the returned nextCursor to fetch the next page of older transactions."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", 
-                    description = "Transaction history retrieved successfully"),
+                    description = "Transaction history retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = TransactionHistoryResponse.class))),
+        @ApiResponse(responseCode = "400", 
+                    description = "Invalid cursor",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "401", 
                     description = "User not authenticated",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public ResponseEntity<List<TransactionResponse>> getTransactionHistory(
+    public ResponseEntity<TransactionHistoryResponse> getTransactionHistory(
+            @Parameter(description = "nextCursor from the previous page; omit for the newest transactions")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of transactions to return (capped at 500)", example = "50")
+            @RequestParam(required = false) Integer limit,
             Authentication authentication) {
         
         User user = (User) authentication.getPrincipal();
-        List<TransactionResponse> history = transactionService.getTransactionHistory(user);
+        TransactionHistoryResponse history = transactionService.getTransactionHistory(user, cursor, limit);
         
         return ResponseEntity.ok(history);
     }
+    
+    @GetMapping("/export")
+    @Operation(
+        summary = "Export transaction history",
+        description = "Streams the complete transaction history of the authenticated user's account, newest first, " +
+                      "as NDJSON (one JSON object per line) or CSV"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "401", 
+                    description = "User not authenticated",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportTransactionHistory(
+            @Parameter(description = "Export format", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            Authentication authentication) {
+        
+        User user = (User) authentication.getPrincipal();
+        StreamingResponseBody body = out -> transactionExportService.export(user, format, out);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + format.getFileExtension() + "\"")
+                .body(body);
+    }
 }
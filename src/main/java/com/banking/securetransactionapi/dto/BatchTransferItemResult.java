@@ -0,0 +1,35 @@
+package com.banking.securetransactionapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of one transfer within a batch")
+public class BatchTransferItemResult {
+    
+    public enum Status { COMPLETED, REJECTED }
+    
+    @Schema(description = "Position of the transfer in the request", example = "0")
+    private int index;
+    
+    @Schema(description = "Target account ID", example = "2")
+    private Long targetAccountId;
+    
+    @Schema(description = "Transfer amount", example = "2500.00")
+    private BigDecimal amount;
+    
+    @Schema(description = "Whether the transfer was executed", example = "COMPLETED")
+    private Status status;
+    
+    @Schema(description = "ID of the outgoing transaction, null when rejected", example = "1234567890")
+    private Long transactionId;
+    
+    @Schema(description = "Reason for rejection, null when completed", example = "Target account not found")
+    private String error;
+}
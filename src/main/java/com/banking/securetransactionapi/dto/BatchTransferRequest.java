@@ -0,0 +1,19 @@
+package com.banking.securetransactionapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Batch of transfers from the authenticated user's account, e.g. a payroll run")
+public class BatchTransferRequest {
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 10000, message = "A batch may contain at most 10000 transfers")
+    @Valid
+    @Schema(description = "Transfers to execute, in order")
+    private List<TransferRequest> transfers;
+}
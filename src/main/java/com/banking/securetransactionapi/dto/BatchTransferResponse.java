@@ -0,0 +1,30 @@
+package com.banking.securetransactionapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch transfer summary with per-item results")
+public class BatchTransferResponse {
+    @Schema(description = "Number of transfers executed", example = "9998")
+    private int completed;
+    
+    @Schema(description = "Number of transfers rejected", example = "2")
+    private int rejected;
+    
+    @Schema(description = "Total amount debited from the source account", example = "25000000.00")
+    private BigDecimal totalAmount;
+    
+    @Schema(description = "Source account balance after the batch", example = "1500.75")
+    private BigDecimal balanceAfter;
+    
+    @Schema(description = "Per-item results in request order")
+    private List<BatchTransferItemResult> results;
+}
@@ -0,0 +1,21 @@
+package com.banking.securetransactionapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of transaction history, newest first")
+public class TransactionHistoryResponse {
+    @Schema(description = "Transactions on this page")
+    private List<TransactionResponse> transactions;
+    
+    @Schema(description = "Opaque cursor for the next page, null when there are no older transactions",
+            example = "MjAyMy0xMi0wMVQxMDozMDowMHw0Mg")
+    private String nextCursor;
+}
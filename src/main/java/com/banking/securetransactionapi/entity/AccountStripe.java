@@ -0,0 +1,41 @@
+package com.banking.securetransactionapi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * One sub-balance of a striped account. The account's balance is {@code accounts.balance} plus
+ * the sum of its stripes; credits land on a single stripe so concurrent payers update different
+ * rows.
+ */
+@Entity
+@Table(name = "account_stripes")
+@IdClass(AccountStripe.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountStripe {
+    
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+    
+    @Id
+    private Integer stripe;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private Integer stripe;
+    }
+}
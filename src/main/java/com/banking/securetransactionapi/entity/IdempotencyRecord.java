@@ -0,0 +1,45 @@
+package com.banking.securetransactionapi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A client-supplied {@code Idempotency-Key} and the response it produced. With the synchronous
+ * engines the row is inserted in the same transaction as the money movement; with group commit or
+ * the SHARDED engine it is committed as pending before the operation runs and completed after it.
+ */
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_idempotency_keys_user_key", columnNames = {"user_id", "idempotency_key"})
+}, indexes = {
+    @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+    
+    // SHA-256 of the operation and request body, hex encoded
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+    
+    // Serialized TransactionResponse; null only while the operation is still running
+    @Column(length = 4000)
+    private String response;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,55 @@
+package com.banking.securetransactionapi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One leg of a double-entry journal posting. All legs of a posting share a {@code journalId} and
+ * their signed amounts sum to zero; money entering or leaving the bank is booked against
+ * {@link #EXTERNAL_ACCOUNT_ID}. Legs are append-only apart from the {@code projected} flag.
+ */
+@Entity
+@Table(name = "journal_legs", indexes = {
+    @Index(name = "idx_journal_legs_account_projected", columnList = "account_id, projected"),
+    @Index(name = "idx_journal_legs_projected_timestamp", columnList = "projected, timestamp")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalLeg {
+    
+    /** Clearing account for deposits and withdrawals; never a row in {@code accounts}. */
+    public static final long EXTERNAL_ACCOUNT_ID = 0L;
+    
+    @Id
+    @SnowflakeId
+    private Long id;
+    
+    @Column(name = "journal_id", nullable = false)
+    private Long journalId;
+    
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount; // Positive credits the account, negative debits it
+    
+    @Enumerated(EnumType.STRING)
+    private TransactionType type; // Null on external legs
+    
+    @Column(name = "counterparty_account_id")
+    private Long counterpartyAccountId;
+    
+    private String description;
+    
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+    
+    @Column(nullable = false)
+    private boolean projected;
+}
@@ -0,0 +1,55 @@
+package com.banking.securetransactionapi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A transaction event waiting to be relayed downstream. Rows are written in the same database
+ * transaction as the {@code transactions} row they describe and share its id, so consumers can
+ * de-duplicate on it; the relay deletes them once published.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+    
+    @Column(name = "counterparty_account_id")
+    private Long counterpartyAccountId;
+    
+    @Column(name = "balance_after", precision = 19, scale = 2)
+    private BigDecimal balanceAfter;
+    
+    private String description;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    public static OutboxEvent of(Transaction transaction, LocalDateTime createdAt) {
+        return new OutboxEvent(transaction.getId(), transaction.getAccountId(), transaction.getType(),
+                transaction.getAmount(), transaction.getTargetAccountId(), transaction.getBalanceAfter(),
+                transaction.getDescription(), transaction.getTimestamp(), createdAt);
+    }
+}
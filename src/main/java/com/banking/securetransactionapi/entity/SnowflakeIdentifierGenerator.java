@@ -0,0 +1,43 @@
+package com.banking.securetransactionapi.entity;
+
+import com.banking.securetransactionapi.util.SnowflakeIdGenerator;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hibernate adapter for {@link SnowflakeIdGenerator}. The node id comes from the
+ * {@value #NODE_ID_SETTING} Hibernate setting and must differ between application instances
+ * sharing a database. All entities and JDBC writers on a node share one generator per node id,
+ * so rows inserted outside Hibernate can never collide with Hibernate-assigned ids.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+    
+    public static final String NODE_ID_SETTING = "banking.id.node-id";
+    
+    private static final ConcurrentMap<Long, SnowflakeIdGenerator> GENERATORS = new ConcurrentHashMap<>();
+    
+    private final SnowflakeIdGenerator generator;
+    
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object nodeId = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSettings()
+                .get(NODE_ID_SETTING);
+        this.generator = forNode(nodeId == null ? 0 : Long.parseLong(nodeId.toString()));
+    }
+    
+    public static SnowflakeIdGenerator forNode(long nodeId) {
+        return GENERATORS.computeIfAbsent(nodeId, SnowflakeIdGenerator::new);
+    }
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return generator.nextId();
+    }
+}
@@ -9,13 +9,15 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    @Index(name = "idx_transactions_account_timestamp_id", columnList = "account_id, timestamp DESC, id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
     
     @Column(name = "account_id", nullable = false)
@@ -30,12 +32,16 @@ public class Transaction {
     @Column(name = "target_account_id")
     private Long targetAccountId; // For transfers
     
+    @Column(name = "balance_after", precision = 19, scale = 2)
+    private BigDecimal balanceAfter; // Null only on rows not yet backfilled
+    
     private String description;
     
     @Column(nullable = false)
     private LocalDateTime timestamp = LocalDateTime.now();
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "account_id", insertable = false, updatable = false)
+    @JoinColumn(name = "account_id", insertable = false, updatable = false,
+                foreignKey = @ForeignKey(name = "fk_transactions_account"))
     private Account account;
 }
@@ -70,6 +70,40 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(
+            InvalidCursorException ex, HttpServletRequest request) {
+        
+        log.warn("Invalid cursor: {}", ex.getMessage());
+        
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "INVALID_CURSOR",
+            ex.getMessage(),
+            "The cursor must be a nextCursor value returned by a previous history request",
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    @ExceptionHandler(IdempotencyKeyException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKey(
+            IdempotencyKeyException ex, HttpServletRequest request) {
+        
+        log.warn("Idempotency key rejected: {}", ex.getMessage());
+        
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.UNPROCESSABLE_ENTITY.value(),
+            "IDEMPOTENCY_KEY_REJECTED",
+            ex.getMessage(),
+            "Retries must repeat the original request; use a new key for a new request",
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.unprocessableEntity().body(error);
+    }
+
     @ExceptionHandler(UsernameAlreadyExistsException.class)
     public ResponseEntity<ErrorResponse> handleUsernameAlreadyExists(
             UsernameAlreadyExistsException ex, HttpServletRequest request) {
@@ -0,0 +1,131 @@
+package com.banking.securetransactionapi.invalidation;
+
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.service.BalanceCache;
+import com.banking.securetransactionapi.util.ExpiringLruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the node-local principal and balance caches of all nodes in step. Writers report the
+ * users and accounts they changed; the keys changed by one transaction go out as a single
+ * message when it commits, and every other node evicts them. Each node still updates its own
+ * caches directly, so it skips its own messages.
+ * <p>
+ * A message is the sending node's id followed by space-separated keys: {@code P} and a URL-encoded
+ * username, or {@code B} and an account id. Messages are split below PostgreSQL's 8000-byte
+ * payload limit.
+ */
+@Component
+@Slf4j
+public class CacheInvalidator implements InvalidationListener {
+    
+    private static final char PRINCIPAL = 'P';
+    private static final char BALANCE = 'B';
+    private static final int MAX_MESSAGE_LENGTH = 7000;
+    
+    private final InvalidationBus bus;
+    private final ExpiringLruCache<String, User> principalCache;
+    private final BalanceCache balanceCache;
+    private final String nodeId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    
+    public CacheInvalidator(InvalidationBus bus, ExpiringLruCache<String, User> principalCache,
+                            BalanceCache balanceCache) {
+        this.bus = bus;
+        this.principalCache = principalCache;
+        this.balanceCache = balanceCache;
+    }
+    
+    @PostConstruct
+    void subscribe() {
+        bus.subscribe(this);
+    }
+    
+    public void userChanged(String username) {
+        enqueue(PRINCIPAL + URLEncoder.encode(username, StandardCharsets.UTF_8));
+    }
+    
+    public void balanceChanged(Long accountId) {
+        if (balanceCache.isCaching(accountId)) {
+            enqueue(BALANCE + accountId.toString());
+        }
+    }
+    
+    @Override
+    public void onMessage(String message) {
+        String[] parts = message.split(" ");
+        if (parts[0].equals(nodeId)) {
+            return;
+        }
+        for (int i = 1; i < parts.length; i++) {
+            String key = parts[i];
+            try {
+                switch (key.charAt(0)) {
+                    case PRINCIPAL -> principalCache.invalidate(URLDecoder.decode(key.substring(1), StandardCharsets.UTF_8));
+                    case BALANCE -> balanceCache.invalidate(Long.valueOf(key.substring(1)));
+                    default -> log.warn("Ignoring unknown cache invalidation key {}", key);
+                }
+            } catch (IllegalArgumentException | StringIndexOutOfBoundsException ex) {
+                log.warn("Ignoring malformed cache invalidation key {}", key);
+            }
+        }
+    }
+    
+    @Override
+    public void onReset() {
+        principalCache.invalidateAll();
+        balanceCache.invalidateAll();
+    }
+    
+    private void enqueue(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(Set.of(key));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> keys = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, keys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Inside the transaction, so the bus can tie delivery to its commit
+                    publish(keys);
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidator.this);
+                }
+            });
+            pending = keys;
+        }
+        pending.add(key);
+    }
+    
+    private void publish(Set<String> keys) {
+        StringBuilder message = new StringBuilder(nodeId);
+        for (String key : keys) {
+            if (message.length() > nodeId.length() && message.length() + key.length() + 1 > MAX_MESSAGE_LENGTH) {
+                bus.publish(message.toString());
+                message.setLength(0);
+                message.append(nodeId);
+            }
+            message.append(' ').append(key);
+        }
+        if (message.length() > nodeId.length()) {
+            bus.publish(message.toString());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.banking.securetransactionapi.invalidation;
+
+/**
+ * Carries cache invalidation messages to every node. A message published inside a transaction is
+ * delivered only if that transaction commits; one published outside a transaction is delivered
+ * right away. Delivery is at most once, so listeners are told to drop everything when messages
+ * may have been lost.
+ */
+public interface InvalidationBus {
+    
+    void publish(String message);
+    
+    void subscribe(InvalidationListener listener);
+}
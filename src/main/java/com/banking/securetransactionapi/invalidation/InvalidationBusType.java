@@ -0,0 +1,6 @@
+package com.banking.securetransactionapi.invalidation;
+
+public enum InvalidationBusType {
+    POSTGRES,
+    LOOPBACK
+}
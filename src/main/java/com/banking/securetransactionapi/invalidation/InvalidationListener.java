@@ -0,0 +1,11 @@
+package com.banking.securetransactionapi.invalidation;
+
+public interface InvalidationListener {
+    
+    void onMessage(String message);
+    
+    /**
+     * Messages may have been missed, for example while the bus was reconnecting.
+     */
+    void onReset();
+}
@@ -0,0 +1,38 @@
+package com.banking.securetransactionapi.invalidation;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers messages to the listeners in this JVM; meant for tests and single-node runs.
+ */
+public class LoopbackInvalidationBus implements InvalidationBus {
+    
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    
+    @Override
+    public void publish(String message) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deliver(message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deliver(message);
+            }
+        });
+    }
+    
+    @Override
+    public void subscribe(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+    
+    private void deliver(String message) {
+        listeners.forEach(listener -> listener.onMessage(message));
+    }
+}
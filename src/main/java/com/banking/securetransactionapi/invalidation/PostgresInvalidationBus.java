@@ -0,0 +1,125 @@
+package com.banking.securetransactionapi.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Invalidation over PostgreSQL {@code LISTEN}/{@code NOTIFY}. Messages go out with
+ * {@code pg_notify} on the writer's own connection, so PostgreSQL delivers them only when the
+ * transaction commits. Each node listens on a dedicated connection outside the pool; after every
+ * (re)connect the listeners are reset, since notifications sent while it was away are lost.
+ */
+@Slf4j
+public class PostgresInvalidationBus implements InvalidationBus, AutoCloseable {
+    
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int POLL_TIMEOUT_MS = 1000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final Duration reconnectDelay;
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    
+    private volatile boolean running;
+    private Thread worker;
+    
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate, String url, String username, String password,
+                                   String channel, Duration reconnectDelay) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid invalidation channel name: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.reconnectDelay = reconnectDelay;
+    }
+    
+    @Override
+    public void publish(String message) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, message);
+    }
+    
+    @Override
+    public synchronized void subscribe(InvalidationListener listener) {
+        listeners.add(listener);
+        if (worker == null) {
+            running = true;
+            worker = new Thread(this::listen, "cache-invalidation-listener");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+    
+    @Override
+    public synchronized void close() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+    
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                listeners.forEach(InvalidationListener::onReset);
+                log.info("Listening for cache invalidations on channel {}", channel);
+                
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            deliver(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection, reconnecting in {}: {}",
+                            reconnectDelay, ex.getMessage());
+                    pause();
+                }
+            }
+        }
+    }
+    
+    private void deliver(String message) {
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.onMessage(message);
+            } catch (RuntimeException ex) {
+                log.error("Cache invalidation listener failed", ex);
+            }
+        }
+    }
+    
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelay.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.banking.securetransactionapi.ledger;
+
+import com.banking.securetransactionapi.entity.JournalLeg;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.exception.AccountNotFoundException;
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import com.banking.securetransactionapi.repository.JournalJdbcRepository;
+import com.banking.securetransactionapi.service.RetryExecutor;
+import com.banking.securetransactionapi.util.SnowflakeIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Journal-first write path, used when {@code banking.ledger.engine=JOURNAL}. Every operation is a
+ * single append of balanced legs to {@code journal_legs}; {@link JournalProjector} later folds them
+ * into {@code accounts.balance} and the transaction history.
+ * <p>
+ * Credits take no locks at all, so a popular payee no longer serializes its payers. Debits lock
+ * only the paying account's row, which keeps the balance check race-free without blocking credits.
+ */
+@Service
+@RequiredArgsConstructor
+public class JournalLedgerService {
+    
+    private final JournalJdbcRepository journalRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryExecutor retryExecutor;
+    private final SnowflakeIdGenerator idGenerator;
+    
+    @Value("${banking.ledger.engine:JPA}")
+    private LedgerEngineType engineType = LedgerEngineType.JPA;
+    
+    public boolean isEnabled() {
+        return engineType == LedgerEngineType.JOURNAL;
+    }
+    
+    public Transaction deposit(Long accountId, BigDecimal amount, String description) {
+        return inTransaction(() -> {
+            if (!journalRepository.accountExists(accountId)) {
+                throw new AccountNotFoundException("Account not found");
+            }
+            JournalPosting posting = new JournalPosting(description);
+            JournalLeg credit = posting.leg(accountId, amount, TransactionType.DEPOSIT, null);
+            journalRepository.append(List.of(credit, posting.leg(JournalLeg.EXTERNAL_ACCOUNT_ID, amount.negate(), null, null)));
+            // Includes concurrent credits that committed first, so this can run ahead of the history row
+            return toTransaction(credit, journalRepository.currentBalance(accountId));
+        });
+    }
+    
+    public Transaction withdraw(Long accountId, BigDecimal amount, String description) {
+        return inTransaction(() -> {
+            BigDecimal balance = lockedBalance(accountId);
+            if (balance.compareTo(amount) < 0) {
+                throw new InsufficientFundsException("Insufficient balance for withdrawal");
+            }
+            JournalPosting posting = new JournalPosting(description);
+            JournalLeg debit = posting.leg(accountId, amount.negate(), TransactionType.WITHDRAWAL, null);
+            journalRepository.append(List.of(debit, posting.leg(JournalLeg.EXTERNAL_ACCOUNT_ID, amount, null, null)));
+            return toTransaction(debit, balance.subtract(amount));
+        });
+    }
+    
+    /**
+     * Appends both legs of a transfer and returns the source account's row.
+     */
+    public Transaction transfer(Long sourceAccountId, Long targetAccountId, BigDecimal amount, String description) {
+        return inTransaction(() -> {
+            BigDecimal balance = lockedBalance(sourceAccountId);
+            if (balance.compareTo(amount) < 0) {
+                throw new InsufficientFundsException("Insufficient balance for transfer");
+            }
+            if (!journalRepository.accountExists(targetAccountId)) {
+                throw new AccountNotFoundException("Account not found");
+            }
+            JournalPosting posting = new JournalPosting(description);
+            JournalLeg debit = posting.leg(sourceAccountId, amount.negate(), TransactionType.TRANSFER_OUT, targetAccountId);
+            journalRepository.append(List.of(debit,
+                    posting.leg(targetAccountId, amount, TransactionType.TRANSFER_IN, sourceAccountId)));
+            return toTransaction(debit, balance.subtract(amount));
+        });
+    }
+    
+    private Transaction inTransaction(Supplier<Transaction> operation) {
+        return retryExecutor.execute(() -> transactionTemplate.execute(status -> operation.get()));
+    }
+    
+    private BigDecimal lockedBalance(Long accountId) {
+        if (!journalRepository.lockAccount(accountId)) {
+            throw new AccountNotFoundException("Account not found");
+        }
+        return journalRepository.currentBalance(accountId);
+    }
+    
+    static Transaction toTransaction(JournalLeg leg, BigDecimal balanceAfter) {
+        // History rows share the id of the leg they were projected from
+        Transaction transaction = new Transaction();
+        transaction.setId(leg.getId());
+        transaction.setAccountId(leg.getAccountId());
+        transaction.setType(leg.getType());
+        transaction.setAmount(leg.getAmount().abs());
+        transaction.setTargetAccountId(leg.getCounterpartyAccountId());
+        transaction.setDescription(leg.getDescription());
+        transaction.setTimestamp(leg.getTimestamp());
+        transaction.setBalanceAfter(balanceAfter);
+        return transaction;
+    }
+    
+    private final class JournalPosting {
+        private final long journalId = idGenerator.nextId();
+        private final LocalDateTime timestamp = LocalDateTime.now();
+        private final String description;
+        
+        private JournalPosting(String description) {
+            this.description = description;
+        }
+        
+        JournalLeg leg(Long accountId, BigDecimal amount, TransactionType type, Long counterpartyAccountId) {
+            return new JournalLeg(idGenerator.nextId(), journalId, accountId, amount, type, counterpartyAccountId,
+                    description, timestamp, false);
+        }
+    }
+}
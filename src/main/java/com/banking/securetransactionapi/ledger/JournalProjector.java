@@ -0,0 +1,156 @@
+package com.banking.securetransactionapi.ledger;
+
+import com.banking.securetransactionapi.entity.JournalLeg;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.repository.JournalJdbcRepository;
+import com.banking.securetransactionapi.repository.LedgerJdbcRepository;
+import com.banking.securetransactionapi.repository.OutboxJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background projector for the journal write path. Each pass takes the oldest unprojected legs,
+ * and in one transaction adds their per-account sums to {@code accounts.balance}, writes the
+ * matching transaction history rows with running {@code balance_after}, and flags the legs as
+ * projected.
+ * <p>
+ * Only legs older than {@code settle-ms} are taken, so appends still committing are not
+ * overtaken and history keeps journal order. Legs are claimed with row locks, so projectors on
+ * several instances take turns instead of applying the same legs twice.
+ */
+@Component
+@Slf4j
+public class JournalProjector {
+    
+    private final JournalJdbcRepository journalRepository;
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final OutboxJdbcRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long intervalMs;
+    private final long settleMs;
+    
+    private final AtomicLong projectedCount = new AtomicLong();
+    
+    private volatile boolean running;
+    private Thread worker;
+    
+    public JournalProjector(JournalJdbcRepository journalRepository,
+                            LedgerJdbcRepository ledgerJdbcRepository,
+                            OutboxJdbcRepository outboxRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${banking.ledger.engine:JPA}") LedgerEngineType engineType,
+                            @Value("${banking.journal.projector.enabled:true}") boolean enabled,
+                            @Value("${banking.journal.projector.batch-size:5000}") int batchSize,
+                            @Value("${banking.journal.projector.interval-ms:50}") long intervalMs,
+                            @Value("${banking.journal.projector.settle-ms:200}") long settleMs) {
+        this.journalRepository = journalRepository;
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled && engineType == LedgerEngineType.JOURNAL;
+        this.batchSize = batchSize;
+        this.intervalMs = intervalMs;
+        this.settleMs = settleMs;
+    }
+    
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runProjector, "journal-projector");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Journal projector started: batch {} legs, interval {} ms, settle {} ms", batchSize, intervalMs, settleMs);
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(30));
+    }
+    
+    /**
+     * Projects one batch of settled legs and returns how many were projected.
+     */
+    public synchronized int projectPending() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(settleMs));
+        Integer projected = transactionTemplate.execute(status -> {
+            List<JournalLeg> legs = journalRepository.claimUnprojected(cutoff, batchSize);
+            if (legs.isEmpty()) {
+                return 0;
+            }
+            
+            SortedMap<Long, BigDecimal> deltas = new TreeMap<>();
+            for (JournalLeg leg : legs) {
+                if (leg.getAccountId() != JournalLeg.EXTERNAL_ACCOUNT_ID) {
+                    deltas.merge(leg.getAccountId(), leg.getAmount(), BigDecimal::add);
+                }
+            }
+            
+            // Projectors take turns on the claimed legs, so the stored balances are where history resumes
+            Map<Long, BigDecimal> running = ledgerJdbcRepository.findBalances(deltas.keySet());
+            List<Transaction> history = new ArrayList<>(legs.size());
+            List<Long> legIds = new ArrayList<>(legs.size());
+            for (JournalLeg leg : legs) {
+                legIds.add(leg.getId());
+                if (leg.getAccountId() != JournalLeg.EXTERNAL_ACCOUNT_ID) {
+                    BigDecimal balance = running.merge(leg.getAccountId(), leg.getAmount(), BigDecimal::add);
+                    history.add(JournalLedgerService.toTransaction(leg, balance));
+                }
+            }
+            
+            ledgerJdbcRepository.addToBalances(deltas);
+            ledgerJdbcRepository.insertTransactions(history);
+            outboxRepository.append(history);
+            journalRepository.markProjected(legIds);
+            return legs.size();
+        });
+        projectedCount.addAndGet(projected);
+        return projected;
+    }
+    
+    public long getProjectedCount() {
+        return projectedCount.get();
+    }
+    
+    private void runProjector() {
+        while (running) {
+            int projected = 0;
+            try {
+                projected = projectPending();
+            } catch (RuntimeException ex) {
+                // Nothing was committed; the same legs are picked up again on the next pass
+                log.error("Journal projection failed", ex);
+            }
+            if (projected < batchSize) {
+                try {
+                    Thread.sleep(intervalMs);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+        }
+    }
+}
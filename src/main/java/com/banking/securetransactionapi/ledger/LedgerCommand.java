@@ -0,0 +1,49 @@
+package com.banking.securetransactionapi.ledger;
+
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.util.Money;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Work items processed by a {@link LedgerShard}. Each carries the caller's future, which is
+ * completed with the caller-facing ledger row once the journal has committed it.
+ */
+sealed interface LedgerCommand {
+    
+    CompletableFuture<Transaction> result();
+    
+    record Deposit(Long accountId, Money amount, String description,
+                   CompletableFuture<Transaction> result) implements LedgerCommand {
+    }
+    
+    record Withdraw(Long accountId, Money amount, String description,
+                    CompletableFuture<Transaction> result) implements LedgerCommand {
+    }
+    
+    /** Phase one of a transfer, run on the source account's shard: reserve the amount. */
+    record TransferDebit(Long sourceAccountId, Long targetAccountId, Money amount, String description,
+                         CompletableFuture<Transaction> result) implements LedgerCommand {
+    }
+    
+    /**
+     * Phase two, run on the target account's shard: credit the reserved amount and journal both
+     * legs. The outgoing row is stamped on the source shard so it sorts in that account's order.
+     */
+    record TransferCredit(TransferDebit debit, Transaction outgoing) implements LedgerCommand {
+        
+        @Override
+        public CompletableFuture<Transaction> result() {
+            return debit.result();
+        }
+    }
+    
+    /** Returns a reserved amount to the source account when phase two cannot complete. */
+    record Refund(TransferDebit debit, RuntimeException cause) implements LedgerCommand {
+        
+        @Override
+        public CompletableFuture<Transaction> result() {
+            return debit.result();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.banking.securetransactionapi.ledger;
+
+/**
+ * Write path for deposits, withdrawals and transfers, selected by {@code banking.ledger.engine}.
+ */
+public enum LedgerEngineType {
+    /** Balances are updated in the database inside each request's transaction. */
+    JPA,
+    /** Balances live in single-writer shards and are journaled to the database in batches. */
+    SHARDED,
+    /** Writes append balanced journal legs; balances are projected from the journal in the background. */
+    JOURNAL
+}
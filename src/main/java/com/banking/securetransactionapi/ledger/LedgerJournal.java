@@ -0,0 +1,177 @@
+package com.banking.securetransactionapi.ledger;
+
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.repository.LedgerJdbcRepository;
+import com.banking.securetransactionapi.repository.OutboxJdbcRepository;
+import com.banking.securetransactionapi.service.RetryExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous, batched write-behind of shard results to the database. Each entry is a set of
+ * ledger rows that must become durable together (both legs of a transfer are one entry); the
+ * writer commits whole entries in batches and only then completes their callers' futures.
+ * <p>
+ * Balances are journaled as deltas ({@code balance = balance + ?}) rather than absolute values,
+ * so entries from different shards commute and the accounts table always equals the sum of
+ * committed rows. If a batch cannot be committed the journal halts: the shards' in-memory state
+ * is then ahead of the database and the node must be restarted to recover from it.
+ */
+@Slf4j
+class LedgerJournal {
+    
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final OutboxJdbcRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryExecutor retryExecutor;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    // Unbounded so a shard never blocks on the journal; callers waiting on futures bound its size
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    
+    private final AtomicLong commitCount = new AtomicLong();
+    private final AtomicLong entryCount = new AtomicLong();
+    
+    private volatile boolean running;
+    private volatile RuntimeException failure;
+    private Thread writer;
+    
+    LedgerJournal(LedgerJdbcRepository ledgerJdbcRepository, OutboxJdbcRepository outboxRepository,
+                  TransactionTemplate transactionTemplate, RetryExecutor retryExecutor, int maxBatchSize,
+                  long maxDelayMs) {
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retryExecutor = retryExecutor;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+    }
+    
+    void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "ledger-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+    
+    /**
+     * Queues {@code rows} for the next commit; {@code future} completes with {@code result} after it.
+     */
+    void append(List<Transaction> rows, Transaction result, CompletableFuture<Transaction> future) {
+        RuntimeException halted = failure;
+        if (halted != null) {
+            future.completeExceptionally(new IllegalStateException("Ledger journal has halted", halted));
+            return;
+        }
+        queue.add(new Entry(rows, result, future));
+    }
+    
+    RuntimeException getFailure() {
+        return failure;
+    }
+    
+    long getCommitCount() {
+        return commitCount.get();
+    }
+    
+    long getEntryCount() {
+        return entryCount.get();
+    }
+    
+    private void runWriter() {
+        List<Entry> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Entry next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void commit(List<Entry> batch) {
+        if (failure != null) {
+            batch.forEach(entry -> entry.future.completeExceptionally(
+                    new IllegalStateException("Ledger journal has halted", failure)));
+            return;
+        }
+        
+        SortedMap<Long, BigDecimal> deltas = new TreeMap<>();
+        List<Transaction> rows = new ArrayList<>();
+        for (Entry entry : batch) {
+            for (Transaction row : entry.rows) {
+                BigDecimal amount = isCredit(row.getType()) ? row.getAmount() : row.getAmount().negate();
+                deltas.merge(row.getAccountId(), amount, BigDecimal::add);
+                rows.add(row);
+            }
+        }
+        
+        try {
+            retryExecutor.execute(() -> transactionTemplate.execute(status -> {
+                List<Long> missing = ledgerJdbcRepository.addToBalances(deltas);
+                if (!missing.isEmpty()) {
+                    throw new IllegalStateException("Journaled accounts no longer exist: " + missing);
+                }
+                ledgerJdbcRepository.insertTransactions(rows);
+                outboxRepository.append(rows);
+                return null;
+            }));
+        } catch (RuntimeException ex) {
+            log.error("Ledger journal failed to commit {} entries; halting until restart", batch.size(), ex);
+            failure = ex;
+            batch.forEach(entry -> entry.future.completeExceptionally(ex));
+            return;
+        }
+        
+        commitCount.incrementAndGet();
+        entryCount.addAndGet(batch.size());
+        batch.forEach(entry -> entry.future.complete(entry.result));
+    }
+    
+    private static boolean isCredit(TransactionType type) {
+        return type == TransactionType.DEPOSIT || type == TransactionType.TRANSFER_IN;
+    }
+    
+    private record Entry(List<Transaction> rows, Transaction result, CompletableFuture<Transaction> future) {
+    }
+}
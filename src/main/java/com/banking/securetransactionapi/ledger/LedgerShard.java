@@ -0,0 +1,273 @@
+package com.banking.securetransactionapi.ledger;
+
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.exception.AccountNotFoundException;
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import com.banking.securetransactionapi.ledger.LedgerCommand.Deposit;
+import com.banking.securetransactionapi.ledger.LedgerCommand.Refund;
+import com.banking.securetransactionapi.ledger.LedgerCommand.TransferCredit;
+import com.banking.securetransactionapi.ledger.LedgerCommand.TransferDebit;
+import com.banking.securetransactionapi.ledger.LedgerCommand.Withdraw;
+import com.banking.securetransactionapi.util.Money;
+import com.banking.securetransactionapi.util.MpscRingBuffer;
+import com.banking.securetransactionapi.util.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * One partition of the ledger. A single thread owns the balances of the shard's accounts and
+ * applies commands strictly one at a time, so no locks or version checks are needed. Balances are
+ * held as {@link Money} cents; rows are converted to {@code BigDecimal} only when they are built.
+ * <p>
+ * Callers feed the shard through a bounded ring buffer. Hand-offs from other shards (the credit
+ * and refund phases of a transfer) use a separate unbounded queue that is drained first, so two
+ * shards with full buffers can never block each other.
+ */
+@Slf4j
+class LedgerShard {
+    
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    
+    private final int index;
+    private final MpscRingBuffer<LedgerCommand> inbox;
+    private final Queue<LedgerCommand> handoffs = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Money> balances = new HashMap<>();
+    private final LedgerJournal journal;
+    private final SnowflakeIdGenerator idGenerator;
+    private final LongFunction<LedgerShard> router;
+    private final Function<Long, Money> accountLoader;
+    // Transfers between their debit and credit/refund phases, shared by all shards
+    private final AtomicLong inFlight;
+    
+    private volatile boolean running;
+    private Thread thread;
+    
+    LedgerShard(int index, int ringCapacity, LedgerJournal journal, SnowflakeIdGenerator idGenerator,
+                LongFunction<LedgerShard> router, Function<Long, Money> accountLoader, AtomicLong inFlight) {
+        this.index = index;
+        this.inbox = new MpscRingBuffer<>(ringCapacity);
+        this.journal = journal;
+        this.idGenerator = idGenerator;
+        this.router = router;
+        this.accountLoader = accountLoader;
+        this.inFlight = inFlight;
+    }
+    
+    /**
+     * Seeds a balance during recovery. Only valid before {@link #start()}.
+     */
+    void load(Long accountId, Money balance) {
+        balances.put(accountId, balance);
+    }
+    
+    int size() {
+        return balances.size();
+    }
+    
+    void start() {
+        running = true;
+        thread = new Thread(this::run, "ledger-shard-" + index);
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    void requestStop() {
+        running = false;
+    }
+    
+    void awaitStop() throws InterruptedException {
+        if (thread != null) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+    
+    /**
+     * Enqueues a caller's command, spinning while the ring buffer is full.
+     */
+    void submit(LedgerCommand command) {
+        while (!inbox.offer(command)) {
+            if (!running) {
+                throw new IllegalStateException("Ledger shard " + index + " is not running");
+            }
+            Thread.onSpinWait();
+        }
+    }
+    
+    private void handOff(LedgerCommand command) {
+        handoffs.add(command);
+    }
+    
+    private void run() {
+        while (running || !inbox.isEmpty() || !handoffs.isEmpty() || inFlight.get() > 0) {
+            LedgerCommand command = handoffs.poll();
+            if (command == null) {
+                command = inbox.poll();
+            }
+            if (command == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                process(command);
+            } catch (RuntimeException ex) {
+                fail(command, ex);
+            }
+        }
+    }
+    
+    private void process(LedgerCommand command) {
+        if (command instanceof Deposit deposit) {
+            deposit(deposit);
+        } else if (command instanceof Withdraw withdraw) {
+            withdraw(withdraw);
+        } else if (command instanceof TransferDebit debit) {
+            debit(debit);
+        } else if (command instanceof TransferCredit credit) {
+            credit(credit);
+        } else if (command instanceof Refund refund) {
+            refund(refund);
+        }
+    }
+    
+    private void deposit(Deposit deposit) {
+        Money balance = requireBalance(deposit.accountId()).plus(deposit.amount());
+        balances.put(deposit.accountId(), balance);
+        Transaction row = row(deposit.accountId(), TransactionType.DEPOSIT, deposit.amount(), null,
+                deposit.description(), balance);
+        journal.append(List.of(row), row, deposit.result());
+    }
+    
+    private void withdraw(Withdraw withdraw) {
+        Money balance = requireBalance(withdraw.accountId());
+        if (balance.isLessThan(withdraw.amount())) {
+            throw new InsufficientFundsException("Insufficient balance for withdrawal");
+        }
+        balance = balance.minus(withdraw.amount());
+        balances.put(withdraw.accountId(), balance);
+        Transaction row = row(withdraw.accountId(), TransactionType.WITHDRAWAL, withdraw.amount(), null,
+                withdraw.description(), balance);
+        journal.append(List.of(row), row, withdraw.result());
+    }
+    
+    private void debit(TransferDebit debit) {
+        Money balance = requireBalance(debit.sourceAccountId());
+        if (balance.isLessThan(debit.amount())) {
+            throw new InsufficientFundsException("Insufficient balance for transfer");
+        }
+        // The reserved amount is in neither balance until phase two credits or refunds it
+        balance = balance.minus(debit.amount());
+        balances.put(debit.sourceAccountId(), balance);
+        Transaction outgoing = row(debit.sourceAccountId(), TransactionType.TRANSFER_OUT, debit.amount(),
+                debit.targetAccountId(), debit.description(), balance);
+        TransferCredit credit = new TransferCredit(debit, outgoing);
+        
+        LedgerShard target = router.apply(debit.targetAccountId());
+        if (target == this) {
+            credit(credit);
+        } else {
+            inFlight.incrementAndGet();
+            target.handOff(credit);
+        }
+    }
+    
+    private void credit(TransferCredit credit) {
+        TransferDebit debit = credit.debit();
+        try {
+            Money balance = balanceOf(debit.targetAccountId());
+            if (balance == null) {
+                refundFrom(debit, new AccountNotFoundException("Account not found"));
+                return;
+            }
+            balance = balance.plus(debit.amount());
+            balances.put(debit.targetAccountId(), balance);
+            
+            // Both legs go into one journal entry so they become durable atomically
+            Transaction outgoing = credit.outgoing();
+            Transaction incoming = row(debit.targetAccountId(), TransactionType.TRANSFER_IN, debit.amount(),
+                    debit.sourceAccountId(), debit.description(), balance);
+            journal.append(List.of(outgoing, incoming), outgoing, debit.result());
+            settled(debit);
+        } catch (RuntimeException ex) {
+            refundFrom(debit, ex);
+        }
+    }
+    
+    private void refundFrom(TransferDebit debit, RuntimeException cause) {
+        LedgerShard source = router.apply(debit.sourceAccountId());
+        Refund refund = new Refund(debit, cause);
+        if (source == this) {
+            refund(refund);
+        } else {
+            // Stays in flight until the source shard has the money back
+            source.handOff(refund);
+        }
+    }
+    
+    private void refund(Refund refund) {
+        TransferDebit debit = refund.debit();
+        balances.merge(debit.sourceAccountId(), debit.amount(), Money::plus);
+        debit.result().completeExceptionally(refund.cause());
+        settled(debit);
+    }
+    
+    private void settled(TransferDebit debit) {
+        if (router.apply(debit.sourceAccountId()) != router.apply(debit.targetAccountId())) {
+            inFlight.decrementAndGet();
+        }
+    }
+    
+    private void fail(LedgerCommand command, RuntimeException ex) {
+        if (command instanceof Refund refund) {
+            // Only a bug can get here; the reserved amount stays missing from memory until restart
+            log.error("Ledger shard {} failed to refund transfer {}", index, refund.debit(), ex);
+            settled(refund.debit());
+        }
+        command.result().completeExceptionally(ex);
+    }
+    
+    private Money requireBalance(Long accountId) {
+        Money balance = balanceOf(accountId);
+        if (balance == null) {
+            throw new AccountNotFoundException("Account not found");
+        }
+        return balance;
+    }
+    
+    private Money balanceOf(Long accountId) {
+        Money balance = balances.get(accountId);
+        if (balance == null) {
+            // Opened after recovery; nothing has been journaled for it yet, so the stored balance is current
+            balance = accountLoader.apply(accountId);
+            if (balance != null) {
+                balances.put(accountId, balance);
+            }
+        }
+        return balance;
+    }
+    
+    private Transaction row(Long accountId, TransactionType type, Money amount, Long counterpartyId,
+                            String description, Money balanceAfter) {
+        Transaction transaction = new Transaction();
+        transaction.setId(idGenerator.nextId());
+        transaction.setAccountId(accountId);
+        transaction.setType(type);
+        transaction.setAmount(amount.toBigDecimal());
+        transaction.setTargetAccountId(counterpartyId);
+        transaction.setDescription(description);
+        transaction.setTimestamp(LocalDateTime.now());
+        transaction.setBalanceAfter(balanceAfter.toBigDecimal());
+        return transaction;
+    }
+}
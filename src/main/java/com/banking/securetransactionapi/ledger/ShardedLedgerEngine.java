@@ -0,0 +1,170 @@
+package com.banking.securetransactionapi.ledger;
+
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.ledger.LedgerCommand.Deposit;
+import com.banking.securetransactionapi.ledger.LedgerCommand.TransferDebit;
+import com.banking.securetransactionapi.ledger.LedgerCommand.Withdraw;
+import com.banking.securetransactionapi.repository.LedgerJdbcRepository;
+import com.banking.securetransactionapi.repository.OutboxJdbcRepository;
+import com.banking.securetransactionapi.service.RetryExecutor;
+import com.banking.securetransactionapi.util.Money;
+import com.banking.securetransactionapi.util.SnowflakeIdGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory ledger engine, used instead of the JPA write path when
+ * {@code banking.ledger.engine=SHARDED}. Accounts are partitioned across single-threaded
+ * {@link LedgerShard}s that own their balances in memory; results become durable through the
+ * batched {@link LedgerJournal}, and callers return once their rows are committed.
+ * <p>
+ * On startup every balance is loaded from the accounts table, which the journal keeps equal to
+ * the committed ledger rows. A transfer whose accounts live on different shards is a two-phase
+ * hand-off: the source shard reserves the amount, then the target shard credits it and journals
+ * both legs as one entry, or sends it back if the target does not exist. Nothing is journaled
+ * before both legs are known, so a crash mid-transfer loses no money.
+ * <p>
+ * The engine assumes it is the only writer of balances on this database while enabled.
+ */
+@Component
+@Slf4j
+public class ShardedLedgerEngine {
+    
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final SnowflakeIdGenerator idGenerator;
+    private final LedgerEngineType engineType;
+    private final int shardCount;
+    private final int ringCapacity;
+    private final LedgerJournal journal;
+    private final AtomicLong inFlight = new AtomicLong();
+    
+    private LedgerShard[] shards;
+    
+    public ShardedLedgerEngine(LedgerJdbcRepository ledgerJdbcRepository,
+                               OutboxJdbcRepository outboxRepository,
+                               TransactionTemplate transactionTemplate,
+                               RetryExecutor retryExecutor,
+                               SnowflakeIdGenerator idGenerator,
+                               @Value("${banking.ledger.engine:JPA}") LedgerEngineType engineType,
+                               @Value("${banking.ledger.shards:4}") int shardCount,
+                               @Value("${banking.ledger.ring-capacity:65536}") int ringCapacity,
+                               @Value("${banking.ledger.journal.max-batch-size:512}") int journalBatchSize,
+                               @Value("${banking.ledger.journal.max-delay-ms:2}") long journalDelayMs) {
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.idGenerator = idGenerator;
+        this.engineType = engineType;
+        this.shardCount = shardCount;
+        this.ringCapacity = ringCapacity;
+        this.journal = new LedgerJournal(ledgerJdbcRepository, outboxRepository, transactionTemplate,
+                retryExecutor, journalBatchSize, journalDelayMs);
+    }
+    
+    @PostConstruct
+    void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        shards = new LedgerShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LedgerShard(i, ringCapacity, journal, idGenerator, this::shardFor,
+                    this::loadBalance, inFlight);
+        }
+        
+        // Recovery: the accounts table is exactly the state left by the last committed journal batch
+        long started = System.nanoTime();
+        ledgerJdbcRepository.forEachBalance((accountId, balance) -> shardFor(accountId).load(accountId, Money.of(balance)));
+        
+        journal.start();
+        for (LedgerShard shard : shards) {
+            shard.start();
+        }
+        int accounts = 0;
+        for (LedgerShard shard : shards) {
+            accounts += shard.size();
+        }
+        log.info("Sharded ledger engine started: {} shards, {} accounts recovered in {} ms",
+                shardCount, accounts, (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (shards == null) {
+            return;
+        }
+        // Shards finish queued commands and in-flight transfers, then the journal drains
+        for (LedgerShard shard : shards) {
+            shard.requestStop();
+        }
+        for (LedgerShard shard : shards) {
+            shard.awaitStop();
+        }
+        journal.stop();
+    }
+    
+    public boolean isEnabled() {
+        return engineType == LedgerEngineType.SHARDED;
+    }
+    
+    public Transaction deposit(Long accountId, BigDecimal amount, String description) {
+        CompletableFuture<Transaction> result = new CompletableFuture<>();
+        return submit(accountId, new Deposit(accountId, Money.of(amount), description, result));
+    }
+    
+    public Transaction withdraw(Long accountId, BigDecimal amount, String description) {
+        CompletableFuture<Transaction> result = new CompletableFuture<>();
+        return submit(accountId, new Withdraw(accountId, Money.of(amount), description, result));
+    }
+    
+    /**
+     * Moves {@code amount} between two accounts and returns the source account's ledger row.
+     */
+    public Transaction transfer(Long sourceAccountId, Long targetAccountId, BigDecimal amount, String description) {
+        CompletableFuture<Transaction> result = new CompletableFuture<>();
+        return submit(sourceAccountId, new TransferDebit(sourceAccountId, targetAccountId, Money.of(amount), description, result));
+    }
+    
+    public long getJournalCommitCount() {
+        return journal.getCommitCount();
+    }
+    
+    public long getJournalEntryCount() {
+        return journal.getEntryCount();
+    }
+    
+    LedgerShard shardFor(long accountId) {
+        // Spread ids whose low bits are a per-millisecond sequence
+        return shards[Math.floorMod(Long.hashCode(accountId * 0x9E3779B97F4A7C15L), shards.length)];
+    }
+    
+    private Money loadBalance(Long accountId) {
+        BigDecimal balance = ledgerJdbcRepository.findBalance(accountId);
+        return balance == null ? null : Money.of(balance);
+    }
+    
+    private Transaction submit(Long accountId, LedgerCommand command) {
+        if (shards == null) {
+            throw new IllegalStateException("Sharded ledger engine is not running");
+        }
+        if (journal.getFailure() != null) {
+            throw new IllegalStateException("Ledger journal has halted; restart to recover", journal.getFailure());
+        }
+        shardFor(accountId).submit(command);
+        try {
+            return command.result().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
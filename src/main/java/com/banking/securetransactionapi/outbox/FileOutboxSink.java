@@ -0,0 +1,50 @@
+package com.banking.securetransactionapi.outbox;
+
+import com.banking.securetransactionapi.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a local file as newline-delimited JSON and forces them to disk before
+ * returning, so a batch is only deleted from the outbox once it is durable.
+ */
+public class FileOutboxSink implements OutboxSink {
+    
+    private final Path file;
+    private final ObjectWriter writer;
+    
+    public FileOutboxSink(Path file, ObjectWriter writer) {
+        this.file = file;
+        this.writer = writer;
+    }
+    
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(events.size() * 256);
+        for (OutboxEvent event : events) {
+            writer.writeValue(buffer, event);
+            buffer.write('\n');
+        }
+        
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+    }
+}
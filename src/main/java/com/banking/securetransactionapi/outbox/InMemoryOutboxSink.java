@@ -0,0 +1,27 @@
+package com.banking.securetransactionapi.outbox;
+
+import com.banking.securetransactionapi.entity.OutboxEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps published events in memory; meant for tests and local runs.
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+    
+    private final List<OutboxEvent> events = new ArrayList<>();
+    
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        events.addAll(batch);
+    }
+    
+    public synchronized List<OutboxEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+    
+    public synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,180 @@
+package com.banking.securetransactionapi.outbox;
+
+import com.banking.securetransactionapi.entity.OutboxEvent;
+import com.banking.securetransactionapi.repository.OutboxJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relays outbox events to the configured {@link OutboxSink}. Each pass claims a batch with
+ * {@code FOR UPDATE SKIP LOCKED}, publishes it and deletes it in the same transaction, so any
+ * number of workers and instances can run side by side without handing out the same event.
+ * <p>
+ * Delivery is at-least-once: if the delete cannot commit after a successful publish, the batch
+ * is published again on a later pass. Consumers de-duplicate on the event id.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    
+    private final OutboxJdbcRepository outboxRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final long intervalMs;
+    
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    
+    private final List<Thread> threads = new ArrayList<>();
+    
+    private volatile long lagMillis;
+    private volatile boolean running;
+    
+    private long lastStatsPublished;
+    private long lastStatsNanos = System.nanoTime();
+    
+    public OutboxRelay(OutboxJdbcRepository outboxRepository,
+                       OutboxSink sink,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${banking.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${banking.outbox.relay.workers:1}") int workers,
+                       @Value("${banking.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${banking.outbox.relay.interval-ms:100}") long intervalMs) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.intervalMs = intervalMs;
+    }
+    
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::runRelay, "outbox-relay-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        log.info("Outbox relay started: {} workers, batch {} events, interval {} ms", workers, batchSize, intervalMs);
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        threads.clear();
+    }
+    
+    /**
+     * Publishes and deletes one batch of events and returns how many were relayed.
+     */
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxRepository.claim(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            try {
+                sink.publish(events);
+            } catch (Exception ex) {
+                throw new IllegalStateException("Outbox sink rejected " + events.size() + " events", ex);
+            }
+            
+            List<Long> ids = new ArrayList<>(events.size());
+            for (OutboxEvent event : events) {
+                ids.add(event.getId());
+            }
+            outboxRepository.delete(ids);
+            // Events are claimed oldest first, so the first one shows how far behind the relay is
+            lagMillis = Duration.between(events.get(0).getCreatedAt(), LocalDateTime.now()).toMillis();
+            return events.size();
+        });
+        
+        if (relayed > 0) {
+            publishedCount.addAndGet(relayed);
+            batchCount.incrementAndGet();
+        } else {
+            lagMillis = 0;
+        }
+        return relayed;
+    }
+    
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+    
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+    
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+    
+    /**
+     * Age of the oldest event in the last relayed batch; zero once the outbox is drained.
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+    
+    @Scheduled(fixedDelayString = "${banking.outbox.relay.stats-interval-ms:60000}")
+    synchronized void logStats() {
+        if (!enabled) {
+            return;
+        }
+        long published = publishedCount.get();
+        long now = System.nanoTime();
+        double seconds = (now - lastStatsNanos) / 1_000_000_000.0;
+        long pending = outboxRepository.countPending();
+        log.info("Outbox relay: {} events/s, lag {} ms, {} pending, {} published, {} failed batches",
+                Math.round((published - lastStatsPublished) / seconds), lagMillis, pending, published, failureCount.get());
+        lastStatsPublished = published;
+        lastStatsNanos = now;
+    }
+    
+    private void runRelay() {
+        while (running) {
+            int relayed = 0;
+            try {
+                relayed = relayBatch();
+            } catch (RuntimeException ex) {
+                // The claim rolled back; the same events are picked up again on a later pass
+                failureCount.incrementAndGet();
+                log.error("Outbox relay failed", ex);
+            }
+            if (relayed < batchSize) {
+                try {
+                    Thread.sleep(intervalMs);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.banking.securetransactionapi.outbox;
+
+import com.banking.securetransactionapi.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for relayed transaction events. Events arrive in id order, in batches; a batch
+ * counts as delivered only when {@code publish} returns, and is retried whole if it throws.
+ */
+public interface OutboxSink {
+    
+    void publish(List<OutboxEvent> events) throws Exception;
+}
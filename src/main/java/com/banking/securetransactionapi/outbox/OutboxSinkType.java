@@ -0,0 +1,6 @@
+package com.banking.securetransactionapi.outbox;
+
+public enum OutboxSinkType {
+    FILE,
+    MEMORY
+}
@@ -0,0 +1,28 @@
+package com.banking.securetransactionapi.repository;
+
+import com.banking.securetransactionapi.entity.Account;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+public interface AccountRepositoryCustom {
+    
+    /**
+     * Atomically subtracts {@code amount} from the balance if the account holds at least that much.
+     * Returns the new balance, or empty when the account does not exist or has insufficient funds.
+     */
+    Optional<BigDecimal> debitIfSufficient(Long accountId, BigDecimal amount);
+    
+    /**
+     * Atomically adds {@code amount} to the balance. Returns the new balance, or empty when the
+     * account does not exist.
+     */
+    Optional<BigDecimal> credit(Long accountId, BigDecimal amount);
+    
+    /**
+     * Loads the account holding a {@code PESSIMISTIC_WRITE} row lock until the surrounding
+     * transaction ends. An instance already managed with a stale version fails with an
+     * optimistic locking error instead of returning outdated state.
+     */
+    Optional<Account> findByIdForUpdate(Long accountId);
+}
@@ -0,0 +1,84 @@
+package com.banking.securetransactionapi.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plain JDBC access to account stripes. Folding stripes back into {@code accounts.balance} locks
+ * them in stripe order and must run inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountStripeJdbcRepository {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public int countStripes(Long accountId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_stripes WHERE account_id = ?", Integer.class, accountId);
+        return count == null ? 0 : count;
+    }
+    
+    public List<Long> findStripedAccountIds() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT account_id FROM account_stripes", Long.class);
+    }
+    
+    /**
+     * Adds {@code amount} to one stripe; false if the stripe does not exist.
+     */
+    public boolean credit(Long accountId, int stripe, BigDecimal amount) {
+        return jdbcTemplate.update("UPDATE account_stripes SET balance = balance + ? WHERE account_id = ? AND stripe = ?",
+                amount, accountId, stripe) == 1;
+    }
+    
+    /**
+     * The account's main balance plus all of its stripes, or null if the account does not exist.
+     */
+    public BigDecimal findTotalBalance(Long accountId) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(
+                "SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM account_stripes s WHERE s.account_id = a.id), 0) " +
+                "FROM accounts a WHERE a.id = ?", BigDecimal.class, accountId);
+        return balances.isEmpty() ? null : balances.get(0);
+    }
+    
+    /**
+     * Moves the balance of stripes numbered {@code fromStripe} and up into {@code accounts.balance},
+     * deleting them if {@code delete} is set, and returns the amount moved.
+     */
+    public BigDecimal fold(Long accountId, int fromStripe, boolean delete) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(
+                "SELECT balance FROM account_stripes WHERE account_id = ? AND stripe >= ? ORDER BY stripe FOR UPDATE",
+                BigDecimal.class, accountId, fromStripe);
+        BigDecimal total = balances.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (delete) {
+            jdbcTemplate.update("DELETE FROM account_stripes WHERE account_id = ? AND stripe >= ?", accountId, fromStripe);
+        } else if (total.signum() != 0) {
+            jdbcTemplate.update("UPDATE account_stripes SET balance = 0 WHERE account_id = ? AND stripe >= ?",
+                    accountId, fromStripe);
+        }
+        if (total.signum() != 0) {
+            jdbcTemplate.update("UPDATE accounts SET balance = balance + ?, version = version + 1 WHERE id = ?",
+                    total, accountId);
+        }
+        return total;
+    }
+    
+    /**
+     * Creates the stripes below {@code stripes} that the account does not have yet.
+     */
+    public void createStripes(Long accountId, int stripes) {
+        Set<Integer> existing = Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT stripe FROM account_stripes WHERE account_id = ?", Integer.class, accountId));
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (!existing.contains(stripe)) {
+                jdbcTemplate.update("INSERT INTO account_stripes (account_id, stripe, balance) VALUES (?, ?, 0)",
+                        accountId, stripe);
+            }
+        }
+    }
+}
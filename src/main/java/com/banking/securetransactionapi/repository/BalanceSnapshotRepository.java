@@ -0,0 +1,28 @@
+package com.banking.securetransactionapi.repository;
+
+import com.banking.securetransactionapi.entity.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+    Optional<BalanceSnapshot> findFirstByAccountIdAndSnapshotDateLessThanEqualOrderBySnapshotDateDesc(
+            Long accountId, LocalDate snapshotDate);
+    
+    // Each account's most recent snapshot strictly before the given date
+    @Query("SELECT s FROM BalanceSnapshot s WHERE s.accountId IN :accountIds AND s.snapshotDate = " +
+           "(SELECT MAX(p.snapshotDate) FROM BalanceSnapshot p WHERE p.accountId = s.accountId AND p.snapshotDate < :date)")
+    List<BalanceSnapshot> findLatestBefore(@Param("accountIds") Collection<Long> accountIds,
+                                           @Param("date") LocalDate date);
+    
+    @Query("SELECT s.accountId FROM BalanceSnapshot s WHERE s.accountId IN :accountIds AND s.snapshotDate = :date")
+    List<Long> findAccountIdsWithSnapshot(@Param("accountIds") Collection<Long> accountIds,
+                                          @Param("date") LocalDate date);
+}
@@ -0,0 +1,66 @@
+package com.banking.securetransactionapi.repository;
+
+import com.banking.securetransactionapi.entity.IdempotencyRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to stored idempotency keys. With synchronous engines {@link #insert} runs first
+ * in the operation's transaction, so a concurrent request with the same key waits on the unique
+ * constraint until the first one commits or rolls back. With asynchronous engines it commits on its
+ * own as a pending key that is completed or deleted once the operation has finished.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyJdbcRepository {
+    
+    private static final RowMapper<IdempotencyRecord> RECORD_MAPPER = (rs, rowNum) -> new IdempotencyRecord(
+            rs.getLong("id"),
+            rs.getLong("user_id"),
+            rs.getString("idempotency_key"),
+            rs.getString("request_hash"),
+            rs.getString("response"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Claims the key; throws {@link org.springframework.dao.DuplicateKeyException} if it is taken.
+     */
+    public void insert(long id, long userId, String idempotencyKey, String requestHash, LocalDateTime createdAt) {
+        jdbcTemplate.update(
+                "INSERT INTO idempotency_keys (id, user_id, idempotency_key, request_hash, created_at) VALUES (?, ?, ?, ?, ?)",
+                id, userId, idempotencyKey, requestHash, Timestamp.valueOf(createdAt));
+    }
+    
+    public void complete(long id, String response) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET response = ? WHERE id = ?", response, id);
+    }
+    
+    public void delete(long id) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE id = ?", id);
+    }
+    
+    public Optional<IdempotencyRecord> find(long userId, String idempotencyKey) {
+        return jdbcTemplate.query(
+                "SELECT id, user_id, idempotency_key, request_hash, response, created_at " +
+                "FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ?",
+                RECORD_MAPPER, userId, idempotencyKey).stream().findFirst();
+    }
+    
+    /**
+     * Deletes up to {@code limit} keys created before {@code cutoff} and returns how many went.
+     */
+    public int deleteCreatedBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM idempotency_keys WHERE id IN " +
+                "(SELECT id FROM idempotency_keys WHERE created_at < ? ORDER BY created_at LIMIT ?)",
+                Timestamp.valueOf(cutoff), limit);
+    }
+}
@@ -0,0 +1,101 @@
+package com.banking.securetransactionapi.repository;
+
+import com.banking.securetransactionapi.entity.JournalLeg;
+import com.banking.securetransactionapi.entity.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the double-entry journal. Appends are single multi-row inserts and the
+ * current balance is read in one statement, so it is a consistent snapshot of projection + tail.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JournalJdbcRepository {
+    
+    private static final String INSERT_LEG_SQL =
+            "INSERT INTO journal_legs (id, journal_id, account_id, amount, type, counterparty_account_id, description, timestamp, projected) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, FALSE)";
+    private static final String CURRENT_BALANCE_SQL =
+            "SELECT a.balance + COALESCE((SELECT SUM(j.amount) FROM journal_legs j " +
+            "WHERE j.account_id = a.id AND j.projected = FALSE), 0) FROM accounts a WHERE a.id = ?";
+    
+    private static final RowMapper<JournalLeg> LEG_MAPPER = (rs, rowNum) -> {
+        String type = rs.getString("type");
+        return new JournalLeg(
+                rs.getLong("id"),
+                rs.getLong("journal_id"),
+                rs.getLong("account_id"),
+                rs.getBigDecimal("amount"),
+                type == null ? null : TransactionType.valueOf(type),
+                rs.getObject("counterparty_account_id", Long.class),
+                rs.getString("description"),
+                rs.getTimestamp("timestamp").toLocalDateTime(),
+                rs.getBoolean("projected"));
+    };
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public void append(List<JournalLeg> legs) {
+        jdbcTemplate.batchUpdate(INSERT_LEG_SQL, legs, legs.size(), (ps, leg) -> {
+            ps.setLong(1, leg.getId());
+            ps.setLong(2, leg.getJournalId());
+            ps.setLong(3, leg.getAccountId());
+            ps.setBigDecimal(4, leg.getAmount());
+            ps.setString(5, leg.getType() == null ? null : leg.getType().name());
+            ps.setObject(6, leg.getCounterpartyAccountId());
+            ps.setString(7, leg.getDescription());
+            ps.setTimestamp(8, Timestamp.valueOf(leg.getTimestamp()));
+        });
+    }
+    
+    /**
+     * Projected balance plus the unprojected journal tail, or {@code null} if the account does not exist.
+     */
+    public BigDecimal currentBalance(Long accountId) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(CURRENT_BALANCE_SQL, BigDecimal.class, accountId);
+        return balances.isEmpty() ? null : balances.get(0);
+    }
+    
+    /**
+     * Locks the account row so debits from it are serialized; credits never take this lock.
+     */
+    public boolean lockAccount(Long accountId) {
+        return !jdbcTemplate.queryForList("SELECT id FROM accounts WHERE id = ? FOR UPDATE", Long.class, accountId)
+                .isEmpty();
+    }
+    
+    public boolean accountExists(Long accountId) {
+        return !jdbcTemplate.queryForList("SELECT id FROM accounts WHERE id = ?", Long.class, accountId).isEmpty();
+    }
+    
+    /**
+     * Locks and returns the oldest unprojected legs stamped before {@code cutoff}, in journal order.
+     * Locks are not skipped: a second projector waits until the first commits and then continues
+     * after the legs it projected, so balances are never applied twice or out of order.
+     */
+    public List<JournalLeg> claimUnprojected(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, journal_id, account_id, amount, type, counterparty_account_id, description, timestamp, projected " +
+                "FROM journal_legs WHERE projected = FALSE AND timestamp <= ? ORDER BY timestamp, id LIMIT ? FOR UPDATE",
+                LEG_MAPPER, Timestamp.valueOf(cutoff), limit);
+    }
+    
+    public long countUnprojected() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM journal_legs WHERE projected = FALSE", Long.class);
+        return count == null ? 0 : count;
+    }
+    
+    public void markProjected(Collection<Long> legIds) {
+        jdbcTemplate.batchUpdate("UPDATE journal_legs SET projected = TRUE WHERE id = ?", legIds, 500,
+                (ps, id) -> ps.setLong(1, id));
+    }
+}
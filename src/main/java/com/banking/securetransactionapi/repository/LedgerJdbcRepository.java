@@ -0,0 +1,108 @@
+package com.banking.securetransactionapi.repository;
+
+import com.banking.securetransactionapi.entity.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Plain JDBC access for bulk ledger writers that bypass the persistence context: batched balance
+ * deltas and batched transaction inserts. Callers supply the surrounding transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LedgerJdbcRepository {
+    
+    private static final String ADD_TO_BALANCE_SQL =
+            "UPDATE accounts SET balance = balance + ?, version = version + 1 WHERE id = ?";
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transactions (id, account_id, type, amount, target_account_id, description, timestamp, balance_after) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final int IN_CLAUSE_SIZE = 1000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${banking.ledger.jdbc-batch-size:500}")
+    private int batchSize = 500;
+    
+    /**
+     * Adds each delta to its account's balance, in ascending id order so concurrent writers lock
+     * rows in the same order. Returns the ids of accounts that do not exist.
+     */
+    public List<Long> addToBalances(SortedMap<Long, BigDecimal> deltas) {
+        List<Long> missing = new ArrayList<>();
+        if (deltas.isEmpty()) {
+            return missing;
+        }
+        List<Map.Entry<Long, BigDecimal>> entries = new ArrayList<>(deltas.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(ADD_TO_BALANCE_SQL, entries, batchSize, (ps, delta) -> {
+            ps.setBigDecimal(1, delta.getValue());
+            ps.setLong(2, delta.getKey());
+        });
+        int row = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(entries.get(row).getKey());
+                }
+                row++;
+            }
+        }
+        return missing;
+    }
+    
+    public void insertTransactions(Collection<Transaction> transactions) {
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactions, batchSize, (ps, transaction) -> {
+            ps.setLong(1, transaction.getId());
+            ps.setLong(2, transaction.getAccountId());
+            ps.setString(3, transaction.getType().name());
+            ps.setBigDecimal(4, transaction.getAmount());
+            ps.setObject(5, transaction.getTargetAccountId());
+            ps.setString(6, transaction.getDescription());
+            ps.setTimestamp(7, Timestamp.valueOf(transaction.getTimestamp()));
+            ps.setBigDecimal(8, transaction.getBalanceAfter());
+        });
+    }
+    
+    /**
+     * Balances of the given accounts, keyed by id; ids without an account are absent.
+     */
+    public Map<Long, BigDecimal> findBalances(Collection<Long> accountIds) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        List<Long> sorted = new ArrayList<>(accountIds);
+        Collections.sort(sorted);
+        for (int from = 0; from < sorted.size(); from += IN_CLAUSE_SIZE) {
+            List<Long> chunk = sorted.subList(from, Math.min(from + IN_CLAUSE_SIZE, sorted.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            RowCallbackHandler handler = rs -> balances.put(rs.getLong("id"), rs.getBigDecimal("balance"));
+            jdbcTemplate.query("SELECT id, balance FROM accounts WHERE id IN (" + placeholders + ")", handler,
+                    chunk.toArray());
+        }
+        return balances;
+    }
+    
+    public BigDecimal findBalance(Long accountId) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(
+                "SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+        return balances.isEmpty() ? null : balances.get(0);
+    }
+    
+    public void forEachBalance(BiConsumer<Long, BigDecimal> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(rs.getLong("id"), rs.getBigDecimal("balance"));
+        jdbcTemplate.query("SELECT id, balance FROM accounts", handler);
+    }
+}
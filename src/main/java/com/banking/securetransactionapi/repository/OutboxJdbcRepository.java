@@ -0,0 +1,88 @@
+package com.banking.securetransactionapi.repository;
+
+import com.banking.securetransactionapi.entity.OutboxEvent;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the transactional outbox. Writers append in their own transaction; the
+ * relay claims with {@code FOR UPDATE SKIP LOCKED}, so concurrent relays never see the same row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxJdbcRepository {
+    
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO outbox_events (id, account_id, type, amount, counterparty_account_id, balance_after, description, occurred_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final RowMapper<OutboxEvent> EVENT_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"),
+            rs.getLong("account_id"),
+            TransactionType.valueOf(rs.getString("type")),
+            rs.getBigDecimal("amount"),
+            rs.getObject("counterparty_account_id", Long.class),
+            rs.getBigDecimal("balance_after"),
+            rs.getString("description"),
+            rs.getTimestamp("occurred_at").toLocalDateTime(),
+            rs.getTimestamp("created_at").toLocalDateTime());
+    
+    private static final int IN_CLAUSE_SIZE = 1000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${banking.ledger.jdbc-batch-size:500}")
+    private int batchSize = 500;
+    
+    /**
+     * Records one event per transaction row; must run inside the transaction that writes the rows.
+     */
+    public void append(Collection<Transaction> transactions) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, transactions, batchSize, (ps, transaction) -> {
+            ps.setLong(1, transaction.getId());
+            ps.setLong(2, transaction.getAccountId());
+            ps.setString(3, transaction.getType().name());
+            ps.setBigDecimal(4, transaction.getAmount());
+            ps.setObject(5, transaction.getTargetAccountId());
+            ps.setBigDecimal(6, transaction.getBalanceAfter());
+            ps.setString(7, transaction.getDescription());
+            ps.setTimestamp(8, Timestamp.valueOf(transaction.getTimestamp()));
+            ps.setTimestamp(9, createdAt);
+        });
+    }
+    
+    /**
+     * Locks and returns up to {@code limit} of the oldest events, skipping rows another relay holds.
+     */
+    public List<OutboxEvent> claim(int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, account_id, type, amount, counterparty_account_id, balance_after, description, occurred_at, created_at " +
+                "FROM outbox_events ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                EVENT_MAPPER, limit);
+    }
+    
+    public void delete(List<Long> eventIds) {
+        for (int from = 0; from < eventIds.size(); from += IN_CLAUSE_SIZE) {
+            List<Long> chunk = eventIds.subList(from, Math.min(from + IN_CLAUSE_SIZE, eventIds.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.update("DELETE FROM outbox_events WHERE id IN (" + placeholders + ")", chunk.toArray());
+        }
+    }
+    
+    public long countPending() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Long.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -1,12 +1,98 @@
 package com.banking.securetransactionapi.repository;
 
 import com.banking.securetransactionapi.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByAccountIdOrderByTimestampDesc(Long accountId);
-}
\ No newline at end of file
+    String SIGNED_AMOUNT = "CASE WHEN t.type IN (" +
+            "com.banking.securetransactionapi.entity.TransactionType.DEPOSIT, " +
+            "com.banking.securetransactionapi.entity.TransactionType.TRANSFER_IN) THEN t.amount ELSE -t.amount END";
+    
+    List<Transaction> findByAccountIdOrderByTimestampDescIdDesc(Long accountId, Limit limit);
+    
+    // The redundant "timestamp <= :timestamp" gives the planner a range bound on the composite index
+    @Query("SELECT t FROM Transaction t WHERE t.accountId = :accountId " +
+           "AND t.timestamp <= :timestamp AND (t.timestamp < :timestamp OR t.id < :id) " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findPageBefore(@Param("accountId") Long accountId,
+                                     @Param("timestamp") LocalDateTime timestamp,
+                                     @Param("id") Long id,
+                                     Limit limit);
+    
+    // Partition-bounded history reads: the lower bound lets PostgreSQL prune to the newest partition
+    @Query("SELECT t FROM Transaction t WHERE t.accountId = :accountId AND t.timestamp >= :from " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findLatestSince(@Param("accountId") Long accountId,
+                                      @Param("from") LocalDateTime from,
+                                      Limit limit);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.accountId = :accountId AND t.timestamp >= :from " +
+           "AND t.timestamp <= :timestamp AND (t.timestamp < :timestamp OR t.id < :id) " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findPageBeforeSince(@Param("accountId") Long accountId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("timestamp") LocalDateTime timestamp,
+                                          @Param("id") Long id,
+                                          Limit limit);
+    
+    // The upper bound excludes the partitions already read
+    @Query("SELECT t FROM Transaction t WHERE t.accountId = :accountId AND t.timestamp < :before " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findLatestBefore(@Param("accountId") Long accountId,
+                                       @Param("before") LocalDateTime before,
+                                       Limit limit);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.accountId = :accountId ORDER BY t.timestamp DESC, t.id DESC")
+    Stream<Transaction> streamByAccountId(@Param("accountId") Long accountId);
+    
+    @Query("SELECT DISTINCT t.accountId FROM Transaction t " +
+           "WHERE t.balanceAfter IS NULL AND t.accountId > :afterAccountId ORDER BY t.accountId")
+    List<Long> findAccountIdsMissingBalanceAfter(@Param("afterAccountId") Long afterAccountId, Limit limit);
+    
+    List<Transaction> findByAccountIdAndBalanceAfterIsNullOrderByTimestampAscIdAsc(Long accountId, Limit limit);
+    
+    @Query("SELECT t.balanceAfter FROM Transaction t WHERE t.accountId = :accountId " +
+           "AND t.timestamp <= :timestamp AND (t.timestamp < :timestamp OR t.id < :id) " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<BigDecimal> findBalanceAfterBefore(@Param("accountId") Long accountId,
+                                            @Param("timestamp") LocalDateTime timestamp,
+                                            @Param("id") Long id,
+                                            Limit limit);
+    
+    @Query("SELECT COALESCE(SUM(" + SIGNED_AMOUNT + "), 0) FROM Transaction t " +
+           "WHERE t.accountId = :accountId AND t.timestamp >= :from AND t.timestamp <= :upTo")
+    BigDecimal sumSignedAmount(@Param("accountId") Long accountId,
+                               @Param("from") LocalDateTime from,
+                               @Param("upTo") LocalDateTime upTo);
+    
+    @Query("SELECT COALESCE(SUM(" + SIGNED_AMOUNT + "), 0) FROM Transaction t " +
+           "WHERE t.accountId = :accountId AND t.timestamp >= :from AND t.timestamp < :before")
+    BigDecimal sumSignedAmountBefore(@Param("accountId") Long accountId,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("before") LocalDateTime before);
+    
+    // Rows of [accountId, signed sum] for transactions in [from, before); accounts without activity are absent
+    @Query("SELECT t.accountId, SUM(" + SIGNED_AMOUNT + ") FROM Transaction t " +
+           "WHERE t.accountId IN :accountIds AND t.timestamp >= :from AND t.timestamp < :before GROUP BY t.accountId")
+    List<Object[]> sumSignedAmountsByAccount(@Param("accountIds") Collection<Long> accountIds,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("before") LocalDateTime before);
+}
@@ -3,40 +3,151 @@ package com.banking.securetransactionapi.service;
 import com.banking.securetransactionapi.entity.Account;
 import com.banking.securetransactionapi.entity.User;
 import com.banking.securetransactionapi.exception.AccountNotFoundException;
+import com.banking.securetransactionapi.invalidation.CacheInvalidator;
+import com.banking.securetransactionapi.ledger.LedgerEngineType;
 import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.JournalJdbcRepository;
+import com.banking.securetransactionapi.repository.LedgerJdbcRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
     
     private final AccountRepository accountRepository;
+    private final JournalJdbcRepository journalRepository;
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final AccountStripeService stripeService;
+    private final BalanceCache balanceCache;
+    private final CacheInvalidator cacheInvalidator;
     
+    @Value("${banking.ledger.engine:JPA}")
+    private LedgerEngineType ledgerEngine = LedgerEngineType.JPA;
+    
+    @Transactional(readOnly = true)
     public Account findByUserId(Long userId) {
         return accountRepository.findByUserId(userId)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found for user"));
     }
     
+    @Transactional(readOnly = true)
     public Account findById(Long accountId) {
         return accountRepository.findById(accountId)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found"));
     }
     
+    public Account lockForUpdate(Long accountId) {
+        return accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+    }
+    
     public Account updateBalance(Long accountId, BigDecimal newBalance) {
         Account account = findById(accountId);
         account.setBalance(newBalance);
+        cacheInvalidator.balanceChanged(accountId);
         return accountRepository.save(account);
     }
     
+    /**
+     * Debits the account if it has enough balance. A striped account draws on the main row and
+     * folds its stripes into it when the main row alone is short.
+     */
+    public Optional<BigDecimal> debit(Long accountId, BigDecimal amount) {
+        Optional<BigDecimal> balance = accountRepository.debitIfSufficient(accountId, amount);
+        int stripes = stripeService.stripeCount(accountId);
+        if (stripes == 0) {
+            return balance;
+        }
+        if (balance.isEmpty() && stripeService.fold(accountId)) {
+            balance = accountRepository.debitIfSufficient(accountId, amount);
+        }
+        return balance.map(ignored -> stripeService.totalBalance(accountId));
+    }
+    
+    /**
+     * Credits the account. A striped account takes the credit on one of its stripes and reports
+     * the sum of all rows as seen by this transaction, so under concurrent credits the returned
+     * balance may not include credits still being committed.
+     */
+    public Optional<BigDecimal> credit(Long accountId, BigDecimal amount) {
+        int stripes = stripeService.stripeCount(accountId);
+        if (stripes == 0) {
+            return accountRepository.credit(accountId, amount);
+        }
+        if (stripeService.credit(accountId, stripes, amount)) {
+            return Optional.ofNullable(stripeService.totalBalance(accountId));
+        }
+        return accountRepository.credit(accountId, amount).map(ignored -> stripeService.totalBalance(accountId));
+    }
+    
+    @Transactional(readOnly = true)
     public boolean hasSufficientBalance(Long accountId, BigDecimal amount) {
-        Account account = findById(accountId);
+        Account account = withCurrentBalance(findById(accountId));
         return account.getBalance().compareTo(amount) >= 0;
     }
     
+    /**
+     * The user's account with its current balance. Balances are served from the balance cache
+     * when possible, without opening a transaction.
+     */
     public Account getUserAccount(User user) {
-        return findByUserId(user.getId());
+        // Set on token principals and on principals loaded through the principal cache
+        Long accountId = user.getAccountId();
+        if (accountId != null && balanceCache.isCaching(accountId)) {
+            BigDecimal balance = balanceCache.get(accountId);
+            if (balance == null) {
+                long readStamp = balanceCache.readStamp(accountId);
+                // Plain JDBC outside a transaction reads the primary; a lagging replica must not be cached
+                balance = ledgerJdbcRepository.findBalances(List.of(accountId)).get(accountId);
+                if (balance == null) {
+                    throw new AccountNotFoundException("Account not found");
+                }
+                if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                    balanceCache.load(accountId, balance, readStamp);
+                }
+            }
+            Account account = new Account();
+            account.setId(accountId);
+            account.setUserId(user.getId());
+            account.setBalance(balance);
+            return account;
+        }
+        Account account = accountId != null ? findById(accountId) : findByUserId(user.getId());
+        return withCurrentBalance(account);
+    }
+    
+    private Account withCurrentBalance(Account account) {
+        BigDecimal balance;
+        if (ledgerEngine == LedgerEngineType.JOURNAL) {
+            // The stored balance lags the journal; report it plus the unprojected tail
+            balance = journalRepository.currentBalance(account.getId());
+        } else if (stripeService.stripeCount(account.getId()) > 0) {
+            balance = stripeService.totalBalance(account.getId());
+        } else {
+            return account;
+        }
+        // Detached copy, so the reported balance is never flushed back to the row
+        Account current = new Account();
+        current.setId(account.getId());
+        current.setUserId(account.getUserId());
+        current.setVersion(account.getVersion());
+        current.setBalance(balance);
+        return current;
+    }
+    
+    @Transactional(readOnly = true)
+    public Long getUserAccountId(User user) {
+        if (user.getAccountId() != null) {
+            return user.getAccountId();
+        }
+        return findByUserId(user.getId()).getId();
     }
 }
@@ -0,0 +1,127 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.ledger.LedgerEngineType;
+import com.banking.securetransactionapi.repository.AccountStripeJdbcRepository;
+import com.banking.securetransactionapi.util.ExpiringLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Balance striping for hot accounts that receive many concurrent credits. A striped account keeps
+ * {@code stripes} extra sub-balance rows; each credit lands on one of them, picked by a hash of
+ * the crediting thread, so concurrent payers no longer queue on the single {@code accounts} row.
+ * Debits come out of the main row and fold the stripes back into it when it runs short. The
+ * balance of a striped account is the main row plus all of its stripes.
+ * <p>
+ * Accounts are striped by listing them in {@code banking.striping.account-ids}; on startup listed
+ * accounts get their stripes and accounts no longer listed are folded back. Striping applies to
+ * the JPA engine with the ATOMIC transfer lock mode only, since the other modes read and write
+ * {@code accounts.balance} directly.
+ */
+@Service
+@Slf4j
+public class AccountStripeService implements ApplicationRunner {
+    
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    
+    private final AccountStripeJdbcRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final List<Long> accountIds;
+    private final int stripes;
+    private final ExpiringLruCache<Long, Integer> stripeCounts;
+    
+    public AccountStripeService(AccountStripeJdbcRepository repository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${banking.striping.enabled:false}") boolean enabled,
+                                @Value("${banking.ledger.engine:JPA}") LedgerEngineType engineType,
+                                @Value("${banking.transfer.lock-mode:ATOMIC}") TransferLockMode lockMode,
+                                @Value("${banking.striping.account-ids:}") List<Long> accountIds,
+                                @Value("${banking.striping.stripes:16}") int stripes,
+                                @Value("${banking.striping.cache-ttl:30s}") Duration cacheTtl) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled && engineType == LedgerEngineType.JPA && lockMode == TransferLockMode.ATOMIC;
+        this.accountIds = accountIds;
+        this.stripes = stripes;
+        this.stripeCounts = new ExpiringLruCache<>(10_000, cacheTtl);
+        if (enabled && !this.enabled) {
+            log.warn("Balance striping needs the JPA engine with ATOMIC transfers; folding stripes back instead");
+        }
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        Set<Long> wanted = enabled ? new HashSet<>(accountIds) : Set.of();
+        for (Long accountId : repository.findStripedAccountIds()) {
+            if (!wanted.contains(accountId)) {
+                setStripes(accountId, 0);
+            }
+        }
+        for (Long accountId : wanted) {
+            setStripes(accountId, stripes);
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Number of stripes the account has, or 0 if it is not striped.
+     */
+    public int stripeCount(Long accountId) {
+        if (!enabled) {
+            return 0;
+        }
+        return stripeCounts.getOrLoad(accountId, repository::countStripes);
+    }
+    
+    /**
+     * Gives the account exactly {@code count} stripes; 0 folds all of them back into the main row.
+     */
+    public void setStripes(Long accountId, int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.fold(accountId, count, true);
+            repository.createStripes(accountId, count);
+        });
+        stripeCounts.invalidate(accountId);
+        log.info("Account {} now has {} balance stripes", accountId, count);
+    }
+    
+    /**
+     * Adds {@code amount} to one of the account's stripes; false if the stripe is gone and the
+     * caller should credit the main row instead.
+     */
+    public boolean credit(Long accountId, int stripeCount, BigDecimal amount) {
+        long hash = Thread.currentThread().getId() * HASH_MULTIPLIER;
+        int stripe = Math.floorMod(hash ^ (hash >>> 32), stripeCount);
+        if (repository.credit(accountId, stripe, amount)) {
+            return true;
+        }
+        stripeCounts.invalidate(accountId);
+        return false;
+    }
+    
+    /**
+     * Moves all stripe balances into the main row so a debit can draw on them; false if there was
+     * nothing to move.
+     */
+    public boolean fold(Long accountId) {
+        return repository.fold(accountId, 0, false).signum() != 0;
+    }
+    
+    public BigDecimal totalBalance(Long accountId) {
+        return repository.findTotalBalance(accountId);
+    }
+}
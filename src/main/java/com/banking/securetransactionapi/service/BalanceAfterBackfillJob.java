@@ -0,0 +1,111 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Fills in {@code balance_after} for transactions written before the column existed by replaying
+ * each account's history from its opening balance of zero. Every chunk commits on its own and
+ * progress lives in the data itself (rows still null), so an interrupted run simply resumes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceAfterBackfillJob implements ApplicationRunner {
+    
+    private static final int ACCOUNT_BATCH = 100;
+    
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${banking.backfill.balance-after.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${banking.backfill.balance-after.chunk-size:1000}")
+    private int chunkSize = 1000;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            backfill();
+        }
+    }
+    
+    public long backfill() {
+        long updated = 0;
+        Long lastAccountId = 0L;
+        List<Long> accountIds;
+        
+        do {
+            accountIds = transactionRepository.findAccountIdsMissingBalanceAfter(lastAccountId, Limit.of(ACCOUNT_BATCH));
+            for (Long accountId : accountIds) {
+                updated += backfillAccount(accountId);
+                lastAccountId = accountId;
+            }
+        } while (!accountIds.isEmpty());
+        
+        log.info("Backfilled balance_after on {} transactions", updated);
+        return updated;
+    }
+    
+    long backfillAccount(Long accountId) {
+        long updated = 0;
+        BigDecimal balance = null;
+        int chunkRows;
+        
+        do {
+            BigDecimal openingBalance = balance;
+            ChunkResult chunk = transactionTemplate.execute(status -> backfillChunk(accountId, openingBalance));
+            chunkRows = chunk.rows();
+            balance = chunk.closingBalance();
+            updated += chunkRows;
+        } while (chunkRows == chunkSize);
+        
+        log.debug("Backfilled {} transactions on account {}", updated, accountId);
+        return updated;
+    }
+    
+    private ChunkResult backfillChunk(Long accountId, BigDecimal openingBalance) {
+        List<Transaction> chunk = transactionRepository
+                .findByAccountIdAndBalanceAfterIsNullOrderByTimestampAscIdAsc(accountId, Limit.of(chunkSize));
+        if (chunk.isEmpty()) {
+            return new ChunkResult(0, openingBalance);
+        }
+        
+        BigDecimal balance = openingBalance != null ? openingBalance : balanceBefore(chunk.get(0));
+        for (Transaction transaction : chunk) {
+            balance = apply(balance, transaction);
+            // Managed entities; the updates are flushed when the chunk commits
+            transaction.setBalanceAfter(balance);
+        }
+        return new ChunkResult(chunk.size(), balance);
+    }
+    
+    private BigDecimal balanceBefore(Transaction first) {
+        // Resuming: continue from the last row that already has a balance, otherwise from account opening
+        List<BigDecimal> previous = transactionRepository.findBalanceAfterBefore(
+                first.getAccountId(), first.getTimestamp(), first.getId(), Limit.of(1));
+        return previous.isEmpty() ? BigDecimal.ZERO : previous.get(0);
+    }
+    
+    private static BigDecimal apply(BigDecimal balance, Transaction transaction) {
+        return transaction.getType() == TransactionType.DEPOSIT || transaction.getType() == TransactionType.TRANSFER_IN
+                ? balance.add(transaction.getAmount())
+                : balance.subtract(transaction.getAmount());
+    }
+    
+    private record ChunkResult(int rows, BigDecimal closingBalance) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.ledger.LedgerEngineType;
+import com.banking.securetransactionapi.util.ExpiringLruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Node-local cache of account balances for balance polling. Writers hand over the balance they
+ * produced and it is stored once their transaction commits; readers fill in accounts that have
+ * not been written here since the entry expired or was evicted.
+ * <p>
+ * Every write takes a stamp while it still holds the account row, so stamps follow commit order
+ * and a slower commit callback can never overwrite a newer balance. A read only fills an empty
+ * entry, and only if no write to the account committed or was invalidated while it was loading.
+ * Writes on other nodes arrive as invalidations, or are picked up when the entry expires. Only
+ * JPA-engine accounts without stripes are cached; the other write paths do not report their
+ * balances here.
+ */
+@Component
+public class BalanceCache {
+    
+    private static final int WATERMARK_SLOTS = 1024;
+    
+    private final AccountStripeService stripeService;
+    private final boolean enabled;
+    private final ExpiringLruCache<Long, Stamped> entries;
+    // Stamp of the last committed write per slot of account ids; a read compares it before and after loading
+    private final long[] committedStamps = new long[WATERMARK_SLOTS];
+    
+    private long nextStamp;
+    
+    public BalanceCache(AccountStripeService stripeService,
+                        @Value("${banking.balance-cache.enabled:true}") boolean enabled,
+                        @Value("${banking.ledger.engine:JPA}") LedgerEngineType engineType,
+                        @Value("${banking.balance-cache.max-size:10000}") int maxSize,
+                        @Value("${banking.balance-cache.ttl:60s}") Duration ttl) {
+        this.stripeService = stripeService;
+        this.enabled = enabled && engineType == LedgerEngineType.JPA;
+        this.entries = new ExpiringLruCache<>(maxSize, ttl);
+    }
+    
+    public boolean isCaching(Long accountId) {
+        return enabled && stripeService.stripeCount(accountId) == 0;
+    }
+    
+    /**
+     * Cached balance, or null on a miss.
+     */
+    public BigDecimal get(Long accountId) {
+        Stamped entry = entries.get(accountId);
+        return entry == null ? null : entry.balance();
+    }
+    
+    /**
+     * Stamp to take before loading a balance from the database and pass to {@link #load}.
+     */
+    public synchronized long readStamp(Long accountId) {
+        return committedStamps[slot(accountId)];
+    }
+    
+    /**
+     * Caches a balance read from the database, unless the entry is already filled or a write to
+     * the account committed since {@code readStamp} was taken.
+     */
+    public synchronized void load(Long accountId, BigDecimal balance, long readStamp) {
+        if (committedStamps[slot(accountId)] == readStamp && entries.get(accountId) == null) {
+            // Stamp 0: any write whose commit callback is still pending replaces it
+            entries.put(accountId, new Stamped(0, balance));
+        }
+    }
+    
+    /**
+     * Records the balance a write left the account with. Call it while the write still holds the
+     * account row; the balance is cached after the surrounding transaction commits.
+     */
+    public void writeThrough(Long accountId, BigDecimal balance) {
+        if (!isCaching(accountId)) {
+            return;
+        }
+        long stamp;
+        synchronized (this) {
+            stamp = ++nextStamp;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            store(accountId, balance, stamp);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                store(accountId, balance, stamp);
+            }
+        });
+    }
+    
+    /**
+     * Drops the entry after a write made elsewhere; loads already in flight will not refill it.
+     */
+    public synchronized void invalidate(Long accountId) {
+        committedStamps[slot(accountId)] = ++nextStamp;
+        entries.invalidate(accountId);
+    }
+    
+    public synchronized void invalidateAll() {
+        Arrays.fill(committedStamps, ++nextStamp);
+        entries.invalidateAll();
+    }
+    
+    private synchronized void store(Long accountId, BigDecimal balance, long stamp) {
+        int slot = slot(accountId);
+        committedStamps[slot] = Math.max(committedStamps[slot], stamp);
+        Stamped current = entries.get(accountId);
+        if (current == null || current.stamp() < stamp) {
+            entries.put(accountId, new Stamped(stamp, balance));
+        }
+    }
+    
+    private static int slot(Long accountId) {
+        return Math.floorMod(Long.hashCode(accountId), WATERMARK_SLOTS);
+    }
+    
+    private record Stamped(long stamp, BigDecimal balance) {
+    }
+}
@@ -0,0 +1,156 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.archive.TransactionArchive;
+import com.banking.securetransactionapi.entity.BalanceSnapshot;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.BalanceSnapshotRepository;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * End-of-day balance snapshots and point-in-time balance queries. A snapshot is the previous
+ * snapshot plus the signed sum of the transactions since it, so both the nightly job and an
+ * {@code asOf} query scan at most the activity since the last snapshot rather than full history.
+ * The nightly job runs on one instance at a time. Months moved to the {@link TransactionArchive}
+ * are replayed from the archive.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceSnapshotService {
+    
+    // Replay start for accounts with no earlier snapshot; accounts open at a balance of zero
+    static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final TransactionArchive transactionArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLock jobLock;
+    
+    @Value("${banking.snapshot.chunk-size:1000}")
+    private int chunkSize = 1000;
+    
+    @Scheduled(cron = "${banking.snapshot.cron:0 5 0 * * *}")
+    public void snapshotPreviousDay() {
+        LocalDate day = LocalDate.now().minusDays(1);
+        jobLock.runExclusively("balance-snapshot", () -> takeSnapshots(day));
+    }
+    
+    /**
+     * Snapshots every account at the end of {@code day}, one transaction per chunk of accounts.
+     * Accounts that already have a snapshot for the day are skipped, so re-running is safe.
+     */
+    public int takeSnapshots(LocalDate day) {
+        int created = 0;
+        Long lastAccountId = 0L;
+        List<Long> accountIds;
+        
+        do {
+            accountIds = accountRepository.findIdsAfter(lastAccountId, Limit.of(chunkSize));
+            if (accountIds.isEmpty()) {
+                break;
+            }
+            List<Long> chunk = accountIds;
+            created += transactionTemplate.execute(status -> snapshotChunk(chunk, day));
+            lastAccountId = accountIds.get(accountIds.size() - 1);
+        } while (accountIds.size() == chunkSize);
+        
+        log.info("Created {} balance snapshots for {}", created, day);
+        return created;
+    }
+    
+    /**
+     * Balance including every transaction stamped at or before {@code asOf}.
+     */
+    public BigDecimal getBalanceAsOf(Long accountId, LocalDateTime asOf) {
+        // A snapshot dated the day before asOf covers everything up to asOf's midnight
+        Optional<BalanceSnapshot> snapshot = snapshotRepository
+                .findFirstByAccountIdAndSnapshotDateLessThanEqualOrderBySnapshotDateDesc(accountId, asOf.toLocalDate().minusDays(1));
+        BigDecimal opening = snapshot.map(BalanceSnapshot::getBalance).orElse(BigDecimal.ZERO);
+        LocalDateTime from = snapshot.map(s -> s.getSnapshotDate().plusDays(1).atStartOfDay()).orElse(HISTORY_START);
+        
+        // Archived months are no longer in the table; read their share of the replay from the archive
+        BigDecimal balance = opening;
+        LocalDateTime cursor = from;
+        for (YearMonth month : transactionArchive.monthsBetween(YearMonth.from(from), YearMonth.from(asOf))) {
+            LocalDateTime monthStart = month.atDay(1).atStartOfDay();
+            if (cursor.isBefore(monthStart)) {
+                balance = balance.add(transactionRepository.sumSignedAmountBefore(accountId, cursor, monthStart));
+            }
+            for (Transaction transaction : transactionArchive.findInMonth(accountId, month, cursor, asOf)) {
+                balance = balance.add(signedAmount(transaction));
+            }
+            cursor = month.plusMonths(1).atDay(1).atStartOfDay();
+        }
+        if (!cursor.isAfter(asOf)) {
+            balance = balance.add(transactionRepository.sumSignedAmount(accountId, cursor, asOf));
+        }
+        return balance;
+    }
+    
+    private static BigDecimal signedAmount(Transaction transaction) {
+        TransactionType type = transaction.getType();
+        return type == TransactionType.DEPOSIT || type == TransactionType.TRANSFER_IN
+                ? transaction.getAmount()
+                : transaction.getAmount().negate();
+    }
+    
+    private int snapshotChunk(List<Long> accountIds, LocalDate day) {
+        Set<Long> existing = new HashSet<>(snapshotRepository.findAccountIdsWithSnapshot(accountIds, day));
+        Map<Long, BalanceSnapshot> previous = new HashMap<>();
+        snapshotRepository.findLatestBefore(accountIds, day).forEach(s -> previous.put(s.getAccountId(), s));
+        
+        // Accounts whose previous snapshot is on the same day share one delta query
+        Map<LocalDateTime, List<Long>> byReplayStart = new TreeMap<>();
+        for (Long accountId : accountIds) {
+            if (existing.contains(accountId)) {
+                continue;
+            }
+            BalanceSnapshot last = previous.get(accountId);
+            LocalDateTime from = last == null ? HISTORY_START : last.getSnapshotDate().plusDays(1).atStartOfDay();
+            byReplayStart.computeIfAbsent(from, key -> new ArrayList<>()).add(accountId);
+        }
+        
+        LocalDateTime before = day.plusDays(1).atStartOfDay();
+        LocalDateTime now = LocalDateTime.now();
+        List<BalanceSnapshot> snapshots = new ArrayList<>();
+        byReplayStart.forEach((from, ids) -> {
+            Map<Long, BigDecimal> deltas = new HashMap<>();
+            for (Object[] row : transactionRepository.sumSignedAmountsByAccount(ids, from, before)) {
+                deltas.put((Long) row[0], (BigDecimal) row[1]);
+            }
+            for (Long accountId : ids) {
+                BalanceSnapshot last = previous.get(accountId);
+                BigDecimal balance = (last == null ? BigDecimal.ZERO : last.getBalance())
+                        .add(deltas.getOrDefault(accountId, BigDecimal.ZERO));
+                snapshots.add(new BalanceSnapshot(null, accountId, day, balance, now));
+            }
+        });
+        
+        snapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+}
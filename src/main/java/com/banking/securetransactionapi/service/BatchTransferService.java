@@ -0,0 +1,178 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.dto.BatchTransferItemResult;
+import com.banking.securetransactionapi.dto.BatchTransferItemResult.Status;
+import com.banking.securetransactionapi.dto.BatchTransferResponse;
+import com.banking.securetransactionapi.dto.TransferRequest;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.exception.AccountNotFoundException;
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import com.banking.securetransactionapi.exception.InvalidTransferException;
+import com.banking.securetransactionapi.invalidation.CacheInvalidator;
+import com.banking.securetransactionapi.ledger.LedgerEngineType;
+import com.banking.securetransactionapi.repository.LedgerJdbcRepository;
+import com.banking.securetransactionapi.repository.OutboxJdbcRepository;
+import com.banking.securetransactionapi.util.SnowflakeIdGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Executes many transfers from one source account in a single database transaction. The total
+ * is debited once, credits and ledger rows go out as JDBC batches, and invalid items are
+ * rejected individually instead of failing the whole batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchTransferService {
+    
+    private final AccountService accountService;
+    private final AccountStripeService stripeService;
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final OutboxJdbcRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryExecutor retryExecutor;
+    private final SnowflakeIdGenerator idGenerator;
+    private final BalanceCache balanceCache;
+    private final CacheInvalidator cacheInvalidator;
+    
+    @Value("${banking.ledger.engine:JPA}")
+    private LedgerEngineType ledgerEngine = LedgerEngineType.JPA;
+    
+    public BatchTransferResponse transfer(User user, List<TransferRequest> transfers) {
+        if (ledgerEngine != LedgerEngineType.JPA) {
+            // Balances are owned by another write path; updating them directly would bypass it
+            throw new InvalidTransferException("Bulk transfers are only supported by the JPA ledger engine");
+        }
+        return retryExecutor.execute(() -> transactionTemplate.execute(status -> doTransfer(user, transfers)));
+    }
+    
+    private BatchTransferResponse doTransfer(User user, List<TransferRequest> transfers) {
+        Long sourceAccountId = accountService.getUserAccountId(user);
+        
+        Set<Long> targetIds = new HashSet<>();
+        transfers.forEach(transfer -> targetIds.add(transfer.getTargetAccountId()));
+        Set<Long> existingIds = ledgerJdbcRepository.findBalances(targetIds).keySet();
+        
+        BatchTransferItemResult[] results = new BatchTransferItemResult[transfers.size()];
+        List<Integer> accepted = new ArrayList<>(transfers.size());
+        BigDecimal total = BigDecimal.ZERO;
+        // Credits per target, ascending by id so row locks are taken in the same order as single transfers
+        SortedMap<Long, BigDecimal> credits = new TreeMap<>();
+        
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest transfer = transfers.get(i);
+            Long targetId = transfer.getTargetAccountId();
+            String error = sourceAccountId.equals(targetId) ? "Cannot transfer to the same account"
+                    : !existingIds.contains(targetId) ? "Target account not found"
+                    : null;
+            if (error != null) {
+                results[i] = new BatchTransferItemResult(i, targetId, transfer.getAmount(), Status.REJECTED, null, error);
+                continue;
+            }
+            accepted.add(i);
+            total = total.add(transfer.getAmount());
+            credits.merge(targetId, transfer.getAmount(), BigDecimal::add);
+        }
+        
+        if (accepted.isEmpty()) {
+            BigDecimal balance = accountService.findById(sourceAccountId).getBalance();
+            return new BatchTransferResponse(0, transfers.size(), BigDecimal.ZERO, balance, List.of(results));
+        }
+        
+        // Striped targets are credited on a stripe, the rest in one batch on their accounts rows
+        SortedMap<Long, BigDecimal> rowCredits = new TreeMap<>(credits);
+        rowCredits.keySet().removeIf(targetId -> stripeService.stripeCount(targetId) > 0);
+        
+        // Debit the whole batch once, slotted between the lower and higher target ids
+        applyCredits(rowCredits.headMap(sourceAccountId));
+        BigDecimal sourceBalance = accountService.debit(sourceAccountId, total)
+                .orElseThrow(() -> new InsufficientFundsException("Insufficient balance for batch transfer"));
+        applyCredits(rowCredits.tailMap(sourceAccountId));
+        
+        // Rows are locked by this transaction, so these are exactly the post-credit balances
+        Map<Long, BigDecimal> targetBalances = new HashMap<>(ledgerJdbcRepository.findBalances(rowCredits.keySet()));
+        credits.forEach((targetId, credit) -> {
+            if (!rowCredits.containsKey(targetId)) {
+                // Main row plus stripes, as single transfers to a striped account report it
+                targetBalances.put(targetId, accountService.credit(targetId, credit)
+                        .orElseThrow(() -> new AccountNotFoundException("Account not found")));
+            }
+        });
+        balanceCache.writeThrough(sourceAccountId, sourceBalance);
+        targetBalances.forEach(balanceCache::writeThrough);
+        cacheInvalidator.balanceChanged(sourceAccountId);
+        targetBalances.keySet().forEach(cacheInvalidator::balanceChanged);
+        
+        insertLedgerRows(transfers, accepted, results, sourceAccountId, sourceBalance.add(total), credits, targetBalances);
+        
+        log.info("Batch transfer from account {}: {} completed, {} rejected, total {}",
+                sourceAccountId, accepted.size(), transfers.size() - accepted.size(), total);
+        return new BatchTransferResponse(accepted.size(), transfers.size() - accepted.size(), total, sourceBalance,
+                List.of(results));
+    }
+    
+    private void applyCredits(SortedMap<Long, BigDecimal> credits) {
+        if (!ledgerJdbcRepository.addToBalances(credits).isEmpty()) {
+            // Target was deleted after validation; roll back the whole batch
+            throw new AccountNotFoundException("Account not found");
+        }
+    }
+    
+    private void insertLedgerRows(List<TransferRequest> transfers, List<Integer> accepted,
+                                  BatchTransferItemResult[] results, Long sourceAccountId,
+                                  BigDecimal sourceOpeningBalance, Map<Long, BigDecimal> credits,
+                                  Map<Long, BigDecimal> targetBalances) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BigDecimal> targetRunning = new HashMap<>();
+        credits.forEach((targetId, credit) -> targetRunning.put(targetId, targetBalances.get(targetId).subtract(credit)));
+        BigDecimal sourceRunning = sourceOpeningBalance;
+        List<Transaction> rows = new ArrayList<>(accepted.size() * 2);
+        
+        for (int index : accepted) {
+            TransferRequest transfer = transfers.get(index);
+            Long targetId = transfer.getTargetAccountId();
+            BigDecimal amount = transfer.getAmount();
+            sourceRunning = sourceRunning.subtract(amount);
+            BigDecimal targetBalance = targetRunning.merge(targetId, amount, BigDecimal::add);
+            
+            Transaction outgoing = ledgerRow(sourceAccountId, TransactionType.TRANSFER_OUT, transfer, targetId, now, sourceRunning);
+            rows.add(outgoing);
+            rows.add(ledgerRow(targetId, TransactionType.TRANSFER_IN, transfer, sourceAccountId, now, targetBalance));
+            results[index] = new BatchTransferItemResult(index, targetId, amount, Status.COMPLETED, outgoing.getId(), null);
+        }
+        
+        ledgerJdbcRepository.insertTransactions(rows);
+        outboxRepository.append(rows);
+    }
+    
+    private Transaction ledgerRow(Long accountId, TransactionType type, TransferRequest transfer, Long counterpartyId,
+                                  LocalDateTime timestamp, BigDecimal balanceAfter) {
+        Transaction transaction = new Transaction();
+        transaction.setId(idGenerator.nextId());
+        transaction.setAccountId(accountId);
+        transaction.setType(type);
+        transaction.setAmount(transfer.getAmount());
+        transaction.setTargetAccountId(counterpartyId);
+        transaction.setDescription(transfer.getDescription());
+        transaction.setTimestamp(timestamp);
+        transaction.setBalanceAfter(balanceAfter);
+        return transaction;
+    }
+}
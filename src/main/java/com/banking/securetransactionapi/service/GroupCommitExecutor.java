@@ -0,0 +1,248 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.exception.AccountNotFoundException;
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer group commit for ledger writes. Callers enqueue an operation and block on its
+ * future; the writer thread drains up to {@code max-batch-size} operations (waiting at most
+ * {@code max-delay-ms} for more to arrive) and runs them all in one database transaction, so
+ * many callers share one commit.
+ * <p>
+ * Operations are applied in ascending account order, which keeps row locks in the same order as
+ * transfers. A business rejection (insufficient funds, unknown account) changes nothing and only
+ * fails its own caller. Any other failure rolls the batch back and its operations are re-run
+ * one transaction each, so a single bad operation cannot fail its neighbours.
+ */
+@Component
+@Slf4j
+public class GroupCommitExecutor {
+    
+    private final TransactionTemplate transactionTemplate;
+    private final RetryExecutor retryExecutor;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingOperation<?>> queue;
+    
+    private final AtomicLong commitCount = new AtomicLong();
+    private final AtomicLong operationCount = new AtomicLong();
+    private final AtomicLong fallbackCount = new AtomicLong();
+    
+    private volatile boolean running;
+    private Thread writer;
+    
+    public GroupCommitExecutor(TransactionTemplate transactionTemplate,
+                               RetryExecutor retryExecutor,
+                               @Value("${banking.group-commit.enabled:false}") boolean enabled,
+                               @Value("${banking.group-commit.max-batch-size:256}") int maxBatchSize,
+                               @Value("${banking.group-commit.max-delay-ms:2}") long maxDelayMs,
+                               @Value("${banking.group-commit.queue-capacity:10000}") int queueCapacity) {
+        this.transactionTemplate = transactionTemplate;
+        this.retryExecutor = retryExecutor;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+    
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "group-commit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Group commit enabled: max batch {} ops, max delay {} ms",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMillis(maxDelayNanos));
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        // The writer finishes whatever is already queued before exiting
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        failQueued();
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Runs {@code operation} in a shared transaction and returns its result once that transaction
+     * has committed. Exceptions thrown by the operation are rethrown to the caller unchanged.
+     */
+    public <T> T submit(Long accountId, Supplier<T> operation) {
+        if (!running) {
+            throw notRunning();
+        }
+        PendingOperation<T> pending = new PendingOperation<>(accountId, operation);
+        try {
+            // Offer in steps so a full queue cannot hold the caller past shutdown
+            while (!queue.offer(pending, 100, TimeUnit.MILLISECONDS)) {
+                if (!running) {
+                    throw notRunning();
+                }
+            }
+            // Stopped while enqueuing: take it back unless the writer or stop() already has it
+            if (!running && queue.remove(pending)) {
+                throw notRunning();
+            }
+            return pending.future.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", ex);
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+    
+    public long getCommitCount() {
+        return commitCount.get();
+    }
+    
+    public long getOperationCount() {
+        return operationCount.get();
+    }
+    
+    public long getFallbackCount() {
+        return fallbackCount.get();
+    }
+    
+    private void runWriter() {
+        List<PendingOperation<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOperation<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    // Take whatever is already queued, then linger briefly for stragglers
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingOperation<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commitBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+                break;
+            } catch (RuntimeException ex) {
+                // commitBatch completes every future itself; this only guards the writer loop
+                log.error("Group commit writer failed", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+        failQueued();
+    }
+    
+    /**
+     * Fails every operation still queued once the writer is gone, so no caller waits forever.
+     */
+    private void failQueued() {
+        List<PendingOperation<?>> orphaned = new ArrayList<>();
+        queue.drainTo(orphaned);
+        orphaned.forEach(pending -> pending.future.completeExceptionally(notRunning()));
+    }
+    
+    private static IllegalStateException notRunning() {
+        return new IllegalStateException("Group commit executor is not running");
+    }
+    
+    void commitBatch(List<PendingOperation<?>> batch) {
+        batch.sort(Comparator.comparing(pending -> pending.accountId));
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(PendingOperation::apply));
+        } catch (RuntimeException ex) {
+            log.warn("Group commit of {} operations failed, retrying individually: {}", batch.size(), ex.toString());
+            fallbackCount.incrementAndGet();
+            batch.forEach(this::commitAlone);
+            return;
+        }
+        commitCount.incrementAndGet();
+        operationCount.addAndGet(batch.size());
+        batch.forEach(PendingOperation::complete);
+    }
+    
+    private void commitAlone(PendingOperation<?> pending) {
+        try {
+            retryExecutor.execute(() -> transactionTemplate.execute(status -> {
+                pending.apply();
+                return null;
+            }));
+            commitCount.incrementAndGet();
+            operationCount.incrementAndGet();
+            pending.complete();
+        } catch (RuntimeException ex) {
+            pending.future.completeExceptionally(ex);
+        }
+    }
+    
+    static final class PendingOperation<T> {
+        private final Long accountId;
+        private final Supplier<T> operation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private RuntimeException rejection;
+        
+        PendingOperation(Long accountId, Supplier<T> operation) {
+            this.accountId = accountId;
+            this.operation = operation;
+        }
+        
+        void apply() {
+            result = null;
+            rejection = null;
+            try {
+                result = operation.get();
+            } catch (InsufficientFundsException | AccountNotFoundException ex) {
+                // Rejected before writing anything, so the rest of the batch is unaffected
+                rejection = ex;
+            }
+        }
+        
+        void complete() {
+            if (rejection != null) {
+                future.completeExceptionally(rejection);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
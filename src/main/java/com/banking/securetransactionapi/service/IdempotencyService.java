@@ -0,0 +1,246 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.dto.TransactionResponse;
+import com.banking.securetransactionapi.entity.IdempotencyRecord;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.exception.IdempotencyKeyException;
+import com.banking.securetransactionapi.ledger.ShardedLedgerEngine;
+import com.banking.securetransactionapi.repository.IdempotencyJdbcRepository;
+import com.banking.securetransactionapi.util.ExpiringLruCache;
+import com.banking.securetransactionapi.util.SnowflakeIdGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Makes money-moving requests safe to retry under an {@code Idempotency-Key}. The first request
+ * with a key stores the key, a hash of the request and the response in the transaction that moves
+ * the money; a retry gets the stored response back instead of posting again. Completed keys are
+ * also kept in an LRU cache so hot retries skip the database.
+ * <p>
+ * Failed operations roll back their key with everything else, so they can be retried. The SHARDED
+ * engine and group commit post on their own threads and connections, so holding a connection for
+ * the key while waiting on them could exhaust the pool. For them the key is first committed as
+ * pending in a short transaction, the operation runs without a connection held, and the response
+ * is stored afterwards; a retry that finds the key still pending is told to try again later and
+ * never posts a second time.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private final IdempotencyJdbcRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryExecutor retryExecutor;
+    private final SnowflakeIdGenerator idGenerator;
+    private final ObjectMapper objectMapper;
+    private final GroupCommitExecutor groupCommitExecutor;
+    private final ShardedLedgerEngine ledgerEngine;
+    private final ExpiringLruCache<String, StoredResponse> cache;
+    private final Duration ttl;
+    private final int purgeBatchSize;
+    
+    public IdempotencyService(IdempotencyJdbcRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              RetryExecutor retryExecutor,
+                              SnowflakeIdGenerator idGenerator,
+                              ObjectMapper objectMapper,
+                              GroupCommitExecutor groupCommitExecutor,
+                              ShardedLedgerEngine ledgerEngine,
+                              @Value("${banking.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${banking.idempotency.cache.max-size:10000}") int cacheMaxSize,
+                              @Value("${banking.idempotency.purge.batch-size:1000}") int purgeBatchSize) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.retryExecutor = retryExecutor;
+        this.idGenerator = idGenerator;
+        this.objectMapper = objectMapper;
+        this.groupCommitExecutor = groupCommitExecutor;
+        this.ledgerEngine = ledgerEngine;
+        this.cache = new ExpiringLruCache<>(cacheMaxSize, ttl);
+        this.ttl = ttl;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+    
+    /**
+     * Runs {@code action} once per user and key. Without a key the operation simply runs.
+     *
+     * @param operation name of the endpoint, so one key cannot be replayed against another
+     * @param request   request body; a retry must send the same one
+     */
+    public TransactionResponse execute(User user, String idempotencyKey, String operation, Object request,
+                                       Supplier<TransactionResponse> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        
+        String requestHash = hash(operation, request);
+        String cacheKey = user.getId() + ":" + idempotencyKey;
+        StoredResponse cached = cache.get(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+        
+        try {
+            TransactionResponse response = postsAsynchronously()
+                    ? executePending(user, idempotencyKey, requestHash, action)
+                    : executeInTransaction(user, idempotencyKey, requestHash, action);
+            cache.put(cacheKey, new StoredResponse(requestHash, response));
+            return response;
+        } catch (KeyTakenException ex) {
+            // Another request with this key committed first; answer with its response
+            IdempotencyRecord record = repository.find(user.getId(), idempotencyKey)
+                    .orElseThrow(() -> new IdempotencyKeyException("Idempotency-Key expired while in use; retry the request"));
+            if (record.getResponse() == null) {
+                if (!record.getRequestHash().equals(requestHash)) {
+                    throw new IdempotencyKeyException("Idempotency-Key was already used with a different request");
+                }
+                throw new IdempotencyKeyException("A request with this Idempotency-Key is still in progress; retry later");
+            }
+            StoredResponse stored = new StoredResponse(record.getRequestHash(), deserialize(record.getResponse()));
+            cache.put(cacheKey, stored);
+            return replay(stored, requestHash);
+        }
+    }
+    
+    private boolean postsAsynchronously() {
+        return groupCommitExecutor.isEnabled() || ledgerEngine.isEnabled();
+    }
+    
+    /**
+     * Stores the key and the response in the transaction the operation runs in.
+     */
+    private TransactionResponse executeInTransaction(User user, String idempotencyKey, String requestHash,
+                                                     Supplier<TransactionResponse> action) {
+        return retryExecutor.execute(() -> transactionTemplate.execute(status -> {
+            long id = idGenerator.nextId();
+            try {
+                repository.insert(id, user.getId(), idempotencyKey, requestHash, LocalDateTime.now());
+            } catch (DuplicateKeyException ex) {
+                // Leave the transaction so it rolls back; unique violations from the operation itself pass through
+                throw new KeyTakenException(ex);
+            }
+            TransactionResponse result = action.get();
+            repository.complete(id, serialize(result));
+            return result;
+        }));
+    }
+    
+    /**
+     * Commits the key as pending, runs the operation with no connection held and then stores the
+     * response. A failed operation has not moved money, so its key is removed again.
+     */
+    private TransactionResponse executePending(User user, String idempotencyKey, String requestHash,
+                                               Supplier<TransactionResponse> action) {
+        long id = idGenerator.nextId();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    repository.insert(id, user.getId(), idempotencyKey, requestHash, LocalDateTime.now()));
+        } catch (DuplicateKeyException ex) {
+            throw new KeyTakenException(ex);
+        }
+        
+        TransactionResponse result;
+        try {
+            result = action.get();
+        } catch (RuntimeException ex) {
+            try {
+                repository.delete(id);
+            } catch (DataAccessException deleteFailure) {
+                // A leftover pending key only delays retries until it expires
+                ex.addSuppressed(deleteFailure);
+            }
+            throw ex;
+        }
+        
+        try {
+            repository.complete(id, serialize(result));
+        } catch (DataAccessException ex) {
+            // The money has moved; the pending key keeps retries from posting again until it expires
+            log.error("Could not store response for Idempotency-Key {} of user {}", idempotencyKey, user.getId(), ex);
+        }
+        return result;
+    }
+    
+    /**
+     * Deletes keys older than the TTL in batches, each in its own short statement.
+     */
+    @Scheduled(fixedDelayString = "${banking.idempotency.purge.interval-ms:60000}")
+    public int purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = repository.deleteCreatedBefore(cutoff, purgeBatchSize);
+            purged += deleted;
+        } while (deleted == purgeBatchSize);
+        
+        if (purged > 0) {
+            log.info("Purged {} idempotency keys created before {}", purged, cutoff);
+        }
+        return purged;
+    }
+    
+    private static TransactionResponse replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyException("Idempotency-Key was already used with a different request");
+        }
+        return stored.response();
+    }
+    
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot hash request", ex);
+        }
+    }
+    
+    private String serialize(TransactionResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize response", ex);
+        }
+    }
+    
+    private TransactionResponse deserialize(String response) {
+        try {
+            return objectMapper.readValue(response, TransactionResponse.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot read stored response", ex);
+        }
+    }
+    
+    private record StoredResponse(String requestHash, TransactionResponse response) {
+    }
+    
+    private static final class KeyTakenException extends RuntimeException {
+        private KeyTakenException(DuplicateKeyException cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.banking.securetransactionapi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps maintenance jobs that run on every instance from running on two at once. On PostgreSQL
+ * the job holds a session advisory lock on a connection of its own for its whole run, so it may
+ * open as many transactions as it needs; other databases are taken to be single-node.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobLock {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Runs {@code job} unless another instance is running the job called {@code name}; returns
+     * whether it ran.
+     */
+    public boolean runExclusively(String name, Runnable job) {
+        ConnectionCallback<Boolean> callback = connection -> {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                job.run();
+                return true;
+            }
+            long key = key(name);
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(?)", key)) {
+                log.info("Skipping {}: another instance is running it", name);
+                return false;
+            }
+            try {
+                job.run();
+                return true;
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(?)", key);
+            }
+        };
+        return Boolean.TRUE.equals(jdbcTemplate.execute(callback));
+    }
+    
+    private static boolean advisoryLock(Connection connection, String sql, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, key);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+    
+    private static long key(String name) {
+        CRC32 crc = new CRC32();
+        crc.update(name.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
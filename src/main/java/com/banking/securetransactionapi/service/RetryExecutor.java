@@ -0,0 +1,78 @@
+package com.banking.securetransactionapi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a unit of work that failed on a deadlock, lock timeout, serialization or
+ * optimistic locking conflict, backing off with full jitter between attempts. The work
+ * must open its own transaction so every attempt starts from a clean state.
+ * <p>
+ * Called inside a transaction that is already running, the work joins it and cannot start clean,
+ * so it runs once and the failure is left to the retry boundary that owns that transaction.
+ */
+@Component
+@Slf4j
+public class RetryExecutor {
+    
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong abortCount = new AtomicLong();
+    
+    public RetryExecutor(
+            @Value("${banking.retry.max-attempts:5}") int maxAttempts,
+            @Value("${banking.retry.initial-backoff-ms:5}") long initialBackoffMillis,
+            @Value("${banking.retry.max-backoff-ms:200}") long maxBackoffMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+    }
+    
+    public <T> T execute(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            } catch (ConcurrencyFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    abortCount.incrementAndGet();
+                    log.warn("Giving up after {} attempts: {}", attempt, ex.getMessage());
+                    throw ex;
+                }
+                retryCount.incrementAndGet();
+                log.debug("Retrying after concurrency failure (attempt {}): {}", attempt, ex.getMessage());
+                backOff(attempt);
+            }
+        }
+    }
+    
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+    
+    public long getAbortCount() {
+        return abortCount.get();
+    }
+    
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", ex);
+        }
+    }
+}
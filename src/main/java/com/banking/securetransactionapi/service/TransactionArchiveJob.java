@@ -0,0 +1,115 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.archive.ArchiveWriter;
+import com.banking.securetransactionapi.archive.TransactionArchive;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Moves months older than {@code horizon-months} out of {@code transactions} into the
+ * {@link TransactionArchive}, oldest month first. Each month is snapshotted, written and synced
+ * to its archive file, and only then dropped from the database; a run interrupted in between
+ * rewrites the same file next time, so the job is safe to repeat. Only one instance runs it at
+ * a time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionArchiveJob {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionArchive transactionArchive;
+    private final TransactionPartitionManager partitionManager;
+    private final BalanceSnapshotService snapshotService;
+    private final JobLock jobLock;
+    
+    @Value("${banking.archive.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${banking.archive.horizon-months:12}")
+    private int horizonMonths = 12;
+    
+    @Scheduled(cron = "${banking.archive.cron:0 30 1 1 * *}")
+    public void scheduledArchive() {
+        if (enabled) {
+            jobLock.runExclusively("transaction-archive", this::archiveExpired);
+        }
+    }
+    
+    /**
+     * Archives every month that ended more than {@code horizon-months} ago and returns the
+     * number of rows moved.
+     */
+    public long archiveExpired() {
+        YearMonth horizon = YearMonth.now().minusMonths(horizonMonths);
+        LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM transactions", LocalDateTime.class);
+        long archived = 0;
+        if (oldest == null) {
+            return archived;
+        }
+        for (YearMonth month = YearMonth.from(oldest); month.isBefore(horizon); month = month.plusMonths(1)) {
+            archived += archiveMonth(month);
+        }
+        return archived;
+    }
+    
+    long archiveMonth(YearMonth month) {
+        // Balances at the month end stay answerable once its rows have left the table
+        snapshotService.takeSnapshots(month.atEndOfMonth());
+        
+        long rows;
+        try (ArchiveWriter writer = transactionArchive.openWriter(month)) {
+            // Read in a transaction so PostgreSQL streams with a cursor instead of buffering the month
+            transactionTemplate.executeWithoutResult(status -> streamMonth(month, writer));
+            rows = writer.getRowCount();
+            writer.commit();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot archive transactions for " + month, ex);
+        }
+        
+        transactionTemplate.executeWithoutResult(status -> partitionManager.dropMonth(month));
+        log.info("Moved {} transactions from {} to the archive", rows, month);
+        return rows;
+    }
+    
+    private void streamMonth(YearMonth month, ArchiveWriter writer) {
+        RowCallbackHandler handler = rs -> {
+            Transaction transaction = new Transaction();
+            transaction.setId(rs.getLong("id"));
+            transaction.setAccountId(rs.getLong("account_id"));
+            transaction.setType(TransactionType.valueOf(rs.getString("type")));
+            transaction.setAmount(rs.getBigDecimal("amount"));
+            transaction.setTargetAccountId(rs.getObject("target_account_id", Long.class));
+            transaction.setBalanceAfter(rs.getBigDecimal("balance_after"));
+            transaction.setDescription(rs.getString("description"));
+            transaction.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+            writer.append(transaction);
+        };
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(
+                    "SELECT id, account_id, type, amount, target_account_id, balance_after, description, timestamp " +
+                    "FROM transactions WHERE timestamp >= ? AND timestamp < ? " +
+                    "ORDER BY account_id, timestamp DESC, id DESC");
+            statement.setFetchSize(1000);
+            statement.setTimestamp(1, Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+            statement.setTimestamp(2, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+            return statement;
+        }, handler);
+    }
+}
@@ -0,0 +1,142 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams an account's full history straight from a database cursor to the response, so
+ * memory use stays constant however many rows the account has.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportService {
+    
+    private static final String CSV_HEADER = "id,type,amount,targetAccountId,description,timestamp,balanceAfter";
+    
+    private final TransactionRepository transactionRepository;
+    private final AccountService accountService;
+    private final ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${banking.export.flush-interval:1000}")
+    private int flushInterval = 1000;
+    
+    @Transactional(readOnly = true)
+    public long export(User user, ExportFormat format, OutputStream out) throws IOException {
+        Long accountId = accountService.getUserAccountId(user);
+        
+        try (Stream<Transaction> transactions = transactionRepository.streamByAccountId(accountId)) {
+            long rows = switch (format) {
+                case NDJSON -> writeNdjson(transactions.iterator(), out);
+                case CSV -> writeCsv(transactions.iterator(), out);
+            };
+            log.debug("Exported {} transactions for account {} as {}", rows, accountId, format);
+            return rows;
+        }
+    }
+    
+    private long writeNdjson(Iterator<Transaction> transactions, OutputStream out) throws IOException {
+        // Flushing is done in batches below, not after every row
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long rows = 0;
+        
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+            while (transactions.hasNext()) {
+                Transaction transaction = transactions.next();
+                writer.writeValue(generator, TransactionService.mapToResponse(transaction, transaction.getBalanceAfter()));
+                generator.writeRaw('\n');
+                rows = afterRow(transaction, rows, generator::flush);
+            }
+        }
+        return rows;
+    }
+    
+    private long writeCsv(Iterator<Transaction> transactions, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long rows = 0;
+        
+        while (transactions.hasNext()) {
+            Transaction transaction = transactions.next();
+            writer.write(String.valueOf(transaction.getId()));
+            writer.write(',');
+            writer.write(transaction.getType().name());
+            writer.write(',');
+            writer.write(transaction.getAmount().toPlainString());
+            writer.write(',');
+            if (transaction.getTargetAccountId() != null) {
+                writer.write(String.valueOf(transaction.getTargetAccountId()));
+            }
+            writer.write(',');
+            writeCsvField(writer, transaction.getDescription());
+            writer.write(',');
+            writer.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(transaction.getTimestamp()));
+            writer.write(',');
+            if (transaction.getBalanceAfter() != null) {
+                writer.write(transaction.getBalanceAfter().toPlainString());
+            }
+            writer.write('\n');
+            rows = afterRow(transaction, rows, writer::flush);
+        }
+        writer.flush();
+        return rows;
+    }
+    
+    private long afterRow(Transaction transaction, long rows, Flusher flusher) throws IOException {
+        // Nothing is modified, so drop the row from the persistence context to keep it from growing
+        entityManager.detach(transaction);
+        long written = rows + 1;
+        if (written % flushInterval == 0) {
+            flusher.flush();
+        }
+        return written;
+    }
+    
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+    
+    @FunctionalInterface
+    private interface Flusher {
+        void flush() throws IOException;
+    }
+}
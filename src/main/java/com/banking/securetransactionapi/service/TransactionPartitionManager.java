@@ -0,0 +1,100 @@
+package com.banking.securetransactionapi.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Maintains the monthly range partitions of {@code transactions} on {@code timestamp}, which the
+ * PostgreSQL migration {@code V10__partition_transactions} sets up. Partitions are created
+ * {@code months-ahead} in advance, by one instance at a time, and expired months can be dropped
+ * whole instead of deleted row by row. Elsewhere the table stays unpartitioned.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionPartitionManager implements ApplicationRunner {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final JobLock jobLock;
+    
+    @Value("${banking.partitioning.months-ahead:3}")
+    private int monthsAhead = 3;
+    
+    private volatile boolean partitioned;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        partitioned = isPostgres() && isPartitionedTable();
+        if (partitioned) {
+            ensurePartitions();
+        }
+    }
+    
+    /**
+     * Whether {@code transactions} is partitioned by month, so queries should be bounded to partitions.
+     */
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+    
+    @Scheduled(cron = "${banking.partitioning.cron:0 0 1 * * *}")
+    public void ensurePartitions() {
+        if (partitioned) {
+            jobLock.runExclusively("transaction-partitioning", this::createPartitions);
+        }
+    }
+    
+    private void createPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+    
+    /**
+     * Removes every row of {@code month}: drops the partition if the table is partitioned,
+     * otherwise deletes the rows.
+     */
+    public void dropMonth(YearMonth month) {
+        if (partitioned) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM transactions WHERE timestamp >= ? AND timestamp < ?",
+                monthStart(month), monthStart(month.plusMonths(1)));
+    }
+    
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF transactions " +
+                "FOR VALUES FROM ('" + monthStart(month) + "') TO ('" + monthStart(month.plusMonths(1)) + "')");
+    }
+    
+    private boolean isPartitionedTable() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT c.relkind::text FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE c.relname = 'transactions' AND n.nspname = current_schema()", String.class);
+        return kinds.contains("p");
+    }
+    
+    private boolean isPostgres() {
+        ConnectionCallback<String> productName = connection -> connection.getMetaData().getDatabaseProductName();
+        return "PostgreSQL".equals(jdbcTemplate.execute(productName));
+    }
+    
+    private static Timestamp monthStart(YearMonth month) {
+        return Timestamp.valueOf(month.atDay(1).atStartOfDay());
+    }
+    
+    static String partitionName(YearMonth month) {
+        return String.format("transactions_p%d_%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -1,21 +1,34 @@
 package com.banking.securetransactionapi.service;
 
+import com.banking.securetransactionapi.archive.TransactionArchive;
+import com.banking.securetransactionapi.dto.TransactionHistoryResponse;
 import com.banking.securetransactionapi.dto.TransactionResponse;
 import com.banking.securetransactionapi.entity.Account;
 import com.banking.securetransactionapi.entity.Transaction;
 import com.banking.securetransactionapi.entity.TransactionType;
 import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.exception.AccountNotFoundException;
 import com.banking.securetransactionapi.exception.InsufficientFundsException;
 import com.banking.securetransactionapi.exception.InvalidTransferException;
+import com.banking.securetransactionapi.invalidation.CacheInvalidator;
+import com.banking.securetransactionapi.ledger.JournalLedgerService;
+import com.banking.securetransactionapi.ledger.ShardedLedgerEngine;
+import com.banking.securetransactionapi.repository.OutboxJdbcRepository;
 import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.banking.securetransactionapi.util.HistoryCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -23,119 +36,290 @@ public class TransactionService {
     
     private final TransactionRepository transactionRepository;
     private final AccountService accountService;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryExecutor retryExecutor;
+    private final GroupCommitExecutor groupCommitExecutor;
+    private final ShardedLedgerEngine ledgerEngine;
+    private final JournalLedgerService journalLedger;
+    private final OutboxJdbcRepository outboxRepository;
+    private final TransactionPartitionManager partitionManager;
+    private final TransactionArchive transactionArchive;
+    private final BalanceCache balanceCache;
+    private final CacheInvalidator cacheInvalidator;
+    
+    @Value("${banking.transfer.lock-mode:ATOMIC}")
+    private TransferLockMode lockMode = TransferLockMode.ATOMIC;
+    
+    @Value("${banking.history.default-limit:50}")
+    private int defaultHistoryLimit = 50;
+    
+    @Value("${banking.history.max-limit:500}")
+    private int maxHistoryLimit = 500;
     
-    @Transactional
     public TransactionResponse deposit(User user, BigDecimal amount, String description) {
-        Account account = accountService.getUserAccount(user);
-        
-        // Update balance
-        BigDecimal newBalance = account.getBalance().add(amount);
-        accountService.updateBalance(account.getId(), newBalance);
+        Long accountId = accountService.getUserAccountId(user);
+        if (ledgerEngine.isEnabled()) {
+            return fromLedger(ledgerEngine.deposit(accountId, amount, description));
+        }
+        if (journalLedger.isEnabled()) {
+            return fromLedger(journalLedger.deposit(accountId, amount, description));
+        }
+        return write(accountId, () -> recordDeposit(accountId, amount, description));
+    }
+    
+    public TransactionResponse withdraw(User user, BigDecimal amount, String description) {
+        Long accountId = accountService.getUserAccountId(user);
+        if (ledgerEngine.isEnabled()) {
+            return fromLedger(ledgerEngine.withdraw(accountId, amount, description));
+        }
+        if (journalLedger.isEnabled()) {
+            return fromLedger(journalLedger.withdraw(accountId, amount, description));
+        }
+        return write(accountId, () -> recordWithdrawal(accountId, amount, description));
+    }
+    
+    private TransactionResponse write(Long accountId, Supplier<TransactionResponse> operation) {
+        // With group commit the operation shares a transaction with other callers' writes
+        if (groupCommitExecutor.isEnabled()) {
+            return groupCommitExecutor.submit(accountId, operation);
+        }
+        return transactionTemplate.execute(status -> operation.get());
+    }
+    
+    private TransactionResponse recordDeposit(Long accountId, BigDecimal amount, String description) {
+        // Update balance in a single statement
+        BigDecimal newBalance = accountService.credit(accountId, amount)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+        balanceChanged(accountId, newBalance);
         
         // Create transaction record
         Transaction transaction = new Transaction();
-        transaction.setAccountId(account.getId());
+        transaction.setAccountId(accountId);
         transaction.setType(TransactionType.DEPOSIT);
         transaction.setAmount(amount);
+        transaction.setBalanceAfter(newBalance);
         transaction.setDescription(description);
         transaction.setTimestamp(LocalDateTime.now());
         
         Transaction savedTransaction = transactionRepository.save(transaction);
+        outboxRepository.append(List.of(savedTransaction));
         
         return mapToResponse(savedTransaction, newBalance);
     }
     
-    @Transactional
-    public TransactionResponse withdraw(User user, BigDecimal amount, String description) {
-        Account account = accountService.getUserAccount(user);
-        
-        // Check sufficient balance
-        if (!accountService.hasSufficientBalance(account.getId(), amount)) {
-            throw new InsufficientFundsException("Insufficient balance for withdrawal");
-        }
-        
-        // Update balance
-        BigDecimal newBalance = account.getBalance().subtract(amount);
-        accountService.updateBalance(account.getId(), newBalance);
+    private TransactionResponse recordWithdrawal(Long accountId, BigDecimal amount, String description) {
+        // Check sufficient balance and update it in a single conditional statement
+        BigDecimal newBalance = accountService.debit(accountId, amount)
+                .orElseThrow(() -> new InsufficientFundsException("Insufficient balance for withdrawal"));
+        balanceChanged(accountId, newBalance);
         
         // Create transaction record
         Transaction transaction = new Transaction();
-        transaction.setAccountId(account.getId());
+        transaction.setAccountId(accountId);
         transaction.setType(TransactionType.WITHDRAWAL);
         transaction.setAmount(amount);
+        transaction.setBalanceAfter(newBalance);
         transaction.setDescription(description);
         transaction.setTimestamp(LocalDateTime.now());
         
         Transaction savedTransaction = transactionRepository.save(transaction);
+        outboxRepository.append(List.of(savedTransaction));
         
         return mapToResponse(savedTransaction, newBalance);
     }
     
-    @Transactional
     public TransactionResponse transfer(User user, Long targetAccountId, BigDecimal amount, String description) {
-        Account sourceAccount = accountService.getUserAccount(user);
-        Account targetAccount = accountService.findById(targetAccountId);
+        if (ledgerEngine.isEnabled() || journalLedger.isEnabled()) {
+            Long sourceAccountId = accountService.getUserAccountId(user);
+            if (sourceAccountId.equals(targetAccountId)) {
+                throw new InvalidTransferException("Cannot transfer to the same account");
+            }
+            return fromLedger(ledgerEngine.isEnabled()
+                    ? ledgerEngine.transfer(sourceAccountId, targetAccountId, amount, description)
+                    : journalLedger.transfer(sourceAccountId, targetAccountId, amount, description));
+        }
+        
+        // Each attempt runs in its own transaction so deadlock and version conflicts can be retried
+        return retryExecutor.execute(() -> transactionTemplate.execute(status ->
+                doTransfer(user, targetAccountId, amount, description)));
+    }
+    
+    private TransactionResponse doTransfer(User user, Long targetAccountId, BigDecimal amount, String description) {
+        Long sourceAccountId = accountService.getUserAccountId(user);
         
         // Validation
-        if (sourceAccount.getId().equals(targetAccountId)) {
+        if (sourceAccountId.equals(targetAccountId)) {
             throw new InvalidTransferException("Cannot transfer to the same account");
         }
         
-        if (!accountService.hasSufficientBalance(sourceAccount.getId(), amount)) {
-            throw new InsufficientFundsException("Insufficient balance for transfer");
-        }
-        
         // Update balances
-        BigDecimal sourceNewBalance = sourceAccount.getBalance().subtract(amount);
-        BigDecimal targetNewBalance = targetAccount.getBalance().add(amount);
-        
-        accountService.updateBalance(sourceAccount.getId(), sourceNewBalance);
-        accountService.updateBalance(targetAccount.getId(), targetNewBalance);
+        TransferBalances balances = switch (lockMode) {
+            case PESSIMISTIC -> transferWithRowLocks(sourceAccountId, targetAccountId, amount);
+            case OPTIMISTIC -> transferWithVersionCheck(sourceAccountId, targetAccountId, amount);
+            default -> transferAtomically(sourceAccountId, targetAccountId, amount);
+        };
+        balanceChanged(sourceAccountId, balances.source());
+        balanceChanged(targetAccountId, balances.target());
         
         // Create outgoing transaction
         Transaction outgoingTransaction = new Transaction();
-        outgoingTransaction.setAccountId(sourceAccount.getId());
+        outgoingTransaction.setAccountId(sourceAccountId);
         outgoingTransaction.setType(TransactionType.TRANSFER_OUT);
         outgoingTransaction.setAmount(amount);
+        outgoingTransaction.setBalanceAfter(balances.source());
         outgoingTransaction.setTargetAccountId(targetAccountId);
         outgoingTransaction.setDescription(description);
         outgoingTransaction.setTimestamp(LocalDateTime.now());
         
         // Create incoming transaction
         Transaction incomingTransaction = new Transaction();
-        incomingTransaction.setAccountId(targetAccount.getId());
+        incomingTransaction.setAccountId(targetAccountId);
         incomingTransaction.setType(TransactionType.TRANSFER_IN);
         incomingTransaction.setAmount(amount);
-        incomingTransaction.setTargetAccountId(sourceAccount.getId());
+        incomingTransaction.setBalanceAfter(balances.target());
+        incomingTransaction.setTargetAccountId(sourceAccountId);
         incomingTransaction.setDescription(description);
         incomingTransaction.setTimestamp(LocalDateTime.now());
         
         Transaction savedOutgoingTransaction = transactionRepository.save(outgoingTransaction);
-        transactionRepository.save(incomingTransaction);
+        Transaction savedIncomingTransaction = transactionRepository.save(incomingTransaction);
+        outboxRepository.append(List.of(savedOutgoingTransaction, savedIncomingTransaction));
         
-        return mapToResponse(savedOutgoingTransaction, sourceNewBalance);
+        return mapToResponse(savedOutgoingTransaction, balances.source());
+    }
+    
+    private TransferBalances transferAtomically(Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        // Touch rows in ascending id order so opposite transfers cannot deadlock
+        if (sourceAccountId < targetAccountId) {
+            BigDecimal sourceNewBalance = debitForTransfer(sourceAccountId, amount);
+            return new TransferBalances(sourceNewBalance, creditForTransfer(targetAccountId, amount));
+        }
+        BigDecimal targetNewBalance = creditForTransfer(targetAccountId, amount);
+        return new TransferBalances(debitForTransfer(sourceAccountId, amount), targetNewBalance);
     }
     
-    public List<TransactionResponse> getTransactionHistory(User user) {
-        Account account = accountService.getUserAccount(user);
-        List<Transaction> transactions = transactionRepository
-                .findByAccountIdOrderByTimestampDesc(account.getId());
+    private TransferBalances transferWithRowLocks(Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        // Lock rows in ascending id order so opposite transfers cannot deadlock
+        Account first = accountService.lockForUpdate(Math.min(sourceAccountId, targetAccountId));
+        Account second = accountService.lockForUpdate(Math.max(sourceAccountId, targetAccountId));
+        Account source = first.getId().equals(sourceAccountId) ? first : second;
+        Account target = source == first ? second : first;
         
-        BigDecimal currentBalance = account.getBalance();
-        List<TransactionResponse> responses = new ArrayList<>();
+        if (source.getBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException("Insufficient balance for transfer");
+        }
+        
+        // Locked entities are managed; the changes are flushed on commit
+        source.setBalance(source.getBalance().subtract(amount));
+        target.setBalance(target.getBalance().add(amount));
+        return new TransferBalances(source.getBalance(), target.getBalance());
+    }
+    
+    private TransferBalances transferWithVersionCheck(Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        Account source = accountService.findById(sourceAccountId);
+        Account target = accountService.findById(targetAccountId);
+        
+        if (source.getBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException("Insufficient balance for transfer");
+        }
+        
+        // A concurrent change to either row fails the @Version check on flush and is retried
+        BigDecimal sourceNewBalance = source.getBalance().subtract(amount);
+        BigDecimal targetNewBalance = target.getBalance().add(amount);
+        accountService.updateBalance(source.getId(), sourceNewBalance);
+        accountService.updateBalance(target.getId(), targetNewBalance);
+        return new TransferBalances(sourceNewBalance, targetNewBalance);
+    }
+    
+    private void balanceChanged(Long accountId, BigDecimal balance) {
+        // This node caches the new balance on commit; the other nodes drop theirs
+        balanceCache.writeThrough(accountId, balance);
+        cacheInvalidator.balanceChanged(accountId);
+    }
+    
+    private BigDecimal debitForTransfer(Long accountId, BigDecimal amount) {
+        return accountService.debit(accountId, amount)
+                .orElseThrow(() -> new InsufficientFundsException("Insufficient balance for transfer"));
+    }
+    
+    private BigDecimal creditForTransfer(Long accountId, BigDecimal amount) {
+        return accountService.credit(accountId, amount)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+    }
+    
+    @Transactional(readOnly = true)
+    public TransactionHistoryResponse getTransactionHistory(User user, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultHistoryLimit : Math.max(1, Math.min(limit, maxHistoryLimit));
+        // Fetch one extra row to find out whether an older page exists
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        Long accountId = accountService.getUserAccountId(user);
+        boolean firstPage = cursor == null || cursor.isBlank();
+        HistoryCursor position = firstPage ? null : HistoryCursor.decode(cursor);
+        
+        List<Transaction> transactions = findLivePage(accountId, position, fetchLimit);
+        if (transactions.size() < fetchLimit.max()) {
+            // Older rows may have been moved to the archive; continue after the last row found
+            if (!transactions.isEmpty()) {
+                Transaction last = transactions.get(transactions.size() - 1);
+                position = new HistoryCursor(last.getTimestamp(), last.getId());
+            }
+            List<Transaction> archived = transactionArchive.findPageBefore(accountId,
+                    position == null ? null : position.timestamp(), position == null ? null : position.id(),
+                    fetchLimit.max() - transactions.size());
+            if (!archived.isEmpty()) {
+                transactions = new ArrayList<>(transactions);
+                transactions.addAll(archived);
+            }
+        }
         
-        for (int i = 0; i < transactions.size(); i++) {
-            Transaction transaction = transactions.get(i);
-            // Show current balance only for the most recent transaction
-            // For historical transactions, balanceAfter represents what the balance was after that transaction
-            BigDecimal balanceAfter = (i == 0) ? currentBalance : null;
+        boolean hasMore = transactions.size() > pageSize;
+        List<Transaction> page = hasMore ? transactions.subList(0, pageSize) : transactions;
+        List<TransactionResponse> responses = new ArrayList<>(page.size());
+        
+        for (int i = 0; i < page.size(); i++) {
+            Transaction transaction = page.get(i);
+            BigDecimal balanceAfter = transaction.getBalanceAfter();
+            if (balanceAfter == null && firstPage && i == 0) {
+                // Row predates balance_after and has not been backfilled yet; the current balance still applies
+                balanceAfter = accountService.findById(accountId).getBalance();
+            }
             responses.add(mapToResponse(transaction, balanceAfter));
         }
         
-        return responses;
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = new HistoryCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return new TransactionHistoryResponse(responses, nextCursor);
     }
     
-    private TransactionResponse mapToResponse(Transaction transaction, BigDecimal balanceAfter) {
+    private List<Transaction> findLivePage(Long accountId, HistoryCursor position, Limit fetchLimit) {
+        if (!partitionManager.isPartitioned()) {
+            return position == null
+                    ? transactionRepository.findByAccountIdOrderByTimestampDescIdDesc(accountId, fetchLimit)
+                    : transactionRepository.findPageBefore(accountId, position.timestamp(), position.id(), fetchLimit);
+        }
+        
+        // Read the partition holding the position first; only a short page reaches older partitions
+        LocalDateTime partitionStart = YearMonth.from(position == null ? LocalDateTime.now() : position.timestamp())
+                .atDay(1).atStartOfDay();
+        List<Transaction> transactions = position == null
+                ? transactionRepository.findLatestSince(accountId, partitionStart, fetchLimit)
+                : transactionRepository.findPageBeforeSince(accountId, partitionStart, position.timestamp(), position.id(), fetchLimit);
+        if (transactions.size() < fetchLimit.max()) {
+            transactions = new ArrayList<>(transactions);
+            transactions.addAll(transactionRepository.findLatestBefore(
+                    accountId, partitionStart, Limit.of(fetchLimit.max() - transactions.size())));
+        }
+        return transactions;
+    }
+    
+    private static TransactionResponse fromLedger(Transaction transaction) {
+        return mapToResponse(transaction, transaction.getBalanceAfter());
+    }
+    
+    static TransactionResponse mapToResponse(Transaction transaction, BigDecimal balanceAfter) {
         return new TransactionResponse(
                 transaction.getId(),
                 transaction.getType(),
@@ -146,4 +330,7 @@ public class TransactionService {
                 balanceAfter
         );
     }
+    
+    private record TransferBalances(BigDecimal source, BigDecimal target) {
+    }
 }
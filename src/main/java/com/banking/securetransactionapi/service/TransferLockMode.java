@@ -0,0 +1,14 @@
+package com.banking.securetransactionapi.service;
+
+/**
+ * Concurrency control used by {@link TransactionService#transfer}, selected with
+ * {@code banking.transfer.lock-mode}.
+ */
+public enum TransferLockMode {
+    /** Conditional single-statement updates, applied in ascending account id order. */
+    ATOMIC,
+    /** {@code PESSIMISTIC_WRITE} locks on both accounts, acquired in ascending account id order. */
+    PESSIMISTIC,
+    /** Plain reads with {@code @Version} checks on flush; conflicts are retried. */
+    OPTIMISTIC
+}
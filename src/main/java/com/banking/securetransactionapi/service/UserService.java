@@ -1,7 +1,10 @@
 package com.banking.securetransactionapi.service;
 
 import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.invalidation.CacheInvalidator;
+import com.banking.securetransactionapi.repository.AccountRepository;
 import com.banking.securetransactionapi.repository.UserRepository;
+import com.banking.securetransactionapi.util.ExpiringLruCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Primary;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,16 +18,25 @@ import org.springframework.stereotype.Service;
 public class UserService implements UserDetailsService {
     
     private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final ExpiringLruCache<String, User> principalCache;
+    private final CacheInvalidator cacheInvalidator;
     
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return findByUsername(username);
     }
     
+    /**
+     * The user with their account id resolved, so services can address the account by id.
+     */
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return principalCache.getOrLoad(username, name -> {
+            User user = userRepository.findByUsername(name)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + name));
+            accountRepository.findIdByUserId(user.getId()).ifPresent(user::setAccountId);
+            return user;
+        });
     }
     
     public boolean existsByUsername(String username) {
@@ -32,6 +44,9 @@ public class UserService implements UserDetailsService {
     }
     
     public User save(User user) {
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getUsername());
+        cacheInvalidator.userChanged(savedUser.getUsername());
+        return savedUser;
     }
 }
@@ -0,0 +1,127 @@
+package com.banking.securetransactionapi.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, least-recently-used cache whose entries expire after a fixed time to live.
+ * Values are loaded outside the lock; a value loaded while an invalidation happened is
+ * returned to the caller but not cached, so an invalidated entry is never resurrected.
+ */
+public class ExpiringLruCache<K, V> {
+    
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    
+    private long invalidationGeneration;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    
+    public ExpiringLruCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+    
+    public ExpiringLruCache(int maxSize, Duration ttl, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+    
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (entry.expiresAt <= clock.millis()) {
+            entries.remove(key);
+            evictionCount++;
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value;
+    }
+    
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        long generation;
+        synchronized (this) {
+            V cached = get(key);
+            if (cached != null) {
+                return cached;
+            }
+            generation = invalidationGeneration;
+        }
+        
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            synchronized (this) {
+                if (generation == invalidationGeneration) {
+                    put(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+    
+    public void put(K key, V value) {
+        put(key, value, ttlMillis);
+    }
+    
+    public synchronized void put(K key, V value, long ttlMillis) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, clock.millis() + ttlMillis));
+        evictOverflow();
+    }
+    
+    public synchronized void invalidate(K key) {
+        invalidationGeneration++;
+        entries.remove(key);
+    }
+    
+    public synchronized void invalidateAll() {
+        invalidationGeneration++;
+        entries.clear();
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+    
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+    
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+    
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+    
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
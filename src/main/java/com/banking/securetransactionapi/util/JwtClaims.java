@@ -0,0 +1,28 @@
+package com.banking.securetransactionapi.util;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a token whose signature has already been verified. The user id, account id and
+ * role are absent from tokens issued before they were embedded.
+ */
+@Value
+public class JwtClaims {
+    String subject;
+    Instant expiresAt;
+    List<String> authorities;
+    Long userId;
+    Long accountId;
+    String role;
+    
+    public boolean hasPrincipalDetails() {
+        return userId != null && accountId != null && role != null;
+    }
+    
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
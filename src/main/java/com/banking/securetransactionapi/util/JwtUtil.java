@@ -1,58 +1,138 @@
 package com.banking.securetransactionapi.util;
 
+import com.banking.securetransactionapi.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
     
+    private static final String AUTHORITIES_CLAIM = "authorities";
+    private static final String USER_ID_CLAIM = "userId";
+    private static final String ACCOUNT_ID_CLAIM = "accountId";
+    private static final String ROLE_CLAIM = "role";
+    
     @Value("${jwt.secret}")
     private String secret;
     
     @Value("${jwt.expiration}")
     private Long expiration;
     
+    @Value("${jwt.verified-token-cache.max-size:10000}")
+    private int verifiedTokenCacheMaxSize = 10000;
+    
+    // Built lazily from the injected secret; both are immutable and thread-safe once built
+    private volatile Key signingKey;
+    private volatile JwtParser parser;
+    private volatile ExpiringLruCache<String, JwtClaims> verifiedTokens;
+    
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        Key key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes());
+            signingKey = key;
+        }
+        return key;
+    }
+    
+    private JwtParser getParser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+            parser = jwtParser;
+        }
+        return jwtParser;
+    }
+    
+    /**
+     * Verifies the token signature and expiry once and returns its claims. Tokens seen before are
+     * answered from a cache keyed by the token's SHA-256 hash until they expire.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public JwtClaims validate(String token) {
+        ExpiringLruCache<String, JwtClaims> cache = getVerifiedTokenCache();
+        String cacheKey = cache != null ? hash(token) : null;
+        
+        if (cache != null) {
+            JwtClaims cached = cache.get(cacheKey);
+            if (cached != null && !cached.isExpired()) {
+                return cached;
+            }
+        }
+        
+        JwtClaims claims = toJwtClaims(extractAllClaims(token));
+        if (cache != null) {
+            long ttlMillis = claims.getExpiresAt().toEpochMilli() - System.currentTimeMillis();
+            cache.put(cacheKey, claims, ttlMillis);
+        }
+        return claims;
     }
     
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return validate(token).getSubject();
     }
     
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return Date.from(validate(token).getExpiresAt());
     }
     
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Reads a value from the token's verified claims; goes through {@link #validate} like every
+     * other accessor, so it never trusts an unverified or expired token.
+     */
+    public <T> T extractClaim(String token, Function<JwtClaims, T> claimsResolver) {
+        return claimsResolver.apply(validate(token));
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String generateToken(UserDetails userDetails) {
+        return createToken(authorityClaims(userDetails), userDetails.getUsername());
     }
     
-    public String generateToken(UserDetails userDetails) {
+    /**
+     * Issues a self-contained token that also carries the user id, account id and role, so the
+     * authentication filter can build the principal without loading the user.
+     */
+    public String generateToken(User user, Long accountId) {
+        Map<String, Object> claims = authorityClaims(user);
+        claims.put(USER_ID_CLAIM, user.getId());
+        claims.put(ROLE_CLAIM, user.getRole().name());
+        if (accountId != null) {
+            claims.put(ACCOUNT_ID_CLAIM, accountId);
+        }
+        return createToken(claims, user.getUsername());
+    }
+    
+    private Map<String, Object> authorityClaims(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        claims.put(AUTHORITIES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        return claims;
     }
     
     private String createToken(Map<String, Object> claims, String subject) {
@@ -66,7 +146,53 @@ public class JwtUtil {
     }
     
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(validate(token), userDetails);
+    }
+    
+    public boolean validateToken(JwtClaims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.isExpired();
+    }
+    
+    private JwtClaims toJwtClaims(Claims claims) {
+        List<?> authorities = claims.get(AUTHORITIES_CLAIM, List.class);
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.getExpiration().toInstant(),
+                authorities == null ? List.of() : authorities.stream().map(String::valueOf).toList(),
+                toLong(claims.get(USER_ID_CLAIM)),
+                toLong(claims.get(ACCOUNT_ID_CLAIM)),
+                claims.get(ROLE_CLAIM, String.class)
+        );
+    }
+    
+    private static Long toLong(Object claim) {
+        // JSON numbers come back as Integer or Long depending on their size
+        return claim instanceof Number number ? number.longValue() : null;
+    }
+    
+    private ExpiringLruCache<String, JwtClaims> getVerifiedTokenCache() {
+        if (verifiedTokenCacheMaxSize <= 0) {
+            return null;
+        }
+        ExpiringLruCache<String, JwtClaims> cache = verifiedTokens;
+        if (cache == null) {
+            synchronized (this) {
+                cache = verifiedTokens;
+                if (cache == null) {
+                    cache = new ExpiringLruCache<>(verifiedTokenCacheMaxSize, Duration.ofMillis(expiration));
+                    verifiedTokens = cache;
+                }
+            }
+        }
+        return cache;
+    }
+    
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
     }
 }
@@ -0,0 +1,77 @@
+package com.banking.securetransactionapi.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of cents. Arithmetic is plain {@code long} math that
+ * throws {@link ArithmeticException} on overflow instead of wrapping.
+ * <p>
+ * Used where balances are folded in memory; {@link BigDecimal} stays at the JSON and column
+ * boundaries. Amounts with more than two decimals are rounded half up, as the
+ * {@code NUMERIC(19, 2)} columns do.
+ */
+public final class Money implements Comparable<Money> {
+    
+    public static final Money ZERO = new Money(0);
+    
+    private static final int SCALE = 2;
+    
+    private final long cents;
+    
+    private Money(long cents) {
+        this.cents = cents;
+    }
+    
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+    
+    public static Money of(BigDecimal amount) {
+        return ofCents(amount.setScale(SCALE, RoundingMode.HALF_UP).movePointRight(SCALE).longValueExact());
+    }
+    
+    public long cents() {
+        return cents;
+    }
+    
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+    
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+    
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+    
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+    
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+    
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money money && money.cents == cents;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+    
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.banking.securetransactionapi.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free multi-producer single-consumer ring buffer.
+ * <p>
+ * Producers claim a slot by advancing {@code tail} with a CAS and then publish the element into
+ * it; the single consumer reads slots in order and treats an empty slot as "not yet published".
+ * Capacity is rounded up to a power of two so the slot index is a mask of the sequence.
+ */
+public class MpscRingBuffer<E> {
+    
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Written only by the consumer; producers read it to detect a full buffer
+    private final AtomicLong head = new AtomicLong();
+    
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+    
+    /**
+     * Appends {@code element}, or returns {@code false} without blocking if the buffer is full.
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        while (true) {
+            long sequence = tail.get();
+            if (sequence - head.get() > mask) {
+                return false;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                slots.lazySet((int) sequence & mask, element);
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Removes the oldest published element, or returns {@code null} if there is none. Must only
+     * be called from the consumer thread.
+     */
+    public E poll() {
+        long sequence = head.get();
+        int index = (int) sequence & mask;
+        E element = slots.get(index);
+        if (element == null) {
+            // Empty, or a producer has claimed the slot but not yet published into it
+            return null;
+        }
+        slots.lazySet(index, null);
+        head.lazySet(sequence + 1);
+        return element;
+    }
+    
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+    
+    public int capacity() {
+        return mask + 1;
+    }
+}
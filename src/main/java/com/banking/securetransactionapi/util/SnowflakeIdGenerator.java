@@ -0,0 +1,63 @@
+package com.banking.securetransactionapi.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, time-ordered 64-bit id generator in the style of Snowflake:
+ * {@code [41 bits ms since 2024-01-01][4 bits node][8 bits sequence]}.
+ * <p>
+ * The layout is narrower than Twitter's so ids stay below 2^53 and JSON clients that parse
+ * numbers as doubles read them exactly. That leaves 256 ids per millisecond per node; when a
+ * millisecond runs out, or the wall clock steps backwards, the generator borrows the next
+ * millisecond instead of blocking, so ids are strictly increasing per generator.
+ */
+public class SnowflakeIdGenerator {
+    
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    public static final int NODE_BITS = 4;
+    public static final int SEQUENCE_BITS = 8;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    
+    private final long nodeId;
+    private final Clock clock;
+    // (timestamp << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong lastState = new AtomicLong();
+    
+    public SnowflakeIdGenerator(long nodeId) {
+        this(nodeId, Clock.systemUTC());
+    }
+    
+    public SnowflakeIdGenerator(long nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+    
+    public long nextId() {
+        while (true) {
+            long last = lastState.get();
+            long now = clock.millis() - EPOCH_MILLIS;
+            // Incrementing an exhausted sequence carries into the timestamp bits
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << TIMESTAMP_SHIFT) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+    
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS);
+    }
+    
+    public static long nodeIdOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
@@ -0,0 +1,33 @@
+-- The schema Hibernate created with ddl-auto=update before migrations were introduced. Existing
+-- databases are baselined at this version and receive V2 onwards; everything added since lives in
+-- those later migrations. Hibernate named the constraints with generated hashes, so no later
+-- migration refers to a constraint of these tables by name.
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) CHECK (role IN ('ROLE_USER', 'ROLE_ADMIN')),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE accounts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    balance NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_accounts_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE transactions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    account_id BIGINT NOT NULL,
+    type VARCHAR(255) CHECK (type IN ('DEPOSIT', 'WITHDRAWAL', 'TRANSFER_OUT', 'TRANSFER_IN')),
+    amount NUMERIC(19, 2) NOT NULL,
+    target_account_id BIGINT,
+    description VARCHAR(255),
+    timestamp TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_transactions_account FOREIGN KEY (account_id) REFERENCES accounts (id)
+);
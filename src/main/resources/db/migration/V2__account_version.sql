@@ -0,0 +1,2 @@
+-- Optimistic locking version for the JPA write path
+ALTER TABLE accounts ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,3 @@
+-- Running balance after each posting; rows written before this column existed are filled in by
+-- BalanceAfterBackfillJob
+ALTER TABLE transactions ADD COLUMN balance_after NUMERIC(19, 2);
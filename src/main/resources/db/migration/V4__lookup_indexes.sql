@@ -0,0 +1,5 @@
+-- Every login and every request resolves the caller's account by user id; each user owns one account
+CREATE UNIQUE INDEX uk_accounts_user_id ON accounts (user_id);
+
+-- History pages are keyset reads of one account, newest first
+CREATE INDEX idx_transactions_account_timestamp_id ON transactions (account_id, timestamp DESC, id DESC);
@@ -0,0 +1,15 @@
+CREATE TABLE journal_legs (
+    id BIGINT NOT NULL,
+    journal_id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL,
+    type VARCHAR(255) CHECK (type IN ('DEPOSIT', 'WITHDRAWAL', 'TRANSFER_OUT', 'TRANSFER_IN')),
+    counterparty_account_id BIGINT,
+    description VARCHAR(255),
+    timestamp TIMESTAMP(6) NOT NULL,
+    projected BOOLEAN NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_journal_legs_account_projected ON journal_legs (account_id, projected);
+CREATE INDEX idx_journal_legs_projected_timestamp ON journal_legs (projected, timestamp);
@@ -0,0 +1,9 @@
+CREATE TABLE balance_snapshots (
+    id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    snapshot_date DATE NOT NULL,
+    balance NUMERIC(19, 2) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_balance_snapshots_account_date UNIQUE (account_id, snapshot_date)
+);
@@ -0,0 +1,12 @@
+CREATE TABLE outbox_events (
+    id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    type VARCHAR(255) NOT NULL CHECK (type IN ('DEPOSIT', 'WITHDRAWAL', 'TRANSFER_OUT', 'TRANSFER_IN')),
+    amount NUMERIC(19, 2) NOT NULL,
+    counterparty_account_id BIGINT,
+    balance_after NUMERIC(19, 2),
+    description VARCHAR(255),
+    occurred_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
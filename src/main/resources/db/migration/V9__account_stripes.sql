@@ -0,0 +1,6 @@
+CREATE TABLE account_stripes (
+    account_id BIGINT NOT NULL,
+    stripe INTEGER NOT NULL,
+    balance NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (account_id, stripe)
+);
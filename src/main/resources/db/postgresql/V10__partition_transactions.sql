@@ -0,0 +1,35 @@
+-- Partitions transactions by month on timestamp (PostgreSQL only; see spring.flyway.locations).
+-- An existing table is converted in place and its rows are copied, so apply this upgrade in a
+-- maintenance window. The primary key becomes (id, timestamp) because PostgreSQL requires the
+-- partition key in unique constraints; ids stay unique as they are Snowflake ids. Months after
+-- the first three are created ahead of time by TransactionPartitionManager.
+
+LOCK TABLE transactions IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER TABLE transactions_unpartitioned RENAME CONSTRAINT transactions_pkey TO transactions_unpartitioned_pkey;
+ALTER INDEX IF EXISTS idx_transactions_account_timestamp_id RENAME TO idx_transactions_unpartitioned_account_timestamp_id;
+
+-- LIKE copies neither the primary key, the foreign key nor the indexes
+CREATE TABLE transactions (LIKE transactions_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (timestamp);
+ALTER TABLE transactions ADD CONSTRAINT transactions_pkey PRIMARY KEY (id, timestamp);
+ALTER TABLE transactions ADD CONSTRAINT fk_transactions_account FOREIGN KEY (account_id) REFERENCES accounts (id);
+CREATE INDEX idx_transactions_account_timestamp_id ON transactions (account_id, timestamp DESC, id DESC);
+
+-- One partition per month from the oldest row to three months ahead, named transactions_pYYYY_MM
+DO $$
+DECLARE
+    partition_start DATE := date_trunc('month', COALESCE((SELECT MIN(timestamp) FROM transactions_unpartitioned), LOCALTIMESTAMP));
+    last_start DATE := date_trunc('month', LOCALTIMESTAMP + INTERVAL '3 months');
+BEGIN
+    WHILE partition_start <= last_start LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                'transactions_p' || to_char(partition_start, 'YYYY_MM'),
+                partition_start, (partition_start + INTERVAL '1 month')::date);
+        partition_start := partition_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO transactions SELECT * FROM transactions_unpartitioned;
+DROP TABLE transactions_unpartitioned;
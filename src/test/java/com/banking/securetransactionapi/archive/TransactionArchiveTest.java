@@ -0,0 +1,108 @@
+package com.banking.securetransactionapi.archive;
+
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionArchiveTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2023, 3);
+    private static final YearMonth APRIL = YearMonth.of(2023, 4);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findPageBefore_ShouldReturnAccountRowsNewestFirstAcrossBlocksAndMonths() throws IOException {
+        // Arrange
+        TransactionArchive archive = new TransactionArchive(directory, 2);
+        writeMonth(archive, MARCH, row(1L, 10L, MARCH.atDay(20).atTime(9, 0), "Rent", 20L),
+                row(2L, 10L, MARCH.atDay(5).atTime(9, 0), null, null),
+                row(3L, 10L, MARCH.atDay(1).atTime(9, 0), "Salary", null),
+                row(4L, 11L, MARCH.atDay(2).atTime(9, 0), null, null));
+        writeMonth(archive, APRIL, row(5L, 10L, APRIL.atDay(3).atTime(9, 0), "Groceries", null));
+
+        // Act
+        List<Transaction> firstPage = archive.findPageBefore(10L, null, null, 3);
+        Transaction last = firstPage.get(firstPage.size() - 1);
+        List<Transaction> secondPage = archive.findPageBefore(10L, last.getTimestamp(), last.getId(), 3);
+
+        // Assert
+        assertEquals(List.of(5L, 1L, 2L), firstPage.stream().map(Transaction::getId).toList());
+        assertEquals(List.of(3L), secondPage.stream().map(Transaction::getId).toList());
+        Transaction rent = firstPage.get(1);
+        assertEquals(TransactionType.TRANSFER_OUT, rent.getType());
+        assertEquals(new BigDecimal("12.50"), rent.getAmount());
+        assertEquals(20L, rent.getTargetAccountId());
+        assertEquals("Rent", rent.getDescription());
+        assertEquals(MARCH.atDay(20).atTime(9, 0), rent.getTimestamp());
+        assertNull(firstPage.get(2).getDescription());
+        assertTrue(archive.findPageBefore(99L, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void refresh_ShouldPickUpMonthsWrittenByAnotherInstance() throws IOException {
+        // Arrange
+        writeMonth(new TransactionArchive(directory, 1024), MARCH, row(1L, 10L, MARCH.atDay(1).atTime(9, 0), null, null));
+        TransactionArchive reader = new TransactionArchive(directory, 1024);
+        writeMonth(new TransactionArchive(directory, 1024), APRIL, row(2L, 10L, APRIL.atDay(1).atTime(9, 0), null, null));
+
+        // Act
+        reader.refresh();
+
+        // Assert
+        assertTrue(reader.contains(APRIL));
+        assertEquals(List.of(2L, 1L), reader.findPageBefore(10L, null, null, 10).stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void openWriter_WhenNotCommitted_ShouldLeaveNoArchive() throws IOException {
+        // Arrange
+        TransactionArchive archive = new TransactionArchive(directory, 1024);
+
+        // Act
+        try (ArchiveWriter writer = archive.openWriter(MARCH)) {
+            writer.append(row(1L, 10L, MARCH.atDay(1).atTime(9, 0), null, null));
+        }
+
+        // Assert
+        assertFalse(archive.contains(MARCH));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static void writeMonth(TransactionArchive archive, YearMonth month, Transaction... rows) throws IOException {
+        try (ArchiveWriter writer = archive.openWriter(month)) {
+            for (Transaction row : rows) {
+                writer.append(row);
+            }
+            writer.commit();
+        }
+    }
+
+    private static Transaction row(Long id, Long accountId, LocalDateTime timestamp, String description, Long targetAccountId) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setAccountId(accountId);
+        transaction.setType(targetAccountId == null ? TransactionType.DEPOSIT : TransactionType.TRANSFER_OUT);
+        transaction.setAmount(new BigDecimal("12.50"));
+        transaction.setTargetAccountId(targetAccountId);
+        transaction.setBalanceAfter(new BigDecimal("100.00"));
+        transaction.setDescription(description);
+        transaction.setTimestamp(timestamp);
+        return transaction;
+    }
+}
@@ -0,0 +1,119 @@
+package com.banking.securetransactionapi.config;
+
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.util.JwtUtil;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "testSecretKey123456789012345678901234567890123456789012345678901234567890");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setPassword("password");
+        testUser.setRole(Role.ROLE_USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_WithClaimsPrincipalEnabled_ShouldNotLoadUser() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "claimsPrincipalEnabled", true);
+        MockHttpServletRequest request = bearerRequest(jwtUtil.generateToken(testUser, 42L));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User principal = (User) authentication.getPrincipal();
+        assertEquals(1L, principal.getId());
+        assertEquals("testuser", principal.getUsername());
+        assertEquals(42L, principal.getAccountId());
+        assertEquals(Role.ROLE_USER, principal.getRole());
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_WithClaimsPrincipalDisabled_ShouldLoadUser() throws Exception {
+        // Arrange
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(testUser);
+        MockHttpServletRequest request = bearerRequest(jwtUtil.generateToken(testUser, 42L));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertSame(testUser, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(userDetailsService).loadUserByUsername("testuser");
+    }
+
+    @Test
+    void doFilter_WithLegacyTokenAndClaimsPrincipalEnabled_ShouldFallBackToUserLookup() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "claimsPrincipalEnabled", true);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(testUser);
+        MockHttpServletRequest request = bearerRequest(jwtUtil.generateToken(testUser));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertSame(testUser, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+
+    @Test
+    void doFilter_WithoutBearerToken_ShouldLeaveRequestUnauthenticated() throws Exception {
+        // Act
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    private MockHttpServletRequest bearerRequest(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,88 @@
+package com.banking.securetransactionapi.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Applies the Flyway migrations to an empty database and lets Hibernate validate the entities
+ * against them, so a mapping change without a migration fails here. A database created by the
+ * former ddl-auto=update must end up with the same schema once baselined and migrated.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:schema-migration;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void migrations_ShouldCreateIndexesForHotLookups() {
+        // Act
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_schema = 'public'", String.class);
+        List<String> constraints = jdbcTemplate.queryForList(
+                "SELECT constraint_name FROM information_schema.table_constraints WHERE table_schema = 'public'",
+                String.class);
+
+        // Assert
+        assertTrue(indexes.contains("uk_accounts_user_id"));
+        assertTrue(constraints.contains("uk_users_username"));
+        assertTrue(indexes.contains("idx_transactions_account_timestamp_id"));
+    }
+
+    @Test
+    void migrations_OnDatabaseBaselinedFromHibernateSchema_ShouldMatchFreshSchema() {
+        // Arrange
+        DriverManagerDataSource baselined = new DriverManagerDataSource(
+                "jdbc:h2:mem:schema-baselined;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/hibernate-baseline.sql")).execute(baselined);
+        JdbcTemplate baselinedJdbc = new JdbcTemplate(baselined);
+
+        // Act
+        Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .dataSource(baselined)
+                .load()
+                .migrate();
+
+        // Assert
+        assertEquals(columns(jdbcTemplate), columns(baselinedJdbc));
+        assertEquals(indexes(jdbcTemplate).stream().filter(name -> name.startsWith("idx_")).toList(),
+                indexes(baselinedJdbc).stream().filter(name -> name.startsWith("idx_")).toList());
+        assertTrue(indexes(baselinedJdbc).contains("uk_accounts_user_id"));
+        assertEquals(0L, baselinedJdbc.queryForObject("SELECT version FROM accounts", Long.class));
+        assertEquals("1", baselinedJdbc.queryForObject(
+                "SELECT version FROM flyway_schema_history WHERE type = 'BASELINE'", String.class));
+    }
+
+    private static List<String> columns(JdbcTemplate jdbc) {
+        return jdbc.queryForList(
+                "SELECT table_name || '.' || column_name || ' ' || data_type || ' ' || is_nullable " +
+                "FROM information_schema.columns WHERE table_schema = 'public' " +
+                "AND table_name <> 'flyway_schema_history' ORDER BY 1", String.class);
+    }
+
+    private static List<String> indexes(JdbcTemplate jdbc) {
+        return jdbc.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_schema = 'public' ORDER BY 1",
+                String.class);
+    }
+}
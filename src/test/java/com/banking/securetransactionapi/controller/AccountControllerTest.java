@@ -5,6 +5,7 @@ import com.banking.securetransactionapi.entity.Role;
 import com.banking.securetransactionapi.entity.User;
 import com.banking.securetransactionapi.exception.AccountNotFoundException;
 import com.banking.securetransactionapi.service.AccountService;
+import com.banking.securetransactionapi.service.BalanceSnapshotService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,8 +15,10 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -34,6 +37,9 @@ class AccountControllerTest {
     @MockitoBean
     private AccountService accountService;
 
+    @MockitoBean
+    private BalanceSnapshotService balanceSnapshotService;
+
     private User testUser;
     private Account testAccount;
 
@@ -67,6 +73,26 @@ class AccountControllerTest {
         verify(accountService).getUserAccount(any(User.class));
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void getBalance_WithAsOf_ShouldReturnPointInTimeBalance() throws Exception {
+        // Arrange
+        LocalDateTime asOf = LocalDateTime.of(2024, 3, 2, 9, 30);
+        when(accountService.getUserAccountId(any(User.class))).thenReturn(1L);
+        when(balanceSnapshotService.getBalanceAsOf(1L, asOf)).thenReturn(new BigDecimal("980.25"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/account/balance")
+                        .param("asOf", "2024-03-02T09:30:00")
+                        .with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId").value(1))
+                .andExpect(jsonPath("$.balance").value(980.25))
+                .andExpect(jsonPath("$.username").value("testuser"));
+
+        verify(balanceSnapshotService).getBalanceAsOf(eq(1L), eq(asOf));
+    }
+
     @Test
     void getBalance_WithoutAuthentication_ShouldReturnUnauthorized() throws Exception {
         // Act & Assert
@@ -23,6 +23,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -85,7 +86,7 @@ class AuthControllerTest {
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
         when(userService.save(any(User.class))).thenReturn(testUser);
         when(accountRepository.save(any(Account.class))).thenReturn(new Account());
-        when(jwtUtil.generateToken(testUser)).thenReturn("jwt-token");
+        when(jwtUtil.generateToken(eq(testUser), any())).thenReturn("jwt-token");
 
         // Act & Assert
         mockMvc.perform(post("/api/auth/register")
@@ -100,7 +101,7 @@ class AuthControllerTest {
         verify(passwordEncoder).encode("password123");
         verify(userService).save(any(User.class));
         verify(accountRepository).save(any(Account.class));
-        verify(jwtUtil).generateToken(testUser);
+        verify(jwtUtil).generateToken(eq(testUser), any());
     }
 
     @Test
@@ -145,7 +146,7 @@ class AuthControllerTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(null); // Successful authentication
         when(userService.findByUsername("testuser")).thenReturn(testUser);
-        when(jwtUtil.generateToken(testUser)).thenReturn("jwt-token");
+        when(jwtUtil.generateToken(eq(testUser), any())).thenReturn("jwt-token");
 
         // Act & Assert
         mockMvc.perform(post("/api/auth/login")
@@ -158,7 +159,7 @@ class AuthControllerTest {
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(userService).findByUsername("testuser");
-        verify(jwtUtil).generateToken(testUser);
+        verify(jwtUtil).generateToken(eq(testUser), any());
     }
 
     @Test
@@ -178,7 +179,7 @@ class AuthControllerTest {
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(userService, never()).findByUsername(anyString());
-        verify(jwtUtil, never()).generateToken(any(User.class));
+        verify(jwtUtil, never()).generateToken(any(User.class), any());
     }
 
     @Test
@@ -1,11 +1,18 @@
 package com.banking.securetransactionapi.controller;
 
+import com.banking.securetransactionapi.dto.TransactionHistoryResponse;
 import com.banking.securetransactionapi.dto.TransactionRequest;
 import com.banking.securetransactionapi.dto.TransactionResponse;
 import com.banking.securetransactionapi.dto.TransferRequest;
 import com.banking.securetransactionapi.entity.Role;
 import com.banking.securetransactionapi.entity.TransactionType;
 import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.exception.IdempotencyKeyException;
+import com.banking.securetransactionapi.exception.InvalidCursorException;
+import com.banking.securetransactionapi.service.BatchTransferService;
+import com.banking.securetransactionapi.service.ExportFormat;
+import com.banking.securetransactionapi.service.IdempotencyService;
+import com.banking.securetransactionapi.service.TransactionExportService;
 import com.banking.securetransactionapi.service.TransactionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,16 +22,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.List;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -42,6 +56,15 @@ class TransactionControllerTest {
     @MockitoBean
     private TransactionService transactionService;
 
+    @MockitoBean
+    private TransactionExportService transactionExportService;
+
+    @MockitoBean
+    private BatchTransferService batchTransferService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -62,6 +85,10 @@ class TransactionControllerTest {
         transactionResponse.setDescription("Test transaction");
         transactionResponse.setTimestamp(LocalDateTime.now());
         transactionResponse.setBalanceAfter(new BigDecimal("1100.00"));
+
+        // Requests without a stored key run straight through
+        when(idempotencyService.execute(any(User.class), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<TransactionResponse>>getArgument(4).get());
     }
     
     private Authentication createAuthentication(User user) {
@@ -207,20 +234,133 @@ class TransactionControllerTest {
         transaction2.setAmount(new BigDecimal("50.00"));
         transaction2.setTimestamp(LocalDateTime.now());
 
-        List<TransactionResponse> history = Arrays.asList(transaction1, transaction2);
-        when(transactionService.getTransactionHistory(any(User.class)))
+        TransactionHistoryResponse history = new TransactionHistoryResponse(
+                Arrays.asList(transaction1, transaction2), "next-page");
+        when(transactionService.getTransactionHistory(any(User.class), eq("cursor"), eq(2)))
                 .thenReturn(history);
 
         // Act & Assert
         mockMvc.perform(get("/api/transactions/history")
+                        .param("cursor", "cursor")
+                        .param("limit", "2")
                         .with(authentication(createAuthentication(testUser))))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].type").value("DEPOSIT"))
-                .andExpect(jsonPath("$[1].id").value(2))
-                .andExpect(jsonPath("$[1].type").value("WITHDRAWAL"));
+                .andExpect(jsonPath("$.transactions").isArray())
+                .andExpect(jsonPath("$.transactions.length()").value(2))
+                .andExpect(jsonPath("$.transactions[0].id").value(1))
+                .andExpect(jsonPath("$.transactions[0].type").value("DEPOSIT"))
+                .andExpect(jsonPath("$.transactions[1].id").value(2))
+                .andExpect(jsonPath("$.transactions[1].type").value("WITHDRAWAL"))
+                .andExpect(jsonPath("$.nextCursor").value("next-page"));
+    }
+
+    @Test
+    void getTransactionHistory_OnLastPage_ShouldReturnPageObjectWithoutCursor() throws Exception {
+        // Arrange
+        TransactionResponse transaction = new TransactionResponse();
+        transaction.setId(3L);
+        transaction.setType(TransactionType.DEPOSIT);
+        transaction.setAmount(new BigDecimal("10.00"));
+        transaction.setTimestamp(LocalDateTime.now());
+        when(transactionService.getTransactionHistory(any(User.class), isNull(), isNull()))
+                .thenReturn(new TransactionHistoryResponse(Arrays.asList(transaction), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/history")
+                        .with(authentication(createAuthentication(testUser))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isMap())
+                .andExpect(jsonPath("$.transactions.length()").value(1))
+                .andExpect(jsonPath("$.transactions[0].id").value(3))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getTransactionHistory_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(transactionService.getTransactionHistory(any(User.class), eq("bogus"), any()))
+                .thenThrow(new InvalidCursorException("Invalid history cursor"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/history")
+                        .param("cursor", "bogus")
+                        .with(authentication(createAuthentication(testUser))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_CURSOR"))
+                .andExpect(jsonPath("$.path").value("/api/transactions/history"));
+    }
+
+    @Test
+    void exportTransactionHistory_AsCsv_ShouldStreamAttachment() throws Exception {
+        // Arrange
+        when(transactionExportService.export(any(User.class), eq(ExportFormat.CSV), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(2);
+                    out.write("id,type\n1,DEPOSIT\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/transactions/export")
+                        .param("format", "CSV")
+                        .with(authentication(createAuthentication(testUser))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions.csv\""))
+                .andExpect(content().string("id,type\n1,DEPOSIT\n"));
+    }
+
+    @Test
+    void deposit_WithReusedIdempotencyKey_ShouldReplayStoredResponse() throws Exception {
+        // Arrange
+        TransactionRequest request = new TransactionRequest();
+        request.setAmount(new BigDecimal("100.00"));
+        request.setDescription("Test deposit");
+
+        when(idempotencyService.execute(any(User.class), eq("key-1"), eq("DEPOSIT"), any(), any()))
+                .thenReturn(transactionResponse);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/deposit")
+                        .with(authentication(createAuthentication(testUser)))
+                        .with(csrf())
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.balanceAfter").value(1100.00));
+
+        verify(transactionService, never()).deposit(any(), any(), any());
+    }
+
+    @Test
+    void transfer_WithIdempotencyKeyUsedForDifferentRequest_ShouldReturnUnprocessableEntity() throws Exception {
+        // Arrange
+        TransferRequest request = new TransferRequest();
+        request.setTargetAccountId(2L);
+        request.setAmount(new BigDecimal("200.00"));
+        request.setDescription("Test transfer");
+
+        when(idempotencyService.execute(any(User.class), eq("key-2"), eq("TRANSFER"), any(), any()))
+                .thenThrow(new IdempotencyKeyException("Idempotency-Key was already used with a different request"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/transfer")
+                        .with(authentication(createAuthentication(testUser)))
+                        .with(csrf())
+                        .header("Idempotency-Key", "key-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").value("IDEMPOTENCY_KEY_REJECTED"));
+
+        verify(transactionService, never()).transfer(any(), any(), any(), any());
     }
 
     @Test
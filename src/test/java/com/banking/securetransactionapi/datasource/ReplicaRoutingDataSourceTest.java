@@ -0,0 +1,142 @@
+package com.banking.securetransactionapi.datasource;
+
+import com.banking.securetransactionapi.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Separate in-memory H2 databases stand in for the primary and the replicas; each holds a single
+ * row naming itself, so a query shows where it was routed.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = node("primary");
+    private final DataSource replicaA = node("replica-a");
+    private final DataSource replicaB = node("replica-b");
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldRotateAcrossReplicas() {
+        // Arrange
+        Routing routing = new Routing(List.of(replicaA, replicaB), Duration.ofSeconds(5));
+
+        // Act
+        List<String> nodes = List.of(routing.read(), routing.read(), routing.read());
+
+        // Assert
+        assertEquals(List.of("replica-a", "replica-b", "replica-a"), nodes);
+        assertEquals("primary", routing.write());
+        assertEquals("primary", routing.jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void readOnlyTransaction_AfterOwnWrite_ShouldReadFromPrimary() {
+        // Arrange
+        Routing routing = new Routing(List.of(replicaA), Duration.ofSeconds(5));
+        authenticate(1L);
+        routing.write();
+
+        // Act
+        String writerRead = routing.read();
+        authenticate(2L);
+        String otherUserRead = routing.read();
+
+        // Assert
+        assertEquals("primary", writerRead);
+        assertEquals("replica-a", otherUserRead);
+    }
+
+    @Test
+    void readOnlyTransaction_WithPinningDisabled_ShouldReadFromReplicaAfterWrite() {
+        // Arrange
+        Routing routing = new Routing(List.of(replicaA), Duration.ZERO);
+        authenticate(1L);
+        routing.write();
+
+        // Act & Assert
+        assertEquals("replica-a", routing.read());
+    }
+
+    @Test
+    void checkReplicas_WhenReplicaIsDown_ShouldSkipItUntilItRecovers() {
+        // Arrange
+        Routing routing = new Routing(List.of(new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/unreachable"), replicaB),
+                Duration.ofSeconds(5));
+
+        // Act
+        routing.dataSource.checkReplicas();
+
+        // Assert
+        assertEquals(1, routing.dataSource.getHealthyReplicaCount());
+        assertEquals(List.of("replica-b", "replica-b"), List.of(routing.read(), routing.read()));
+    }
+
+    @Test
+    void readOnlyTransaction_WithNoHealthyReplica_ShouldFallBackToPrimary() {
+        // Arrange
+        Routing routing = new Routing(List.of(new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/unreachable")),
+                Duration.ofSeconds(5));
+
+        // Act & Assert
+        assertEquals("primary", routing.read());
+        assertEquals(0, routing.dataSource.getHealthyReplicaCount());
+        assertEquals("primary", routing.read());
+    }
+
+    private static void authenticate(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private static DataSource node(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private class Routing {
+        private final ReplicaRoutingDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+
+        Routing(List<DataSource> replicas, Duration readYourWrites) {
+            dataSource = new ReplicaRoutingDataSource(primary, replicas, readYourWrites, 100);
+            DataSource lazy = new LazyConnectionDataSourceProxy(dataSource);
+            jdbcTemplate = new JdbcTemplate(lazy);
+            transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(lazy));
+        }
+
+        String read() {
+            transactionTemplate.setReadOnly(true);
+            return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        String write() {
+            transactionTemplate.setReadOnly(false);
+            return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+    }
+}
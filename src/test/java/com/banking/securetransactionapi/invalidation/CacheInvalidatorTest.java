@@ -0,0 +1,173 @@
+package com.banking.securetransactionapi.invalidation;
+
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.ledger.LedgerEngineType;
+import com.banking.securetransactionapi.service.AccountStripeService;
+import com.banking.securetransactionapi.service.BalanceCache;
+import com.banking.securetransactionapi.util.ExpiringLruCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidatorTest {
+
+    @Mock
+    private AccountStripeService stripeService;
+
+    private final LoopbackInvalidationBus bus = new LoopbackInvalidationBus();
+    private final List<String> messages = new ArrayList<>();
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new Node();
+        nodeB = new Node();
+        bus.subscribe(new InvalidationListener() {
+            @Override
+            public void onMessage(String message) {
+                messages.add(message);
+            }
+
+            @Override
+            public void onReset() {
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void userChanged_ShouldEvictPrincipalOnOtherNodesOnly() {
+        // Arrange
+        nodeA.principalCache.put("alice", new User());
+        nodeB.principalCache.put("alice", new User());
+
+        // Act
+        nodeA.invalidator.userChanged("alice");
+
+        // Assert
+        assertNotNull(nodeA.principalCache.get("alice"));
+        assertNull(nodeB.principalCache.get("alice"));
+    }
+
+    @Test
+    void balanceChanged_InTransaction_ShouldSendOneMessageAfterCommit() {
+        // Arrange
+        nodeB.balanceCache.writeThrough(1L, new BigDecimal("10.00"));
+        nodeB.balanceCache.writeThrough(2L, new BigDecimal("20.00"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        nodeA.invalidator.balanceChanged(1L);
+        nodeA.invalidator.balanceChanged(2L);
+        nodeA.invalidator.balanceChanged(1L);
+        int sentBeforeCommit = messages.size();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertEquals(0, sentBeforeCommit);
+        assertEquals(1, messages.size());
+        assertTrue(messages.get(0).endsWith(" B1 B2"));
+        assertNull(nodeB.balanceCache.get(1L));
+        assertNull(nodeB.balanceCache.get(2L));
+    }
+
+    @Test
+    void balanceChanged_WhenRolledBack_ShouldSendNothing() {
+        // Arrange
+        nodeB.balanceCache.writeThrough(1L, new BigDecimal("10.00"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        nodeA.invalidator.balanceChanged(1L);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertTrue(messages.isEmpty());
+        assertEquals(new BigDecimal("10.00"), nodeB.balanceCache.get(1L));
+        assertNull(TransactionSynchronizationManager.getResource(nodeA.invalidator));
+    }
+
+    @Test
+    void userChanged_WithManyKeys_ShouldSplitMessages() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            nodeA.invalidator.userChanged("user-" + i);
+        }
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertTrue(messages.size() > 1);
+        messages.forEach(message -> assertTrue(message.length() <= 7000));
+        assertEquals(1000, messages.stream().mapToInt(message -> message.split(" ").length - 1).sum());
+    }
+
+    @Test
+    void onReset_ShouldClearAllCaches() {
+        // Arrange
+        nodeB.principalCache.put("alice", new User());
+        nodeB.balanceCache.writeThrough(1L, new BigDecimal("10.00"));
+
+        // Act
+        nodeB.invalidator.onReset();
+
+        // Assert
+        assertEquals(0, nodeB.principalCache.size());
+        assertNull(nodeB.balanceCache.get(1L));
+    }
+
+    @Test
+    void onMessage_WithMalformedKey_ShouldEvictTheRest() {
+        // Arrange
+        nodeB.principalCache.put("bob smith", new User());
+
+        // Act
+        nodeB.invalidator.onMessage("othernode Bnot-a-number X1 Pbob+smith");
+
+        // Assert
+        assertNull(nodeB.principalCache.get("bob smith"));
+    }
+
+    private static void complete(int status) {
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        }
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private class Node {
+        private final ExpiringLruCache<String, User> principalCache = new ExpiringLruCache<>(100, Duration.ofMinutes(5));
+        private final BalanceCache balanceCache =
+                new BalanceCache(stripeService, true, LedgerEngineType.JPA, 100, Duration.ofMinutes(5));
+        private final CacheInvalidator invalidator = new CacheInvalidator(bus, principalCache, balanceCache);
+
+        private Node() {
+            invalidator.subscribe();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.banking.securetransactionapi.ledger;
+
+import com.banking.securetransactionapi.entity.Account;
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.banking.securetransactionapi.repository.UserRepository;
+import com.banking.securetransactionapi.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Journal write path with the background projector off, so each test decides when to project.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:journal-ledger;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "banking.ledger.engine=JOURNAL",
+        "banking.journal.projector.enabled=false",
+        "banking.journal.projector.settle-ms=0"
+})
+@ActiveProfiles("test")
+class JournalLedgerServiceTest {
+
+    @Autowired
+    private JournalLedgerService journalLedger;
+
+    @Autowired
+    private JournalProjector projector;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void transfer_ShouldAppendBalancedLegsWithoutTouchingStoredBalances() {
+        // Arrange
+        User payer = createUser("200.00");
+        User payee = createUser("0.00");
+
+        // Act
+        Transaction outgoing = journalLedger.transfer(payer.getAccountId(), payee.getAccountId(),
+                new BigDecimal("80.00"), "Invoice");
+
+        // Assert
+        assertEquals(0, new BigDecimal("120.00").compareTo(outgoing.getBalanceAfter()));
+        BigDecimal legSum = jdbcTemplate.queryForObject(
+                "SELECT SUM(amount) FROM journal_legs WHERE journal_id = (SELECT journal_id FROM journal_legs WHERE id = ?)",
+                BigDecimal.class, outgoing.getId());
+        assertEquals(0, BigDecimal.ZERO.compareTo(legSum));
+        assertEquals(0, new BigDecimal("200.00").compareTo(storedBalance(payer)));
+        assertEquals(0, new BigDecimal("120.00").compareTo(accountService.getUserAccount(payer).getBalance()));
+        assertEquals(0, new BigDecimal("80.00").compareTo(accountService.getUserAccount(payee).getBalance()));
+    }
+
+    @Test
+    void withdraw_ShouldCountUnprojectedDebitsInBalanceCheck() {
+        // Arrange
+        User user = createUser("100.00");
+        journalLedger.withdraw(user.getAccountId(), new BigDecimal("60.00"), "Cash");
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class,
+                () -> journalLedger.withdraw(user.getAccountId(), new BigDecimal("60.00"), "Cash again"));
+    }
+
+    @Test
+    void projectPending_ShouldFoldLegsIntoBalancesAndHistory() {
+        // Arrange
+        User user = createUser("0.00");
+        Transaction deposit = journalLedger.deposit(user.getAccountId(), new BigDecimal("50.00"), "Salary");
+        journalLedger.withdraw(user.getAccountId(), new BigDecimal("20.00"), "Cash");
+
+        // Act
+        drainProjector();
+
+        // Assert
+        assertEquals(0, new BigDecimal("30.00").compareTo(storedBalance(user)));
+        List<Transaction> history = transactionRepository
+                .findByAccountIdOrderByTimestampDescIdDesc(user.getAccountId(), Limit.of(10));
+        assertEquals(2, history.size());
+        assertEquals(TransactionType.WITHDRAWAL, history.get(0).getType());
+        assertEquals(0, new BigDecimal("30.00").compareTo(history.get(0).getBalanceAfter()));
+        assertEquals(deposit.getId(), history.get(1).getId());
+        assertEquals(0, new BigDecimal("50.00").compareTo(history.get(1).getBalanceAfter()));
+        assertEquals(0, accountService.getUserAccount(user).getBalance().compareTo(storedBalance(user)));
+    }
+
+    private void drainProjector() {
+        int projected;
+        do {
+            projected = projector.projectPending();
+        } while (projected > 0);
+    }
+
+    private User createUser(String openingBalance) {
+        User user = new User();
+        user.setUsername("journal-" + UUID.randomUUID());
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        user = userRepository.save(user);
+
+        Account account = new Account();
+        account.setUserId(user.getId());
+        account.setBalance(new BigDecimal(openingBalance));
+        user.setAccountId(accountRepository.save(account).getId());
+        return user;
+    }
+
+    private BigDecimal storedBalance(User user) {
+        return accountRepository.findById(user.getAccountId()).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,135 @@
+package com.banking.securetransactionapi.ledger;
+
+import com.banking.securetransactionapi.entity.Account;
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.exception.AccountNotFoundException;
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.banking.securetransactionapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharded-ledger;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "banking.ledger.engine=SHARDED",
+        "logging.level.com.banking=INFO"
+})
+@ActiveProfiles("test")
+class ShardedLedgerEngineTest {
+
+    @Autowired
+    private ShardedLedgerEngine ledgerEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void transfer_AcrossShards_ShouldJournalBothLegsAndConserveMoney() {
+        // Arrange
+        Account source = createAccount("500.00");
+        Account target = createAccountOnOtherShard(source);
+
+        // Act
+        Transaction outgoing = ledgerEngine.transfer(source.getId(), target.getId(), new BigDecimal("120.00"), "Rent");
+
+        // Assert
+        assertEquals(TransactionType.TRANSFER_OUT, outgoing.getType());
+        assertEquals(0, new BigDecimal("380.00").compareTo(outgoing.getBalanceAfter()));
+        assertEquals(0, new BigDecimal("380.00").compareTo(storedBalance(source)));
+        assertEquals(0, new BigDecimal("120.00").compareTo(storedBalance(target)));
+        List<Transaction> incoming = transactionRepository.findByAccountIdOrderByTimestampDescIdDesc(target.getId(), Limit.of(10));
+        assertEquals(1, incoming.size());
+        assertEquals(TransactionType.TRANSFER_IN, incoming.get(0).getType());
+        assertEquals(source.getId(), incoming.get(0).getTargetAccountId());
+    }
+
+    @Test
+    void transfer_ToUnknownAccount_ShouldRefundReservationAndJournalNothing() {
+        // Arrange
+        Account source = createAccount("100.00");
+
+        // Act & Assert
+        assertThrows(AccountNotFoundException.class,
+                () -> ledgerEngine.transfer(source.getId(), 999_999L, new BigDecimal("100.00"), "Lost"));
+        assertTrue(transactionRepository.findByAccountIdOrderByTimestampDescIdDesc(source.getId(), Limit.of(1)).isEmpty());
+        // The reserved amount is back, so the full balance can still be withdrawn
+        Transaction withdrawal = ledgerEngine.withdraw(source.getId(), new BigDecimal("100.00"), "Cash");
+        assertEquals(0, BigDecimal.ZERO.compareTo(withdrawal.getBalanceAfter()));
+    }
+
+    @Test
+    void withdraw_WithInsufficientBalance_ShouldRejectWithoutJournaling() {
+        // Arrange
+        Account account = createAccount("10.00");
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class,
+                () -> ledgerEngine.withdraw(account.getId(), new BigDecimal("10.01"), "Too much"));
+        assertTrue(transactionRepository.findByAccountIdOrderByTimestampDescIdDesc(account.getId(), Limit.of(1)).isEmpty());
+        assertEquals(0, new BigDecimal("10.00").compareTo(storedBalance(account)));
+    }
+
+    @Test
+    void start_AfterRestart_ShouldRecoverBalancesFromJournal() throws Exception {
+        // Arrange
+        Account source = createAccount("0.00");
+        Account target = createAccountOnOtherShard(source);
+        ledgerEngine.deposit(source.getId(), new BigDecimal("300.00"), "Salary");
+        ledgerEngine.transfer(source.getId(), target.getId(), new BigDecimal("75.00"), "Dinner");
+
+        // Act
+        ledgerEngine.stop();
+        ledgerEngine.start();
+
+        // Assert
+        assertEquals(0, BigDecimal.ZERO.compareTo(
+                ledgerEngine.withdraw(source.getId(), new BigDecimal("225.00"), "Everything").getBalanceAfter()));
+        assertEquals(0, new BigDecimal("75.01").compareTo(
+                ledgerEngine.deposit(target.getId(), new BigDecimal("0.01"), "Probe").getBalanceAfter()));
+    }
+
+    private Account createAccount(String balance) {
+        User user = new User();
+        user.setUsername("ledger-" + UUID.randomUUID());
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        user = userRepository.save(user);
+
+        Account account = new Account();
+        account.setUserId(user.getId());
+        account.setBalance(new BigDecimal(balance));
+        return accountRepository.save(account);
+    }
+
+    private Account createAccountOnOtherShard(Account other) {
+        while (true) {
+            Account account = createAccount("0.00");
+            if (ledgerEngine.shardFor(account.getId()) != ledgerEngine.shardFor(other.getId())) {
+                return account;
+            }
+        }
+    }
+
+    private BigDecimal storedBalance(Account account) {
+        return accountRepository.findById(account.getId()).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,193 @@
+package com.banking.securetransactionapi.outbox;
+
+import com.banking.securetransactionapi.entity.Account;
+import com.banking.securetransactionapi.entity.OutboxEvent;
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.OutboxJdbcRepository;
+import com.banking.securetransactionapi.repository.UserRepository;
+import com.banking.securetransactionapi.service.TransactionService;
+import com.banking.securetransactionapi.util.SnowflakeIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbox writes and relay with the background workers off, so each test drives the relay itself.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-relay;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "banking.outbox.relay.enabled=false",
+        "banking.outbox.relay.batch-size=50"
+})
+@ActiveProfiles("test")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private OutboxSink sink;
+
+    @Autowired
+    private OutboxJdbcRepository outboxRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private InMemoryOutboxSink memorySink;
+
+    @BeforeEach
+    void setUp() {
+        drain();
+        memorySink = (InMemoryOutboxSink) sink;
+        memorySink.clear();
+    }
+
+    @Test
+    void relayBatch_ShouldPublishEventsWrittenWithEachTransaction() {
+        // Arrange
+        User payer = createUser();
+        User payee = createUser();
+        transactionService.deposit(payer, new BigDecimal("100.00"), "Salary");
+        transactionService.transfer(payer, payee.getAccountId(), new BigDecimal("40.00"), "Rent");
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(3, relayed);
+        assertEquals(0, outboxRepository.countPending());
+        List<OutboxEvent> events = memorySink.getEvents();
+        assertEquals(List.of(TransactionType.DEPOSIT, TransactionType.TRANSFER_OUT, TransactionType.TRANSFER_IN),
+                events.stream().map(OutboxEvent::getType).toList());
+        assertEquals(payee.getAccountId(), events.get(1).getCounterpartyAccountId());
+        assertEquals(0, new BigDecimal("60.00").compareTo(events.get(1).getBalanceAfter()));
+    }
+
+    @Test
+    void withdraw_WhenRejected_ShouldWriteNoEvent() {
+        // Arrange
+        User user = createUser();
+
+        // Act
+        assertThrows(InsufficientFundsException.class,
+                () -> transactionService.withdraw(user, new BigDecimal("1.00"), "Cash"));
+
+        // Assert
+        assertEquals(0, outboxRepository.countPending());
+    }
+
+    @Test
+    void relayBatch_WithConcurrentRelays_ShouldDeliverEachEventOnce() throws Exception {
+        // Arrange
+        int eventCount = 2000;
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.append(events(eventCount)));
+        ExecutorService relays = Executors.newFixedThreadPool(4);
+
+        // Act
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                workers.add(relays.submit(() -> {
+                    while (relay.relayBatch() > 0) {
+                        Thread.onSpinWait();
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            relays.shutdown();
+        }
+
+        // Assert
+        List<OutboxEvent> published = memorySink.getEvents();
+        Set<Long> ids = new HashSet<>();
+        published.forEach(event -> ids.add(event.getId()));
+        assertEquals(eventCount, published.size());
+        assertEquals(eventCount, ids.size());
+        assertEquals(0, outboxRepository.countPending());
+    }
+
+    @Test
+    void relayBatch_WhenSinkFails_ShouldKeepEventsForRetry() {
+        // Arrange
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.append(events(3)));
+        OutboxRelay failingRelay = new OutboxRelay(outboxRepository, batch -> {
+            throw new IllegalStateException("Broker unavailable");
+        }, transactionTemplate, false, 1, 50, 100);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, failingRelay::relayBatch);
+        assertEquals(3, outboxRepository.countPending());
+        assertEquals(3, relay.relayBatch());
+    }
+
+    private List<Transaction> events(int count) {
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId(idGenerator.nextId());
+            transaction.setAccountId(1L);
+            transaction.setType(TransactionType.DEPOSIT);
+            transaction.setAmount(BigDecimal.ONE);
+            transaction.setTimestamp(LocalDateTime.now());
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    private void drain() {
+        while (relay.relayBatch() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setUsername("outbox-" + UUID.randomUUID());
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        user = userRepository.save(user);
+
+        Account account = new Account();
+        account.setUserId(user.getId());
+        account.setBalance(BigDecimal.ZERO);
+        user.setAccountId(accountRepository.save(account).getId());
+        return user;
+    }
+}
@@ -0,0 +1,139 @@
+package com.banking.securetransactionapi.repository;
+
+import com.banking.securetransactionapi.entity.Account;
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class AccountRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("testuser");
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        entityManager.persistAndFlush(user);
+
+        account = new Account();
+        account.setUserId(user.getId());
+        account.setBalance(new BigDecimal("100.00"));
+        entityManager.persistAndFlush(account);
+        entityManager.clear();
+    }
+
+    @Test
+    void debitIfSufficient_WithSufficientFunds_ShouldReturnNewBalance() {
+        // Act
+        Optional<BigDecimal> result = accountRepository.debitIfSufficient(account.getId(), new BigDecimal("40.00"));
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(0, new BigDecimal("60.00").compareTo(result.get()));
+        assertEquals(0, new BigDecimal("60.00").compareTo(reloadBalance()));
+    }
+
+    @Test
+    void debitIfSufficient_WithInsufficientFunds_ShouldLeaveBalanceUnchanged() {
+        // Act
+        Optional<BigDecimal> result = accountRepository.debitIfSufficient(account.getId(), new BigDecimal("100.01"));
+
+        // Assert
+        assertFalse(result.isPresent());
+        assertEquals(0, new BigDecimal("100.00").compareTo(reloadBalance()));
+    }
+
+    @Test
+    void credit_ShouldReturnNewBalance() {
+        // Act
+        Optional<BigDecimal> result = accountRepository.credit(account.getId(), new BigDecimal("25.50"));
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(0, new BigDecimal("125.50").compareTo(result.get()));
+        assertEquals(0, new BigDecimal("125.50").compareTo(reloadBalance()));
+    }
+
+    @Test
+    void credit_WhenAccountAlreadyLoaded_ShouldRefreshManagedInstance() {
+        // Arrange
+        Account loaded = accountRepository.findById(account.getId()).orElseThrow();
+        Long versionBefore = loaded.getVersion();
+
+        // Act
+        accountRepository.credit(account.getId(), new BigDecimal("25.00"));
+
+        // Assert
+        Account reloaded = accountRepository.findById(account.getId()).orElseThrow();
+        assertSame(loaded, reloaded);
+        assertEquals(0, new BigDecimal("125.00").compareTo(reloaded.getBalance()));
+        assertEquals(versionBefore + 1, reloaded.getVersion());
+    }
+
+    @Test
+    void debitIfSufficient_WhenAccountAlreadyLoaded_ShouldRefreshManagedInstance() {
+        // Arrange
+        Account loaded = accountRepository.findById(account.getId()).orElseThrow();
+
+        // Act
+        accountRepository.debitIfSufficient(account.getId(), new BigDecimal("40.00"));
+
+        // Assert
+        assertEquals(0, new BigDecimal("60.00").compareTo(loaded.getBalance()));
+    }
+
+    @Test
+    void credit_WithNonExistingAccount_ShouldReturnEmpty() {
+        // Act
+        Optional<BigDecimal> result = accountRepository.credit(999_999L, new BigDecimal("25.50"));
+
+        // Assert
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    void findByIdForUpdate_ShouldReturnLockedAccount() {
+        // Act
+        Optional<Account> result = accountRepository.findByIdForUpdate(account.getId());
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(0, new BigDecimal("100.00").compareTo(result.get().getBalance()));
+        assertEquals(0L, result.get().getVersion());
+    }
+
+    @Test
+    void debitIfSufficient_ShouldIncrementVersion() {
+        // Act
+        accountRepository.debitIfSufficient(account.getId(), new BigDecimal("10.00"));
+
+        // Assert
+        entityManager.clear();
+        assertEquals(1L, entityManager.find(Account.class, account.getId()).getVersion());
+    }
+
+    private BigDecimal reloadBalance() {
+        entityManager.clear();
+        return entityManager.find(Account.class, account.getId()).getBalance();
+    }
+}
@@ -0,0 +1,108 @@
+package com.banking.securetransactionapi.repository;
+
+import com.banking.securetransactionapi.entity.Account;
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class TransactionRepositoryTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("testuser");
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        entityManager.persistAndFlush(user);
+
+        account = new Account();
+        account.setUserId(user.getId());
+        account.setBalance(new BigDecimal("100.00"));
+        entityManager.persistAndFlush(account);
+
+        // Two transactions share each timestamp so the id tie-breaker is exercised
+        for (int i = 0; i < 5; i++) {
+            persistTransaction(BASE_TIME.plusMinutes(i / 2));
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void findByAccountIdOrderByTimestampDescIdDesc_ShouldReturnNewestFirstUpToLimit() {
+        // Act
+        List<Transaction> result = transactionRepository
+                .findByAccountIdOrderByTimestampDescIdDesc(account.getId(), Limit.of(3));
+
+        // Assert
+        assertEquals(3, result.size());
+        assertEquals(BASE_TIME.plusMinutes(2), result.get(0).getTimestamp());
+        assertEquals(BASE_TIME.plusMinutes(1), result.get(1).getTimestamp());
+        assertTrue(result.get(1).getId() > result.get(2).getId());
+    }
+
+    @Test
+    void findPageBefore_ShouldContinueAfterCursorWithoutGapsOrDuplicates() {
+        // Arrange
+        List<Transaction> all = transactionRepository
+                .findByAccountIdOrderByTimestampDescIdDesc(account.getId(), Limit.of(10));
+        Transaction cursor = all.get(1);
+
+        // Act
+        List<Transaction> result = transactionRepository
+                .findPageBefore(account.getId(), cursor.getTimestamp(), cursor.getId(), Limit.of(10));
+
+        // Assert
+        assertEquals(all.subList(2, all.size()).stream().map(Transaction::getId).toList(),
+                result.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void findPageBefore_AtLastRow_ShouldReturnEmptyList() {
+        // Arrange
+        List<Transaction> all = transactionRepository
+                .findByAccountIdOrderByTimestampDescIdDesc(account.getId(), Limit.of(10));
+        Transaction last = all.get(all.size() - 1);
+
+        // Act
+        List<Transaction> result = transactionRepository
+                .findPageBefore(account.getId(), last.getTimestamp(), last.getId(), Limit.of(10));
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    private void persistTransaction(LocalDateTime timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setAccountId(account.getId());
+        transaction.setType(TransactionType.DEPOSIT);
+        transaction.setAmount(new BigDecimal("10.00"));
+        transaction.setTimestamp(timestamp);
+        entityManager.persistAndFlush(transaction);
+    }
+}
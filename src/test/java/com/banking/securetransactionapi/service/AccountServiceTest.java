@@ -3,7 +3,9 @@ package com.banking.securetransactionapi.service;
 import com.banking.securetransactionapi.entity.Account;
 import com.banking.securetransactionapi.entity.Role;
 import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.invalidation.CacheInvalidator;
 import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.LedgerJdbcRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,9 +14,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +28,18 @@ class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private LedgerJdbcRepository ledgerJdbcRepository;
+
+    @Mock
+    private AccountStripeService stripeService;
+
+    @Mock
+    private BalanceCache balanceCache;
+
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -100,4 +117,109 @@ class AccountServiceTest {
         assertFalse(result);
         verify(accountRepository).findById(1L);
     }
+
+    @Test
+    void debit_WithSufficientFunds_ShouldReturnNewBalance() {
+        // Arrange
+        BigDecimal amount = new BigDecimal("250.00");
+        when(accountRepository.debitIfSufficient(1L, amount))
+                .thenReturn(Optional.of(new BigDecimal("750.00")));
+
+        // Act
+        Optional<BigDecimal> result = accountService.debit(1L, amount);
+
+        // Assert
+        assertEquals(Optional.of(new BigDecimal("750.00")), result);
+        verify(accountRepository).debitIfSufficient(1L, amount);
+        verify(accountRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void credit_ShouldReturnNewBalance() {
+        // Arrange
+        BigDecimal amount = new BigDecimal("250.00");
+        when(accountRepository.credit(1L, amount))
+                .thenReturn(Optional.of(new BigDecimal("1250.00")));
+
+        // Act
+        Optional<BigDecimal> result = accountService.credit(1L, amount);
+
+        // Assert
+        assertEquals(Optional.of(new BigDecimal("1250.00")), result);
+        verify(accountRepository).credit(1L, amount);
+        verify(accountRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getUserAccountId_WithAccountIdFromToken_ShouldNotQueryRepository() {
+        // Arrange
+        testUser.setAccountId(7L);
+
+        // Act
+        Long result = accountService.getUserAccountId(testUser);
+
+        // Assert
+        assertEquals(7L, result);
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void getUserAccountId_WithoutAccountIdFromToken_ShouldLookUpByUserId() {
+        // Arrange
+        when(accountRepository.findByUserId(1L)).thenReturn(Optional.of(testAccount));
+
+        // Act
+        Long result = accountService.getUserAccountId(testUser);
+
+        // Assert
+        assertEquals(1L, result);
+        verify(accountRepository).findByUserId(1L);
+    }
+
+    @Test
+    void getUserAccount_WithAccountIdFromToken_ShouldLoadByPrimaryKey() {
+        // Arrange
+        testUser.setAccountId(1L);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
+
+        // Act
+        Account result = accountService.getUserAccount(testUser);
+
+        // Assert
+        assertSame(testAccount, result);
+        verify(accountRepository, never()).findByUserId(anyLong());
+    }
+
+    @Test
+    void getUserAccount_WhenBalanceIsCached_ShouldNotQueryDatabase() {
+        // Arrange
+        testUser.setAccountId(1L);
+        when(balanceCache.isCaching(1L)).thenReturn(true);
+        when(balanceCache.get(1L)).thenReturn(new BigDecimal("250.00"));
+
+        // Act
+        Account result = accountService.getUserAccount(testUser);
+
+        // Assert
+        assertEquals(0, new BigDecimal("250.00").compareTo(result.getBalance()));
+        verifyNoInteractions(accountRepository, ledgerJdbcRepository);
+    }
+
+    @Test
+    void getUserAccount_OnCacheMiss_ShouldCacheBalanceReadOutsideTransaction() {
+        // Arrange
+        testUser.setAccountId(1L);
+        when(balanceCache.isCaching(1L)).thenReturn(true);
+        when(balanceCache.readStamp(1L)).thenReturn(7L);
+        when(ledgerJdbcRepository.findBalances(List.of(1L))).thenReturn(Map.of(1L, new BigDecimal("300.00")));
+
+        // Act
+        Account result = accountService.getUserAccount(testUser);
+
+        // Assert
+        assertEquals(0, new BigDecimal("300.00").compareTo(result.getBalance()));
+        verify(balanceCache).load(1L, new BigDecimal("300.00"), 7L);
+        // The read-only repository path may be routed to a lagging replica
+        verify(accountRepository, never()).findById(anyLong());
+    }
 }
@@ -0,0 +1,170 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.dto.TransactionResponse;
+import com.banking.securetransactionapi.entity.Account;
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:account-stripes;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "banking.striping.enabled=true",
+        "banking.striping.stripes=4"
+})
+@ActiveProfiles("test")
+class AccountStripeServiceTest {
+
+    @Autowired
+    private AccountStripeService stripeService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deposit_ToStripedAccount_ShouldLandOnStripeAndCountInBalance() {
+        // Arrange
+        User merchant = createUser("100.00");
+        stripeService.setStripes(merchant.getAccountId(), 4);
+
+        // Act
+        TransactionResponse response = transactionService.deposit(merchant, new BigDecimal("25.00"), "Sale");
+
+        // Assert
+        assertEquals(0, new BigDecimal("125.00").compareTo(response.getBalanceAfter()));
+        assertEquals(0, new BigDecimal("100.00").compareTo(mainBalance(merchant)));
+        assertEquals(0, new BigDecimal("25.00").compareTo(stripeTotal(merchant)));
+        assertEquals(0, new BigDecimal("125.00").compareTo(accountService.getUserAccount(merchant).getBalance()));
+    }
+
+    @Test
+    void withdraw_BeyondMainBalance_ShouldFoldStripes() {
+        // Arrange
+        User merchant = createUser("10.00");
+        stripeService.setStripes(merchant.getAccountId(), 4);
+        transactionService.deposit(merchant, new BigDecimal("50.00"), "Sale");
+
+        // Act
+        TransactionResponse response = transactionService.withdraw(merchant, new BigDecimal("40.00"), "Payout");
+
+        // Assert
+        assertEquals(0, new BigDecimal("20.00").compareTo(response.getBalanceAfter()));
+        assertEquals(0, new BigDecimal("20.00").compareTo(mainBalance(merchant)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(stripeTotal(merchant)));
+    }
+
+    @Test
+    void withdraw_BeyondTotalBalance_ShouldBeRejected() {
+        // Arrange
+        User merchant = createUser("10.00");
+        stripeService.setStripes(merchant.getAccountId(), 4);
+        transactionService.deposit(merchant, new BigDecimal("5.00"), "Sale");
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class,
+                () -> transactionService.withdraw(merchant, new BigDecimal("20.00"), "Payout"));
+        assertEquals(0, new BigDecimal("15.00").compareTo(accountService.getUserAccount(merchant).getBalance()));
+    }
+
+    @Test
+    void setStripes_ToZero_ShouldFoldStripesIntoAccount() {
+        // Arrange
+        User merchant = createUser("0.00");
+        stripeService.setStripes(merchant.getAccountId(), 4);
+        transactionService.deposit(merchant, new BigDecimal("30.00"), "Sale");
+
+        // Act
+        stripeService.setStripes(merchant.getAccountId(), 0);
+
+        // Assert
+        assertEquals(0, stripeService.stripeCount(merchant.getAccountId()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(mainBalance(merchant)));
+        assertEquals(0, new BigDecimal("30.00").compareTo(accountService.getUserAccount(merchant).getBalance()));
+    }
+
+    @Test
+    void transfer_ConcurrentlyToStripedAccount_ShouldConserveMoney() throws Exception {
+        // Arrange
+        User merchant = createUser("0.00");
+        stripeService.setStripes(merchant.getAccountId(), 4);
+        List<User> payers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            payers.add(createUser("100.00"));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(payers.size());
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (User payer : payers) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10; i++) {
+                    transactionService.transfer(payer, merchant.getAccountId(), new BigDecimal("1.50"), "Purchase");
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        transactionService.withdraw(merchant, new BigDecimal("100.00"), "Payout");
+
+        // Assert
+        assertEquals(0, new BigDecimal("20.00").compareTo(accountService.getUserAccount(merchant).getBalance()));
+        for (User payer : payers) {
+            assertEquals(0, new BigDecimal("85.00").compareTo(mainBalance(payer)));
+        }
+    }
+
+    private User createUser(String balance) {
+        User user = new User();
+        user.setUsername("stripe-" + UUID.randomUUID().toString().substring(0, 8));
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        user = userRepository.save(user);
+
+        Account account = new Account();
+        account.setUserId(user.getId());
+        account.setBalance(new BigDecimal(balance));
+        account = accountRepository.save(account);
+        user.setAccountId(account.getId());
+        return user;
+    }
+
+    private BigDecimal mainBalance(User user) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class,
+                user.getAccountId());
+    }
+
+    private BigDecimal stripeTotal(User user) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(balance), 0) FROM account_stripes WHERE account_id = ?",
+                BigDecimal.class, user.getAccountId());
+    }
+}
@@ -0,0 +1,126 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.entity.Account;
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(BalanceAfterBackfillJob.class)
+class BalanceAfterBackfillJobTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BalanceAfterBackfillJob backfillJob;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("testuser");
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        entityManager.persistAndFlush(user);
+
+        account = new Account();
+        account.setUserId(user.getId());
+        account.setBalance(new BigDecimal("165.00"));
+        entityManager.persistAndFlush(account);
+
+        // Small chunks so an account spans several commits
+        ReflectionTestUtils.setField(backfillJob, "chunkSize", 2);
+    }
+
+    @Test
+    void backfill_ShouldReplayHistoryInChronologicalOrder() {
+        // Arrange
+        persistTransaction(TransactionType.DEPOSIT, "100.00", 0, null);
+        persistTransaction(TransactionType.WITHDRAWAL, "30.00", 1, null);
+        persistTransaction(TransactionType.TRANSFER_IN, "120.00", 2, null);
+        persistTransaction(TransactionType.TRANSFER_OUT, "25.00", 3, null);
+        persistTransaction(TransactionType.DEPOSIT, "0.00", 3, null);
+        entityManager.clear();
+
+        // Act
+        long updated = backfillJob.backfill();
+
+        // Assert
+        assertEquals(5, updated);
+        assertEquals(List.of("100.00", "70.00", "190.00", "165.00", "165.00"), balancesOldestFirst());
+    }
+
+    @Test
+    void backfill_WhenResuming_ShouldContinueFromLastBackfilledRow() {
+        // Arrange
+        persistTransaction(TransactionType.DEPOSIT, "100.00", 0, "100.00");
+        persistTransaction(TransactionType.WITHDRAWAL, "30.00", 1, "70.00");
+        persistTransaction(TransactionType.DEPOSIT, "95.00", 2, null);
+        entityManager.clear();
+
+        // Act
+        long updated = backfillJob.backfill();
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(List.of("100.00", "70.00", "165.00"), balancesOldestFirst());
+    }
+
+    @Test
+    void backfill_WithNothingMissing_ShouldUpdateNothing() {
+        // Arrange
+        persistTransaction(TransactionType.DEPOSIT, "165.00", 0, "165.00");
+        entityManager.clear();
+
+        // Act & Assert
+        assertEquals(0, backfillJob.backfill());
+    }
+
+    private void persistTransaction(TransactionType type, String amount, int minutes, String balanceAfter) {
+        Transaction transaction = new Transaction();
+        transaction.setAccountId(account.getId());
+        transaction.setType(type);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setTimestamp(BASE_TIME.plusMinutes(minutes));
+        transaction.setBalanceAfter(balanceAfter == null ? null : new BigDecimal(balanceAfter));
+        entityManager.persistAndFlush(transaction);
+    }
+
+    private List<String> balancesOldestFirst() {
+        entityManager.flush();
+        entityManager.clear();
+        List<Transaction> transactions = new ArrayList<>(
+                transactionRepository.findByAccountIdOrderByTimestampDescIdDesc(account.getId(), Limit.of(10)));
+        Collections.reverse(transactions);
+        return transactions.stream()
+                .map(transaction -> transaction.getBalanceAfter().toPlainString())
+                .toList();
+    }
+}
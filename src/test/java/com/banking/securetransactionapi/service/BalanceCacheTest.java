@@ -0,0 +1,128 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.ledger.LedgerEngineType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceCacheTest {
+
+    private static final Long ACCOUNT_ID = 42L;
+
+    @Mock
+    private AccountStripeService stripeService;
+
+    private BalanceCache balanceCache;
+
+    @BeforeEach
+    void setUp() {
+        balanceCache = new BalanceCache(stripeService, true, LedgerEngineType.JPA, 100, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void writeThrough_ShouldCacheBalanceOnlyAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        balanceCache.writeThrough(ACCOUNT_ID, new BigDecimal("150.00"));
+        BigDecimal beforeCommit = balanceCache.get(ACCOUNT_ID);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertNull(beforeCommit);
+        assertEquals(new BigDecimal("150.00"), balanceCache.get(ACCOUNT_ID));
+    }
+
+    @Test
+    void writeThrough_WithCallbacksOutOfOrder_ShouldKeepNewestBalance() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        balanceCache.writeThrough(ACCOUNT_ID, new BigDecimal("100.00"));
+        balanceCache.writeThrough(ACCOUNT_ID, new BigDecimal("80.00"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+        // Act
+        synchronizations.get(1).afterCommit();
+        synchronizations.get(0).afterCommit();
+
+        // Assert
+        assertEquals(new BigDecimal("80.00"), balanceCache.get(ACCOUNT_ID));
+    }
+
+    @Test
+    void writeThrough_WhenRolledBack_ShouldNotCacheBalance() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        balanceCache.writeThrough(ACCOUNT_ID, new BigDecimal("150.00"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        assertNull(balanceCache.get(ACCOUNT_ID));
+    }
+
+    @Test
+    void load_AfterConcurrentWriteCommitted_ShouldNotCacheReadBalance() {
+        // Arrange
+        long readStamp = balanceCache.readStamp(ACCOUNT_ID);
+        balanceCache.writeThrough(ACCOUNT_ID, new BigDecimal("200.00"));
+        balanceCache.invalidate(ACCOUNT_ID);
+
+        // Act
+        balanceCache.load(ACCOUNT_ID, new BigDecimal("100.00"), readStamp);
+
+        // Assert
+        assertNull(balanceCache.get(ACCOUNT_ID));
+    }
+
+    @Test
+    void load_ShouldBeReplacedByWriteCommittedLater() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        balanceCache.writeThrough(ACCOUNT_ID, new BigDecimal("200.00"));
+        balanceCache.load(ACCOUNT_ID, new BigDecimal("100.00"), balanceCache.readStamp(ACCOUNT_ID));
+
+        // Act
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertEquals(new BigDecimal("200.00"), balanceCache.get(ACCOUNT_ID));
+    }
+
+    @Test
+    void writeThrough_ForStripedAccount_ShouldNotCache() {
+        // Arrange
+        when(stripeService.stripeCount(ACCOUNT_ID)).thenReturn(4);
+
+        // Act
+        balanceCache.writeThrough(ACCOUNT_ID, new BigDecimal("150.00"));
+
+        // Assert
+        assertFalse(balanceCache.isCaching(ACCOUNT_ID));
+        assertNull(balanceCache.get(ACCOUNT_ID));
+    }
+}
@@ -0,0 +1,180 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.archive.TransactionArchive;
+import com.banking.securetransactionapi.entity.Account;
+import com.banking.securetransactionapi.entity.BalanceSnapshot;
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.repository.BalanceSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "banking.archive.directory=target/snapshot-test-archive")
+@ActiveProfiles("test")
+@Import({BalanceSnapshotService.class, JobLock.class, TransactionArchive.class})
+class BalanceSnapshotServiceTest {
+
+    private static final LocalDate DAY_ONE = LocalDate.of(2024, 3, 1);
+    private static final LocalDate DAY_TWO = DAY_ONE.plusDays(1);
+    private static final LocalDate DAY_THREE = DAY_ONE.plusDays(2);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private BalanceSnapshotService snapshotService;
+
+    private Account alice;
+    private Account bob;
+    private Account carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = createAccount("alice");
+        bob = createAccount("bob");
+        carol = createAccount("carol");
+
+        // Small chunks so the job pages through accounts
+        ReflectionTestUtils.setField(snapshotService, "chunkSize", 2);
+    }
+
+    @Test
+    void takeSnapshots_ShouldCoverEveryAccountAndChainFromPreviousSnapshot() {
+        // Arrange
+        persistTransaction(alice, TransactionType.DEPOSIT, "100.00", DAY_ONE.atTime(9, 0));
+        persistTransaction(alice, TransactionType.TRANSFER_OUT, "40.00", DAY_ONE.atTime(23, 59));
+        persistTransaction(bob, TransactionType.TRANSFER_IN, "40.00", DAY_ONE.atTime(23, 59));
+        persistTransaction(alice, TransactionType.WITHDRAWAL, "10.00", DAY_TWO.atStartOfDay());
+
+        // Act
+        int firstRun = snapshotService.takeSnapshots(DAY_ONE);
+        int secondRun = snapshotService.takeSnapshots(DAY_TWO);
+
+        // Assert
+        assertEquals(3, firstRun);
+        assertEquals(3, secondRun);
+        assertEquals("60.00", snapshotBalance(alice, DAY_ONE));
+        assertEquals("40.00", snapshotBalance(bob, DAY_ONE));
+        assertEquals("0.00", snapshotBalance(carol, DAY_ONE));
+        assertEquals("50.00", snapshotBalance(alice, DAY_TWO));
+        assertEquals("40.00", snapshotBalance(bob, DAY_TWO));
+    }
+
+    @Test
+    void takeSnapshots_WhenRerunForSameDay_ShouldCreateNothing() {
+        // Arrange
+        persistTransaction(alice, TransactionType.DEPOSIT, "100.00", DAY_ONE.atTime(9, 0));
+        snapshotService.takeSnapshots(DAY_ONE);
+
+        // Act & Assert
+        assertEquals(0, snapshotService.takeSnapshots(DAY_ONE));
+        assertEquals(3, snapshotRepository.count());
+    }
+
+    @Test
+    void takeSnapshots_AfterMissedDay_ShouldReplayFromOlderSnapshot() {
+        // Arrange
+        persistTransaction(alice, TransactionType.DEPOSIT, "100.00", DAY_ONE.atTime(9, 0));
+        snapshotService.takeSnapshots(DAY_ONE);
+        persistTransaction(alice, TransactionType.WITHDRAWAL, "30.00", DAY_TWO.atTime(9, 0));
+        persistTransaction(alice, TransactionType.DEPOSIT, "5.00", DAY_THREE.atTime(9, 0));
+
+        // Act
+        snapshotService.takeSnapshots(DAY_THREE);
+
+        // Assert
+        assertEquals("75.00", snapshotBalance(alice, DAY_THREE));
+    }
+
+    @Test
+    void snapshotPreviousDay_ShouldSnapshotYesterdayUnderJobLock() {
+        // Arrange
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        persistTransaction(alice, TransactionType.DEPOSIT, "25.00", yesterday.atTime(9, 0));
+
+        // Act
+        snapshotService.snapshotPreviousDay();
+
+        // Assert
+        assertEquals(3, snapshotRepository.count());
+        assertEquals("25.00", snapshotBalance(alice, yesterday));
+    }
+
+    @Test
+    void getBalanceAsOf_ShouldAddTransactionsAfterNearestSnapshot() {
+        // Arrange
+        persistTransaction(alice, TransactionType.DEPOSIT, "100.00", DAY_ONE.atTime(9, 0));
+        snapshotService.takeSnapshots(DAY_ONE);
+        persistTransaction(alice, TransactionType.WITHDRAWAL, "30.00", DAY_TWO.atTime(9, 0));
+        persistTransaction(alice, TransactionType.TRANSFER_IN, "12.50", DAY_TWO.atTime(15, 0));
+
+        // Act & Assert
+        assertEquals(0, new BigDecimal("70.00").compareTo(
+                snapshotService.getBalanceAsOf(alice.getId(), DAY_TWO.atTime(9, 0))));
+        assertEquals(0, new BigDecimal("82.50").compareTo(
+                snapshotService.getBalanceAsOf(alice.getId(), DAY_THREE.atStartOfDay())));
+        assertEquals(0, new BigDecimal("100.00").compareTo(
+                snapshotService.getBalanceAsOf(alice.getId(), DAY_ONE.atTime(23, 0))));
+    }
+
+    @Test
+    void getBalanceAsOf_WithoutSnapshot_ShouldReplayFullHistory() {
+        // Arrange
+        persistTransaction(bob, TransactionType.DEPOSIT, "20.00", DAY_ONE.atTime(9, 0));
+        persistTransaction(bob, TransactionType.TRANSFER_OUT, "5.00", DAY_TWO.atTime(9, 0));
+
+        // Act & Assert
+        assertEquals(0, new BigDecimal("15.00").compareTo(
+                snapshotService.getBalanceAsOf(bob.getId(), DAY_THREE.atStartOfDay())));
+        assertEquals(0, BigDecimal.ZERO.compareTo(
+                snapshotService.getBalanceAsOf(bob.getId(), DAY_ONE.atStartOfDay())));
+    }
+
+    private Account createAccount(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        entityManager.persistAndFlush(user);
+
+        Account account = new Account();
+        account.setUserId(user.getId());
+        account.setBalance(BigDecimal.ZERO);
+        return entityManager.persistAndFlush(account);
+    }
+
+    private void persistTransaction(Account account, TransactionType type, String amount, LocalDateTime timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setAccountId(account.getId());
+        transaction.setType(type);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setTimestamp(timestamp);
+        entityManager.persistAndFlush(transaction);
+    }
+
+    private String snapshotBalance(Account account, LocalDate day) {
+        entityManager.clear();
+        BalanceSnapshot snapshot = snapshotRepository
+                .findFirstByAccountIdAndSnapshotDateLessThanEqualOrderBySnapshotDateDesc(account.getId(), day)
+                .orElseThrow();
+        assertEquals(day, snapshot.getSnapshotDate());
+        return snapshot.getBalance().toPlainString();
+    }
+}
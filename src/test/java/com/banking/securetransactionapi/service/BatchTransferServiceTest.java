@@ -0,0 +1,222 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.config.CacheConfig;
+import com.banking.securetransactionapi.config.IdGeneratorConfig;
+import com.banking.securetransactionapi.config.InvalidationConfig;
+import com.banking.securetransactionapi.dto.BatchTransferItemResult;
+import com.banking.securetransactionapi.dto.BatchTransferResponse;
+import com.banking.securetransactionapi.dto.TransferRequest;
+import com.banking.securetransactionapi.entity.Account;
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import com.banking.securetransactionapi.invalidation.CacheInvalidator;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.AccountStripeJdbcRepository;
+import com.banking.securetransactionapi.repository.JournalJdbcRepository;
+import com.banking.securetransactionapi.repository.LedgerJdbcRepository;
+import com.banking.securetransactionapi.repository.OutboxJdbcRepository;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "banking.striping.enabled=true")
+@ActiveProfiles("test")
+@Import({BatchTransferService.class, AccountService.class, AccountStripeService.class, BalanceCache.class,
+        RetryExecutor.class, IdGeneratorConfig.class, LedgerJdbcRepository.class, JournalJdbcRepository.class,
+        OutboxJdbcRepository.class, AccountStripeJdbcRepository.class, CacheInvalidator.class, CacheConfig.class,
+        InvalidationConfig.class})
+class BatchTransferServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+
+    @Autowired
+    private AccountStripeService stripeService;
+
+    private User payer;
+    private Account source;
+
+    @BeforeEach
+    void setUp() {
+        source = createAccount("payer", "10000.00");
+        payer = entityManager.find(User.class, source.getUserId());
+        payer.setAccountId(source.getId());
+    }
+
+    @Test
+    void transfer_ShouldDebitTotalOnceAndCreditEachTarget() {
+        // Arrange
+        Account alice = createAccount("alice", "0.00");
+        Account bob = createAccount("bob", "50.00");
+        List<TransferRequest> transfers = List.of(
+                transfer(alice.getId(), "1000.00"),
+                transfer(bob.getId(), "1500.00"),
+                transfer(alice.getId(), "200.00"));
+
+        // Act
+        BatchTransferResponse response = batchTransferService.transfer(payer, transfers);
+
+        // Assert
+        assertEquals(3, response.getCompleted());
+        assertEquals(0, response.getRejected());
+        assertEquals(0, new BigDecimal("2700.00").compareTo(response.getTotalAmount()));
+        assertEquals(0, new BigDecimal("7300.00").compareTo(response.getBalanceAfter()));
+        assertEquals(0, new BigDecimal("7300.00").compareTo(reloadBalance(source)));
+        assertEquals(0, new BigDecimal("1200.00").compareTo(reloadBalance(alice)));
+        assertEquals(0, new BigDecimal("1550.00").compareTo(reloadBalance(bob)));
+        response.getResults().forEach(result -> assertNotNull(result.getTransactionId()));
+    }
+
+    @Test
+    void transfer_ShouldRecordRunningBalanceOnEveryLedgerRow() {
+        // Arrange
+        Account alice = createAccount("alice", "100.00");
+        List<TransferRequest> transfers = List.of(
+                transfer(alice.getId(), "10.00"),
+                transfer(alice.getId(), "20.00"));
+
+        // Act
+        batchTransferService.transfer(payer, transfers);
+
+        // Assert
+        assertEquals(List.of("9970.00", "9990.00"), balancesNewestFirst(source, TransactionType.TRANSFER_OUT));
+        assertEquals(List.of("130.00", "110.00"), balancesNewestFirst(alice, TransactionType.TRANSFER_IN));
+    }
+
+    @Test
+    void transfer_ToStripedTarget_ShouldCreditStripeAndRecordTotalBalance() {
+        // Arrange
+        Account merchant = createAccount("merchant", "100.00");
+        Account alice = createAccount("alice", "0.00");
+        stripeService.setStripes(merchant.getId(), 4);
+        List<TransferRequest> transfers = List.of(
+                transfer(merchant.getId(), "10.00"),
+                transfer(alice.getId(), "5.00"),
+                transfer(merchant.getId(), "20.00"));
+
+        // Act
+        BatchTransferResponse response = batchTransferService.transfer(payer, transfers);
+
+        // Assert
+        assertEquals(3, response.getCompleted());
+        assertEquals(0, new BigDecimal("100.00").compareTo(reloadBalance(merchant)));
+        assertEquals(0, new BigDecimal("130.00").compareTo(stripeService.totalBalance(merchant.getId())));
+        assertEquals(0, new BigDecimal("5.00").compareTo(reloadBalance(alice)));
+        assertEquals(List.of("130.00", "110.00"), balancesNewestFirst(merchant, TransactionType.TRANSFER_IN));
+    }
+
+    @Test
+    void transfer_WithInvalidItems_ShouldRejectThemAndExecuteTheRest() {
+        // Arrange
+        Account alice = createAccount("alice", "0.00");
+        List<TransferRequest> transfers = List.of(
+                transfer(alice.getId(), "100.00"),
+                transfer(999_999L, "100.00"),
+                transfer(source.getId(), "100.00"));
+
+        // Act
+        BatchTransferResponse response = batchTransferService.transfer(payer, transfers);
+
+        // Assert
+        assertEquals(1, response.getCompleted());
+        assertEquals(2, response.getRejected());
+        assertEquals(BatchTransferItemResult.Status.COMPLETED, response.getResults().get(0).getStatus());
+        assertEquals("Target account not found", response.getResults().get(1).getError());
+        assertEquals("Cannot transfer to the same account", response.getResults().get(2).getError());
+        assertNull(response.getResults().get(1).getTransactionId());
+        assertEquals(0, new BigDecimal("9900.00").compareTo(reloadBalance(source)));
+    }
+
+    @Test
+    void transfer_WhenTotalExceedsBalance_ShouldThrowInsufficientFundsException() {
+        // Arrange
+        Account alice = createAccount("alice", "0.00");
+        List<TransferRequest> transfers = List.of(
+                transfer(alice.getId(), "6000.00"),
+                transfer(alice.getId(), "6000.00"));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () -> batchTransferService.transfer(payer, transfers));
+    }
+
+    @Test
+    void transfer_WithTenThousandItems_ShouldSpanMultipleJdbcBatches() {
+        // Arrange
+        List<Account> payees = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            payees.add(createAccount("payee" + i, "0.00"));
+        }
+        List<TransferRequest> transfers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            transfers.add(transfer(payees.get(i % payees.size()).getId(), "0.50"));
+        }
+
+        // Act
+        BatchTransferResponse response = batchTransferService.transfer(payer, transfers);
+
+        // Assert
+        assertEquals(10_000, response.getCompleted());
+        assertEquals(0, new BigDecimal("5000.00").compareTo(reloadBalance(source)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(reloadBalance(payees.get(0))));
+        assertEquals(20_000, transactionRepository.count());
+    }
+
+    private Account createAccount(String username, String balance) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        entityManager.persistAndFlush(user);
+
+        Account account = new Account();
+        account.setUserId(user.getId());
+        account.setBalance(new BigDecimal(balance));
+        return entityManager.persistAndFlush(account);
+    }
+
+    private TransferRequest transfer(Long targetAccountId, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setTargetAccountId(targetAccountId);
+        request.setAmount(new BigDecimal(amount));
+        request.setDescription("Payroll");
+        return request;
+    }
+
+    private BigDecimal reloadBalance(Account account) {
+        entityManager.clear();
+        return accountRepository.findById(account.getId()).orElseThrow().getBalance();
+    }
+
+    private List<String> balancesNewestFirst(Account account, TransactionType type) {
+        entityManager.clear();
+        return transactionRepository.findByAccountIdOrderByTimestampDescIdDesc(account.getId(), Limit.of(10)).stream()
+                .filter(transaction -> transaction.getType() == type)
+                .map(Transaction::getBalanceAfter)
+                .map(BigDecimal::toPlainString)
+                .toList();
+    }
+}
@@ -0,0 +1,178 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitExecutorTest {
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private GroupCommitExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        executor = new GroupCommitExecutor(transactionTemplate, new RetryExecutor(3, 1, 5), true, 64, 50, 1000);
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.stop();
+    }
+
+    @Test
+    void submit_FromConcurrentCallers_ShouldShareCommits() throws Exception {
+        // Arrange
+        int callers = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Long>> results = new ArrayList<>();
+
+        // Act
+        for (long i = 0; i < callers; i++) {
+            long accountId = i;
+            results.add(CompletableFuture.supplyAsync(() -> {
+                awaitQuietly(start);
+                return executor.submit(accountId, () -> accountId * 10);
+            }, pool));
+        }
+        start.countDown();
+
+        // Assert
+        for (int i = 0; i < callers; i++) {
+            assertEquals(i * 10L, results.get(i).get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(callers, executor.getOperationCount());
+        assertTrue(executor.getCommitCount() < callers, "Expected commits to be shared");
+        pool.shutdown();
+    }
+
+    @Test
+    void submit_WhenOperationRejected_ShouldFailOnlyThatCaller() throws Exception {
+        // Arrange
+        CompletableFuture<String> rejected = CompletableFuture.supplyAsync(() -> executor.submit(1L, () -> {
+            throw new InsufficientFundsException("Insufficient balance for withdrawal");
+        }));
+        CompletableFuture<String> accepted = CompletableFuture.supplyAsync(() -> executor.submit(2L, () -> "ok"));
+
+        // Act & Assert
+        assertEquals("ok", accepted.get(10, TimeUnit.SECONDS));
+        Exception exception = assertThrows(Exception.class, () -> rejected.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(InsufficientFundsException.class, exception.getCause());
+        assertEquals(0, executor.getFallbackCount());
+    }
+
+    @Test
+    void commitBatch_WhenSharedTransactionFails_ShouldRetryEachOperationAlone() {
+        // Arrange
+        doThrow(new IllegalStateException("Connection reset")).when(transactionTemplate).executeWithoutResult(any());
+        List<Long> applied = Collections.synchronizedList(new ArrayList<>());
+        GroupCommitExecutor.PendingOperation<String> first = new GroupCommitExecutor.PendingOperation<>(2L, () -> {
+            applied.add(2L);
+            return "second account";
+        });
+        GroupCommitExecutor.PendingOperation<String> second = new GroupCommitExecutor.PendingOperation<>(1L, () -> {
+            applied.add(1L);
+            return "first account";
+        });
+
+        // Act
+        executor.commitBatch(new ArrayList<>(List.of(first, second)));
+
+        // Assert
+        assertEquals(List.of(1L, 2L), applied);
+        assertEquals(1, executor.getFallbackCount());
+        assertEquals(2, executor.getCommitCount());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void submit_WhenDisabled_ShouldThrowException() {
+        // Arrange
+        GroupCommitExecutor disabled = new GroupCommitExecutor(transactionTemplate, new RetryExecutor(3, 1, 5),
+                false, 64, 2, 1000);
+        disabled.start();
+
+        // Act & Assert
+        assertFalse(disabled.isEnabled());
+        assertThrows(IllegalStateException.class, () -> disabled.submit(1L, () -> "ignored"));
+    }
+
+    @Test
+    void submit_AfterStop_ShouldThrowException() throws InterruptedException {
+        // Arrange
+        executor.stop();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> executor.submit(1L, () -> "ignored"));
+    }
+
+    @Test
+    void submit_WhenWriterExitsWithOperationsQueued_ShouldFailThemInsteadOfHanging() throws Exception {
+        // Arrange
+        AtomicReference<Thread> writer = new AtomicReference<>();
+        CountDownLatch applying = new CountDownLatch(1);
+        AtomicBoolean release = new AtomicBoolean();
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.submit(1L, () -> {
+            writer.set(Thread.currentThread());
+            applying.countDown();
+            while (!release.get()) {
+                Thread.onSpinWait();
+            }
+            return "done";
+        }));
+        assertTrue(applying.await(10, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.submit(2L, () -> "never"));
+        Thread.sleep(200);
+
+        // Act
+        writer.get().interrupt();
+        release.set(true);
+
+        // Assert
+        assertEquals("done", running.get(10, TimeUnit.SECONDS));
+        Exception exception = assertThrows(Exception.class, () -> queued.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.banking.securetransactionapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the ledger load harness with deposits and withdrawals going through group commit.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:group-commit-load;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "banking.group-commit.enabled=true",
+        "logging.level.com.banking=INFO"
+})
+@ActiveProfiles("test")
+class GroupCommitLoadTest {
+
+    private static final int ACCOUNTS = Integer.getInteger("ledger.load.accounts", 20);
+    private static final int OPERATIONS = Integer.getInteger("ledger.load.operations", 2000);
+    private static final int THREADS = Integer.getInteger("ledger.load.threads", 16);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private GroupCommitExecutor groupCommitExecutor;
+
+    @Test
+    void concurrentOperations_ShouldPreserveLedgerInvariantsWithFewerCommits() throws Exception {
+        // Arrange
+        LedgerLoadHarness harness = new LedgerLoadHarness(
+                transactionService, userRepository, accountRepository, transactionRepository);
+        List<User> principals = harness.createFundedAccounts(ACCOUNTS);
+        long commitsBefore = groupCommitExecutor.getCommitCount();
+        long operationsBefore = groupCommitExecutor.getOperationCount();
+
+        // Act
+        LedgerLoadHarness.Report report = harness.run(principals, OPERATIONS, THREADS);
+
+        // Assert
+        long commits = groupCommitExecutor.getCommitCount() - commitsBefore;
+        long operations = groupCommitExecutor.getOperationCount() - operationsBefore;
+        System.out.print(report.summary("group-commit"));
+        System.out.printf("  group commits=%d for %d deposit/withdraw operations (%.1f per commit)%n",
+                commits, operations, (double) operations / Math.max(1, commits));
+        harness.assertInvariants(report);
+        assertTrue(commits < operations, "Expected operations to share commits");
+    }
+}
@@ -0,0 +1,147 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.dto.TransactionRequest;
+import com.banking.securetransactionapi.dto.TransactionResponse;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.exception.IdempotencyKeyException;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.IdempotencyJdbcRepository;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.banking.securetransactionapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyed requests with group commit enabled, on a pool smaller than the number of concurrent requests.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency-group-commit;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "banking.group-commit.enabled=true"
+})
+@ActiveProfiles("test")
+class IdempotencyGroupCommitTest {
+
+    private static final int REQUESTS = 16;
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private IdempotencyJdbcRepository idempotencyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void execute_WithMoreConcurrentKeyedRequestsThanConnections_ShouldCompleteAll() throws Exception {
+        // Arrange
+        List<User> principals = harness().createFundedAccounts(4);
+        ExecutorService pool = Executors.newFixedThreadPool(REQUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<TransactionResponse>> responses = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                User user = principals.get(i % principals.size());
+                String key = UUID.randomUUID().toString();
+                keys.add(key);
+                responses.add(CompletableFuture.supplyAsync(() -> {
+                    awaitStart(start);
+                    return deposit(user, key);
+                }, pool));
+            }
+            start.countDown();
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(20, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Assert
+        for (int i = 0; i < REQUESTS; i++) {
+            User user = principals.get(i % principals.size());
+            TransactionResponse response = responses.get(i).get();
+            assertEquals(response.getId(), deposit(user, keys.get(i)).getId());
+            assertNotNull(idempotencyRepository.find(user.getId(), keys.get(i)).orElseThrow().getResponse());
+        }
+        for (User user : principals) {
+            assertEquals(0, new BigDecimal("1040.00").compareTo(
+                    accountRepository.findById(user.getAccountId()).orElseThrow().getBalance()));
+        }
+    }
+
+    @Test
+    void execute_WhileFirstRequestIsRunning_ShouldRejectRetryWithoutPosting() throws Exception {
+        // Arrange
+        User user = harness().createFundedAccounts(1).get(0);
+        String key = UUID.randomUUID().toString();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CompletableFuture<TransactionResponse> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(user, key, "DEPOSIT", request(), () -> {
+                    firstStarted.countDown();
+                    awaitStart(releaseFirst);
+                    return transactionService.deposit(user, AMOUNT, "Salary");
+                }));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyException.class, () -> deposit(user, key));
+        releaseFirst.countDown();
+        TransactionResponse response = first.get(10, TimeUnit.SECONDS);
+        assertEquals(response.getId(), deposit(user, key).getId());
+        assertEquals(0, new BigDecimal("1010.00").compareTo(
+                accountRepository.findById(user.getAccountId()).orElseThrow().getBalance()));
+    }
+
+    private TransactionResponse deposit(User user, String key) {
+        return idempotencyService.execute(user, key, "DEPOSIT", request(),
+                () -> transactionService.deposit(user, AMOUNT, "Salary"));
+    }
+
+    private LedgerLoadHarness harness() {
+        return new LedgerLoadHarness(transactionService, userRepository, accountRepository, transactionRepository);
+    }
+
+    private static TransactionRequest request() {
+        TransactionRequest request = new TransactionRequest();
+        request.setAmount(AMOUNT);
+        request.setDescription("Salary");
+        return request;
+    }
+
+    private static void awaitStart(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
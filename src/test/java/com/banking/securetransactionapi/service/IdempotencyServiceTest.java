@@ -0,0 +1,249 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.dto.TransactionRequest;
+import com.banking.securetransactionapi.dto.TransactionResponse;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.exception.IdempotencyKeyException;
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import com.banking.securetransactionapi.ledger.ShardedLedgerEngine;
+import com.banking.securetransactionapi.repository.IdempotencyJdbcRepository;
+import com.banking.securetransactionapi.util.SnowflakeIdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=PostgreSQL;LOCK_TIMEOUT=10000")
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyJdbcRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RetryExecutor retryExecutor;
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GroupCommitExecutor groupCommitExecutor;
+
+    @Autowired
+    private ShardedLedgerEngine ledgerEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void execute_WithRepeatedKey_ShouldRunOnceAndReplayResponse() {
+        // Arrange
+        User user = user(1L);
+        String key = UUID.randomUUID().toString();
+
+        // Act
+        TransactionResponse first = idempotencyService.execute(user, key, "DEPOSIT", request("100.00"), this::deposit);
+        TransactionResponse retry = idempotencyService.execute(user, key, "DEPOSIT", request("100.00"), this::deposit);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(first, retry);
+    }
+
+    @Test
+    void execute_AfterCacheMiss_ShouldReplayStoredResponse() {
+        // Arrange
+        User user = user(2L);
+        String key = UUID.randomUUID().toString();
+        TransactionResponse first = idempotencyService.execute(user, key, "DEPOSIT", request("100.00"), this::deposit);
+        IdempotencyService otherInstance = new IdempotencyService(repository, transactionTemplate, retryExecutor,
+                idGenerator, objectMapper, groupCommitExecutor, ledgerEngine, Duration.ofHours(24), 100, 1000);
+
+        // Act
+        TransactionResponse retry = otherInstance.execute(user, key, "DEPOSIT", request("100.00"), this::deposit);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(first.getId(), retry.getId());
+        assertEquals(0, first.getBalanceAfter().compareTo(retry.getBalanceAfter()));
+        assertEquals(first.getTimestamp(), retry.getTimestamp());
+    }
+
+    @Test
+    void execute_WithKeyReusedForDifferentRequest_ShouldReject() {
+        // Arrange
+        User user = user(3L);
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute(user, key, "DEPOSIT", request("100.00"), this::deposit);
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyException.class,
+                () -> idempotencyService.execute(user, key, "DEPOSIT", request("250.00"), this::deposit));
+        assertThrows(IdempotencyKeyException.class,
+                () -> idempotencyService.execute(user, key, "WITHDRAW", request("100.00"), this::deposit));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_WhenOperationFails_ShouldNotKeepKey() {
+        // Arrange
+        User user = user(4L);
+        String key = UUID.randomUUID().toString();
+        Supplier<TransactionResponse> failing = () -> {
+            executions.incrementAndGet();
+            throw new InsufficientFundsException("Insufficient balance for withdrawal");
+        };
+        assertThrows(InsufficientFundsException.class,
+                () -> idempotencyService.execute(user, key, "WITHDRAW", request("100.00"), failing));
+
+        // Act
+        TransactionResponse retry = idempotencyService.execute(user, key, "WITHDRAW", request("100.00"), this::deposit);
+
+        // Assert
+        assertEquals(2, executions.get());
+        assertNotNull(retry);
+        assertTrue(repository.find(user.getId(), key).isPresent());
+    }
+
+    @Test
+    void execute_WithConcurrentRetry_ShouldWaitForFirstAndReplayIt() throws Exception {
+        // Arrange
+        User user = user(5L);
+        String key = UUID.randomUUID().toString();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CompletableFuture<TransactionResponse> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(user, key, "DEPOSIT", request("100.00"), () -> {
+                    firstStarted.countDown();
+                    await(releaseFirst);
+                    return deposit();
+                }));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<TransactionResponse> retry = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(user, key, "DEPOSIT", request("100.00"), this::deposit));
+        Thread.sleep(200);
+        releaseFirst.countDown();
+
+        // Assert
+        assertEquals(first.get(10, TimeUnit.SECONDS).getId(), retry.get(10, TimeUnit.SECONDS).getId());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_WhenOperationHitsOtherUniqueConstraint_ShouldPropagateAndNotKeepKey() {
+        // Arrange
+        User user = user(7L);
+        String key = UUID.randomUUID().toString();
+        Supplier<TransactionResponse> failing = () -> {
+            executions.incrementAndGet();
+            throw new DuplicateKeyException("uk_users_username");
+        };
+
+        // Act & Assert
+        assertThrows(DuplicateKeyException.class,
+                () -> idempotencyService.execute(user, key, "DEPOSIT", request("100.00"), failing));
+        assertEquals(1, executions.get());
+        assertTrue(repository.find(user.getId(), key).isEmpty());
+    }
+
+    @Test
+    void execute_WhenOperationHitsConcurrencyFailure_ShouldRetryWholeOperation() {
+        // Arrange
+        User user = user(8L);
+        String key = UUID.randomUUID().toString();
+        Supplier<TransactionResponse> conflictingOnce = () -> {
+            if (executions.get() == 0) {
+                executions.incrementAndGet();
+                // Nested retries must not swallow this; the whole keyed transaction is retried
+                return retryExecutor.execute(() -> {
+                    throw new CannotAcquireLockException("deadlock detected");
+                });
+            }
+            return deposit();
+        };
+
+        // Act
+        TransactionResponse response = idempotencyService.execute(user, key, "DEPOSIT", request("100.00"),
+                conflictingOnce);
+
+        // Assert
+        assertEquals(2, executions.get());
+        assertNotNull(response);
+        assertTrue(repository.find(user.getId(), key).isPresent());
+    }
+
+    @Test
+    void purgeExpired_ShouldDeleteOnlyKeysOlderThanTtl() {
+        // Arrange
+        repository.insert(idGenerator.nextId(), 6L, "old", "hash", LocalDateTime.now().minusDays(2));
+        repository.insert(idGenerator.nextId(), 6L, "recent", "hash", LocalDateTime.now());
+
+        // Act
+        idempotencyService.purgeExpired();
+
+        // Assert
+        assertTrue(repository.find(6L, "old").isEmpty());
+        assertTrue(repository.find(6L, "recent").isPresent());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM idempotency_keys WHERE created_at < ?", Integer.class,
+                LocalDateTime.now().minusDays(1)));
+    }
+
+    private TransactionResponse deposit() {
+        int execution = executions.incrementAndGet();
+        return new TransactionResponse((long) execution, TransactionType.DEPOSIT, new BigDecimal("100.00"), null,
+                "Salary", LocalDateTime.now(), new BigDecimal("100.00").multiply(BigDecimal.valueOf(execution)));
+    }
+
+    private static TransactionRequest request(String amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAmount(new BigDecimal(amount));
+        request.setDescription("Salary");
+        return request;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
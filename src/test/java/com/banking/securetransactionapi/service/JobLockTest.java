@@ -0,0 +1,116 @@
+package com.banking.securetransactionapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobLockTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private DatabaseMetaData metaData;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @InjectMocks
+    private JobLock jobLock;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<Boolean>>any()))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        when(connection.getMetaData()).thenReturn(metaData);
+    }
+
+    @Test
+    void runExclusively_WhenLockIsFree_ShouldRunJobAndReleaseLock() throws Exception {
+        // Arrange
+        postgresLockReturns(true);
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        boolean ran = jobLock.runExclusively("job", runs::incrementAndGet);
+
+        // Assert
+        assertTrue(ran);
+        assertEquals(1, runs.get());
+        verify(connection).prepareStatement("SELECT pg_try_advisory_lock(?)");
+        verify(connection).prepareStatement("SELECT pg_advisory_unlock(?)");
+    }
+
+    @Test
+    void runExclusively_WhenAnotherInstanceHoldsLock_ShouldSkipJob() throws Exception {
+        // Arrange
+        postgresLockReturns(false);
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        boolean ran = jobLock.runExclusively("job", runs::incrementAndGet);
+
+        // Assert
+        assertFalse(ran);
+        assertEquals(0, runs.get());
+        verify(connection, never()).prepareStatement("SELECT pg_advisory_unlock(?)");
+    }
+
+    @Test
+    void runExclusively_WhenJobFails_ShouldStillReleaseLock() throws Exception {
+        // Arrange
+        postgresLockReturns(true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> jobLock.runExclusively("job", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        verify(connection).prepareStatement("SELECT pg_advisory_unlock(?)");
+    }
+
+    @Test
+    void runExclusively_OnOtherDatabases_ShouldRunWithoutLocking() throws Exception {
+        // Arrange
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        boolean ran = jobLock.runExclusively("job", runs::incrementAndGet);
+
+        // Assert
+        assertTrue(ran);
+        assertEquals(1, runs.get());
+        verify(connection, never()).prepareStatement(any());
+    }
+
+    private void postgresLockReturns(boolean acquired) throws Exception {
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        when(connection.prepareStatement(any())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean(1)).thenReturn(acquired, true);
+    }
+}
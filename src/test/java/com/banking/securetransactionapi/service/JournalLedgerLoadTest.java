@@ -0,0 +1,115 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.ledger.JournalProjector;
+import com.banking.securetransactionapi.ledger.LedgerEngineType;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.JournalJdbcRepository;
+import com.banking.securetransactionapi.repository.LedgerJdbcRepository;
+import com.banking.securetransactionapi.repository.OutboxJdbcRepository;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.banking.securetransactionapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the ledger load harness against the journal write path, then waits for the background
+ * projector to catch up before checking the projected balances and history.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:journal-load;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "banking.ledger.engine=JOURNAL",
+        "logging.level.com.banking=INFO"
+})
+@ActiveProfiles("test")
+class JournalLedgerLoadTest {
+
+    private static final int ACCOUNTS = Integer.getInteger("ledger.load.accounts", 20);
+    private static final int OPERATIONS = Integer.getInteger("ledger.load.operations", 2000);
+    private static final int THREADS = Integer.getInteger("ledger.load.threads", 16);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JournalJdbcRepository journalRepository;
+
+    @Autowired
+    private JournalProjector projector;
+
+    @Autowired
+    private LedgerJdbcRepository ledgerJdbcRepository;
+
+    @Autowired
+    private OutboxJdbcRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentOperations_ShouldPreserveLedgerInvariantsOnceProjected() throws Exception {
+        // Arrange
+        LedgerLoadHarness harness = new LedgerLoadHarness(
+                transactionService, userRepository, accountRepository, transactionRepository);
+        List<User> principals = harness.createFundedAccounts(ACCOUNTS);
+
+        // Act
+        LedgerLoadHarness.Report report = harness.run(principals, OPERATIONS, THREADS);
+        long caughtUpAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (journalRepository.countUnprojected() > 0 && System.nanoTime() < caughtUpAt) {
+            Thread.sleep(20);
+        }
+
+        // Assert
+        System.out.print(report.summary("engine=JOURNAL"));
+        System.out.printf("  projected legs=%d%n", projector.getProjectedCount());
+        assertEquals(0, journalRepository.countUnprojected(), "Projector did not catch up");
+        harness.assertInvariants(report);
+    }
+
+    @Test
+    void concurrentProjectors_ShouldApplyEachLegOnce() throws Exception {
+        // Arrange
+        LedgerLoadHarness harness = new LedgerLoadHarness(
+                transactionService, userRepository, accountRepository, transactionRepository);
+        List<User> principals = harness.createFundedAccounts(ACCOUNTS);
+        // A second instance's projector, racing the background one over the same legs
+        JournalProjector otherInstance = new JournalProjector(journalRepository, ledgerJdbcRepository,
+                outboxRepository, transactionTemplate, LedgerEngineType.JOURNAL, true, 50, 1, 0);
+        AtomicBoolean loadDone = new AtomicBoolean();
+        Thread racer = new Thread(() -> {
+            while (!loadDone.get() || journalRepository.countUnprojected() > 0) {
+                otherInstance.projectPending();
+            }
+        });
+        racer.start();
+
+        // Act
+        LedgerLoadHarness.Report report = harness.run(principals, OPERATIONS, THREADS);
+        loadDone.set(true);
+        racer.join(TimeUnit.SECONDS.toMillis(30));
+
+        // Assert
+        assertFalse(racer.isAlive(), "Projectors did not catch up");
+        assertTrue(otherInstance.getProjectedCount() > 0);
+        harness.assertInvariants(report);
+    }
+}
@@ -0,0 +1,249 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.entity.Account;
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.banking.securetransactionapi.repository.UserRepository;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives a concurrent mix of deposits, withdrawals and transfers through {@link TransactionService}
+ * and checks the ledger invariants afterwards. Half of all transfers go to one hot "merchant"
+ * account to reproduce the contention profile of popular payees.
+ */
+class LedgerLoadHarness {
+    
+    enum Operation { DEPOSIT, WITHDRAW, TRANSFER }
+    
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+    private static final int PAGE_SIZE = 500;
+    
+    private final TransactionService transactionService;
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    
+    LedgerLoadHarness(TransactionService transactionService, UserRepository userRepository,
+                      AccountRepository accountRepository, TransactionRepository transactionRepository) {
+        this.transactionService = transactionService;
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+    }
+    
+    List<User> createFundedAccounts(int count) {
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        List<User> principals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername("load-" + prefix + "-" + i);
+            user.setPassword("password");
+            user.setRole(Role.ROLE_USER);
+            user = userRepository.save(user);
+            
+            Account account = new Account();
+            account.setUserId(user.getId());
+            account.setBalance(BigDecimal.ZERO);
+            account = accountRepository.save(account);
+            
+            user.setAccountId(account.getId());
+            transactionService.deposit(user, INITIAL_BALANCE, "Initial funding");
+            principals.add(user);
+        }
+        return principals;
+    }
+    
+    Report run(List<User> principals, int operations, int threads) throws InterruptedException {
+        Report report = new Report(principals);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(operations);
+        User merchant = principals.get(0);
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            executor.execute(() -> {
+                try {
+                    runRandomOperation(principals, merchant, report);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.MINUTES), "Load run did not finish in time");
+        report.elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+        return report;
+    }
+    
+    void assertInvariants(Report report) {
+        assertTrue(report.unexpectedFailures.isEmpty(),
+                () -> "Unexpected failures: " + report.unexpectedFailures);
+        
+        BigDecimal totalBalance = BigDecimal.ZERO;
+        BigDecimal transferredOut = BigDecimal.ZERO;
+        BigDecimal transferredIn = BigDecimal.ZERO;
+        
+        for (User principal : report.principals) {
+            BigDecimal balance = accountRepository.findById(principal.getAccountId()).orElseThrow().getBalance();
+            assertTrue(balance.signum() >= 0, "Negative balance on account " + principal.getAccountId());
+            
+            BigDecimal ledgerBalance = BigDecimal.ZERO;
+            List<Transaction> page = transactionRepository
+                    .findByAccountIdOrderByTimestampDescIdDesc(principal.getAccountId(), Limit.of(PAGE_SIZE));
+            while (!page.isEmpty()) {
+                for (Transaction transaction : page) {
+                    ledgerBalance = ledgerBalance.add(signedAmount(transaction));
+                    if (transaction.getType() == TransactionType.TRANSFER_OUT) {
+                        transferredOut = transferredOut.add(transaction.getAmount());
+                    } else if (transaction.getType() == TransactionType.TRANSFER_IN) {
+                        transferredIn = transferredIn.add(transaction.getAmount());
+                    }
+                }
+                Transaction last = page.get(page.size() - 1);
+                page = transactionRepository.findPageBefore(principal.getAccountId(), last.getTimestamp(), last.getId(),
+                        Limit.of(PAGE_SIZE));
+            }
+            assertEquals(0, ledgerBalance.compareTo(balance),
+                    "Balance of account " + principal.getAccountId() + " does not match its transactions");
+            Transaction latest = transactionRepository
+                    .findByAccountIdOrderByTimestampDescIdDesc(principal.getAccountId(), Limit.of(1)).get(0);
+            assertEquals(0, latest.getBalanceAfter().compareTo(balance),
+                    "Latest balanceAfter of account " + principal.getAccountId() + " does not match its balance");
+            totalBalance = totalBalance.add(balance);
+        }
+        
+        // Transfers only move money between the accounts under test, so deposits and withdrawals
+        // are the only way the total may change
+        BigDecimal expectedTotal = INITIAL_BALANCE.multiply(BigDecimal.valueOf(report.principals.size()))
+                .add(report.deposited.get())
+                .subtract(report.withdrawn.get());
+        assertEquals(0, expectedTotal.compareTo(totalBalance), "Money was created or destroyed");
+        assertEquals(0, transferredOut.compareTo(transferredIn), "Transfer legs do not balance");
+    }
+    
+    private void runRandomOperation(List<User> principals, User merchant, Report report) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        User principal = principals.get(random.nextInt(principals.size()));
+        BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 20_000), 2);
+        int roll = random.nextInt(100);
+        Operation operation = roll < 20 ? Operation.DEPOSIT : roll < 40 ? Operation.WITHDRAW : Operation.TRANSFER;
+        
+        long start = System.nanoTime();
+        try {
+            switch (operation) {
+                case DEPOSIT -> {
+                    transactionService.deposit(principal, amount, "Load deposit");
+                    report.deposited.add(amount);
+                }
+                case WITHDRAW -> {
+                    transactionService.withdraw(principal, amount, "Load withdrawal");
+                    report.withdrawn.add(amount);
+                }
+                case TRANSFER -> {
+                    User target = random.nextBoolean() ? merchant : principals.get(random.nextInt(principals.size()));
+                    if (target == principal) {
+                        target = principals.get((principals.indexOf(principal) + 1) % principals.size());
+                    }
+                    transactionService.transfer(principal, target.getAccountId(), amount, "Load transfer");
+                }
+            }
+            report.record(operation, System.nanoTime() - start);
+        } catch (InsufficientFundsException ex) {
+            report.insufficientFunds.incrementAndGet();
+            report.record(operation, System.nanoTime() - start);
+        } catch (ConcurrencyFailureException ex) {
+            // Gave up after the configured retries; the transaction rolled back
+            report.aborted.incrementAndGet();
+        } catch (RuntimeException ex) {
+            report.unexpectedFailures.add(operation + ": " + ex);
+        }
+    }
+    
+    private static BigDecimal signedAmount(Transaction transaction) {
+        return switch (transaction.getType()) {
+            case DEPOSIT, TRANSFER_IN -> transaction.getAmount();
+            case WITHDRAWAL, TRANSFER_OUT -> transaction.getAmount().negate();
+        };
+    }
+    
+    static class Report {
+        private final List<User> principals;
+        private final Map<Operation, ConcurrentLinkedQueue<Long>> latencies = new EnumMap<>(Operation.class);
+        private final AtomicBigDecimal deposited = new AtomicBigDecimal();
+        private final AtomicBigDecimal withdrawn = new AtomicBigDecimal();
+        private final AtomicLong insufficientFunds = new AtomicLong();
+        private final AtomicLong aborted = new AtomicLong();
+        private final ConcurrentLinkedQueue<String> unexpectedFailures = new ConcurrentLinkedQueue<>();
+        private long elapsedNanos;
+        
+        Report(List<User> principals) {
+            this.principals = principals;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new ConcurrentLinkedQueue<>());
+            }
+        }
+        
+        void record(Operation operation, long nanos) {
+            latencies.get(operation).add(nanos);
+        }
+        
+        long completed() {
+            return latencies.values().stream().mapToLong(ConcurrentLinkedQueue::size).sum();
+        }
+        
+        String summary(String label) {
+            StringBuilder summary = new StringBuilder(String.format(
+                    "%s: %d ops in %d ms (%.0f ops/s), %d insufficient funds, %d aborted%n",
+                    label, completed(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    completed() / (elapsedNanos / 1e9), insufficientFunds.get(), aborted.get()));
+            latencies.forEach((operation, samples) -> {
+                long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+                if (sorted.length > 0) {
+                    summary.append(String.format("  %-8s n=%-6d p50=%.2f ms  p99=%.2f ms%n", operation, sorted.length,
+                            percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6));
+                }
+            });
+            return summary.toString();
+        }
+        
+        private static long percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+    
+    private static class AtomicBigDecimal {
+        private BigDecimal value = BigDecimal.ZERO;
+        
+        synchronized void add(BigDecimal amount) {
+            value = value.add(amount);
+        }
+        
+        synchronized BigDecimal get() {
+            return value;
+        }
+    }
+}
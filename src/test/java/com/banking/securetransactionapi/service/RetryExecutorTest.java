@@ -0,0 +1,104 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryExecutorTest {
+
+    private RetryExecutor retryExecutor;
+
+    @BeforeEach
+    void setUp() {
+        retryExecutor = new RetryExecutor(3, 1, 5);
+    }
+
+    @Test
+    void execute_WhenWorkSucceeds_ShouldNotRetry() {
+        // Act
+        String result = retryExecutor.execute(() -> "done");
+
+        // Assert
+        assertEquals("done", result);
+        assertEquals(0, retryExecutor.getRetryCount());
+        assertEquals(0, retryExecutor.getAbortCount());
+    }
+
+    @Test
+    void execute_WithTransientConflict_ShouldRetryUntilSuccess() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        String result = retryExecutor.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Account", 1L);
+            }
+            return "done";
+        });
+
+        // Assert
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, retryExecutor.getRetryCount());
+        assertEquals(0, retryExecutor.getAbortCount());
+    }
+
+    @Test
+    void execute_WhenConflictPersists_ShouldAbortAfterMaxAttempts() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(CannotAcquireLockException.class, () -> retryExecutor.execute(() -> {
+            attempts.incrementAndGet();
+            throw new CannotAcquireLockException("deadlock detected");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(2, retryExecutor.getRetryCount());
+        assertEquals(1, retryExecutor.getAbortCount());
+    }
+
+    @Test
+    void execute_WithBusinessException_ShouldNotRetry() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () -> retryExecutor.execute(() -> {
+            attempts.incrementAndGet();
+            throw new InsufficientFundsException("Insufficient balance for transfer");
+        }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0, retryExecutor.getRetryCount());
+    }
+
+    @Test
+    void execute_InsideRunningTransaction_ShouldLeaveRetryToOuterBoundary() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // Act & Assert
+        try {
+            assertThrows(CannotAcquireLockException.class, () -> retryExecutor.execute(() -> {
+                attempts.incrementAndGet();
+                throw new CannotAcquireLockException("deadlock detected");
+            }));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(1, attempts.get());
+        assertEquals(0, retryExecutor.getRetryCount());
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.ledger.ShardedLedgerEngine;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.banking.securetransactionapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the ledger load harness against the sharded in-memory engine. Compare its summary with
+ * {@link TransactionServiceLoadTest} (the JPA path) at the same {@code -Dledger.load.*} sizes.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharded-ledger;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "banking.ledger.engine=SHARDED",
+        "logging.level.com.banking=INFO"
+})
+@ActiveProfiles("test")
+class ShardedLedgerLoadTest {
+
+    private static final int ACCOUNTS = Integer.getInteger("ledger.load.accounts", 20);
+    private static final int OPERATIONS = Integer.getInteger("ledger.load.operations", 2000);
+    private static final int THREADS = Integer.getInteger("ledger.load.threads", 16);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ShardedLedgerEngine ledgerEngine;
+
+    @Test
+    void concurrentOperations_ShouldPreserveLedgerInvariants() throws Exception {
+        // Arrange
+        LedgerLoadHarness harness = new LedgerLoadHarness(
+                transactionService, userRepository, accountRepository, transactionRepository);
+        List<User> principals = harness.createFundedAccounts(ACCOUNTS);
+        long commitsBefore = ledgerEngine.getJournalCommitCount();
+        long entriesBefore = ledgerEngine.getJournalEntryCount();
+
+        // Act
+        LedgerLoadHarness.Report report = harness.run(principals, OPERATIONS, THREADS);
+
+        // Assert
+        long commits = ledgerEngine.getJournalCommitCount() - commitsBefore;
+        long entries = ledgerEngine.getJournalEntryCount() - entriesBefore;
+        System.out.print(report.summary("engine=SHARDED"));
+        System.out.printf("  journal commits=%d for %d entries (%.1f per commit)%n",
+                commits, entries, (double) entries / Math.max(1, commits));
+        harness.assertInvariants(report);
+        assertTrue(commits <= entries);
+    }
+}
@@ -0,0 +1,162 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.archive.TransactionArchive;
+import com.banking.securetransactionapi.dto.TransactionHistoryResponse;
+import com.banking.securetransactionapi.dto.TransactionResponse;
+import com.banking.securetransactionapi.entity.Account;
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.BalanceSnapshotRepository;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.banking.securetransactionapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transaction-archive;MODE=PostgreSQL",
+        "banking.archive.directory=target/test-archive",
+        "banking.archive.horizon-months=12",
+        "banking.archive.block-rows=2"
+})
+@ActiveProfiles("test")
+class TransactionArchiveJobTest {
+
+    private static final YearMonth OLD_MONTH = YearMonth.now().minusMonths(15);
+    private static final YearMonth OLDER_MONTH = OLD_MONTH.minusMonths(1);
+    private static final YearMonth FIRST_BALANCE_MONTH = OLD_MONTH.minusMonths(3);
+    private static final YearMonth SECOND_BALANCE_MONTH = FIRST_BALANCE_MONTH.plusMonths(1);
+
+    @Autowired
+    private TransactionArchiveJob archiveJob;
+
+    @Autowired
+    private TransactionArchive transactionArchive;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private BalanceSnapshotService snapshotService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @BeforeAll
+    static void clearArchive() throws IOException {
+        FileSystemUtils.deleteRecursively(Path.of("target/test-archive"));
+    }
+
+    @Test
+    void archiveExpired_ShouldMoveOldMonthsOutAndKeepHistoryReadable() {
+        // Arrange
+        User user = createUser();
+        Long accountId = user.getAccountId();
+        persist(accountId, TransactionType.DEPOSIT, "100.00", OLDER_MONTH.atDay(10).atTime(9, 0), "100.00");
+        persist(accountId, TransactionType.WITHDRAWAL, "30.00", OLD_MONTH.atDay(3).atTime(9, 0), "70.00");
+        persist(accountId, TransactionType.DEPOSIT, "5.00", OLD_MONTH.atDay(4).atTime(9, 0), "75.00");
+        Transaction recent = persist(accountId, TransactionType.DEPOSIT, "25.00", LocalDateTime.now().minusDays(1), "100.00");
+
+        // Act
+        long archived = archiveJob.archiveExpired();
+
+        // Assert
+        assertEquals(3, archived);
+        assertTrue(transactionArchive.contains(OLDER_MONTH));
+        assertTrue(transactionArchive.contains(OLD_MONTH));
+        assertEquals(List.of(recent.getId()), transactionRepository.findByAccountIdOrderByTimestampDescIdDesc(accountId, Limit.of(10))
+                .stream().map(Transaction::getId).toList());
+        assertEquals(0, new BigDecimal("75.00").compareTo(snapshotRepository
+                .findFirstByAccountIdAndSnapshotDateLessThanEqualOrderBySnapshotDateDesc(accountId, OLD_MONTH.atEndOfMonth())
+                .orElseThrow().getBalance()));
+
+        List<String> balances = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionHistoryResponse page = transactionService.getTransactionHistory(user, cursor, 2);
+            page.getTransactions().stream().map(TransactionResponse::getBalanceAfter)
+                    .forEach(balance -> balances.add(balance.toPlainString()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(List.of("100.00", "75.00", "70.00", "100.00"), balances);
+    }
+
+    @Test
+    void getBalanceAsOf_InsideArchivedMonth_ShouldReplayArchivedRows() {
+        // Arrange
+        Long accountId = createUser().getAccountId();
+        persist(accountId, TransactionType.DEPOSIT, "100.00", FIRST_BALANCE_MONTH.atDay(10).atTime(9, 0), "100.00");
+        persist(accountId, TransactionType.WITHDRAWAL, "30.00", SECOND_BALANCE_MONTH.atDay(3).atTime(9, 0), "70.00");
+        persist(accountId, TransactionType.TRANSFER_IN, "5.00", SECOND_BALANCE_MONTH.atDay(4).atTime(9, 0), "75.00");
+        persist(accountId, TransactionType.DEPOSIT, "50.00", SECOND_BALANCE_MONTH.atDay(20).atTime(9, 0), "125.00");
+
+        // Act
+        archiveJob.archiveMonth(FIRST_BALANCE_MONTH);
+        archiveJob.archiveMonth(SECOND_BALANCE_MONTH);
+
+        // Assert
+        assertTrue(transactionRepository.findByAccountIdOrderByTimestampDescIdDesc(accountId, Limit.of(10)).isEmpty());
+        assertBalanceAsOf("0.00", accountId, FIRST_BALANCE_MONTH.atDay(5).atStartOfDay());
+        assertBalanceAsOf("100.00", accountId, FIRST_BALANCE_MONTH.atDay(15).atStartOfDay());
+        assertBalanceAsOf("70.00", accountId, SECOND_BALANCE_MONTH.atDay(3).atTime(12, 0));
+        assertBalanceAsOf("75.00", accountId, SECOND_BALANCE_MONTH.atDay(4).atTime(9, 0));
+        assertBalanceAsOf("125.00", accountId, SECOND_BALANCE_MONTH.plusMonths(1).atDay(2).atStartOfDay());
+    }
+
+    private void assertBalanceAsOf(String expected, Long accountId, LocalDateTime asOf) {
+        assertEquals(0, new BigDecimal(expected).compareTo(snapshotService.getBalanceAsOf(accountId, asOf)),
+                () -> "balance as of " + asOf);
+    }
+
+    private Transaction persist(Long accountId, TransactionType type, String amount, LocalDateTime timestamp,
+                                String balanceAfter) {
+        Transaction transaction = new Transaction();
+        transaction.setAccountId(accountId);
+        transaction.setType(type);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setTimestamp(timestamp);
+        transaction.setBalanceAfter(new BigDecimal(balanceAfter));
+        return transactionRepository.save(transaction);
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setUsername("archive-" + UUID.randomUUID());
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        user = userRepository.save(user);
+
+        Account account = new Account();
+        account.setUserId(user.getId());
+        account.setBalance(new BigDecimal("100.00"));
+        user.setAccountId(accountRepository.save(account).getId());
+        return user;
+    }
+}
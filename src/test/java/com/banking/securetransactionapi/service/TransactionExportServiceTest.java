@@ -0,0 +1,147 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.entity.Role;
+import com.banking.securetransactionapi.entity.Transaction;
+import com.banking.securetransactionapi.entity.TransactionType;
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private TransactionExportService transactionExportService;
+
+    private User testUser;
+    private Transaction deposit;
+    private Transaction transfer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transactionExportService, "entityManager", entityManager);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setRole(Role.ROLE_USER);
+
+        deposit = new Transaction();
+        deposit.setId(2L);
+        deposit.setAccountId(1L);
+        deposit.setType(TransactionType.DEPOSIT);
+        deposit.setAmount(new BigDecimal("100.00"));
+        deposit.setDescription("Salary");
+        deposit.setTimestamp(LocalDateTime.of(2024, 1, 2, 9, 30));
+        deposit.setBalanceAfter(new BigDecimal("174.50"));
+
+        transfer = new Transaction();
+        transfer.setId(1L);
+        transfer.setAccountId(1L);
+        transfer.setType(TransactionType.TRANSFER_OUT);
+        transfer.setAmount(new BigDecimal("25.50"));
+        transfer.setTargetAccountId(2L);
+        transfer.setDescription("Dinner, \"split\"");
+        transfer.setTimestamp(LocalDateTime.of(2024, 1, 1, 20, 0));
+        transfer.setBalanceAfter(new BigDecimal("74.50"));
+
+        when(accountService.getUserAccountId(testUser)).thenReturn(1L);
+    }
+
+    @Test
+    void export_AsNdjson_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Arrange
+        when(transactionRepository.streamByAccountId(1L)).thenReturn(Stream.of(deposit, transfer));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = transactionExportService.export(testUser, ExportFormat.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(2, first.get("id").asLong());
+        assertEquals("DEPOSIT", first.get("type").asText());
+        assertEquals("2024-01-02T09:30:00", first.get("timestamp").asText());
+        assertEquals(174.50, first.get("balanceAfter").asDouble());
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(2, second.get("targetAccountId").asLong());
+        assertEquals("Dinner, \"split\"", second.get("description").asText());
+        verify(entityManager).detach(deposit);
+        verify(entityManager).detach(transfer);
+    }
+
+    @Test
+    void export_AsCsv_ShouldWriteHeaderAndEscapeFields() throws Exception {
+        // Arrange
+        when(transactionRepository.streamByAccountId(1L)).thenReturn(Stream.of(deposit, transfer));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = transactionExportService.export(testUser, ExportFormat.CSV, out);
+
+        // Assert
+        assertEquals(2, rows);
+        assertEquals("id,type,amount,targetAccountId,description,timestamp,balanceAfter\n"
+                + "2,DEPOSIT,100.00,,Salary,2024-01-02T09:30:00,174.50\n"
+                + "1,TRANSFER_OUT,25.50,2,\"Dinner, \"\"split\"\"\",2024-01-01T20:00:00,74.50\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void export_ShouldFlushPeriodicallyAndCloseStream() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(transactionExportService, "flushInterval", 2);
+        Stream<Transaction> transactions = spy(IntStream.range(0, 5).mapToObj(i -> deposit));
+        when(transactionRepository.streamByAccountId(1L)).thenReturn(transactions);
+        OutputStream out = spy(new ByteArrayOutputStream());
+
+        // Act
+        transactionExportService.export(testUser, ExportFormat.NDJSON, out);
+
+        // Assert
+        verify(out, atLeast(2)).flush();
+        verify(out, never()).close();
+        verify(transactions).close();
+        verify(entityManager, times(5)).detach(any(Transaction.class));
+    }
+}
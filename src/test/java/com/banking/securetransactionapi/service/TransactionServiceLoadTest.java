@@ -0,0 +1,82 @@
+package com.banking.securetransactionapi.service;
+
+import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.repository.AccountRepository;
+import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.banking.securetransactionapi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+/**
+ * Concurrent ledger stress test against H2 in PostgreSQL mode. Sized for the regular build;
+ * raise {@code -Dledger.load.operations} and {@code -Dledger.load.threads} for a baseline run.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger-load;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "logging.level.com.banking=INFO"
+})
+@ActiveProfiles("test")
+class TransactionServiceLoadTest {
+
+    private static final int ACCOUNTS = Integer.getInteger("ledger.load.accounts", 20);
+    private static final int OPERATIONS = Integer.getInteger("ledger.load.operations", 2000);
+    private static final int THREADS = Integer.getInteger("ledger.load.threads", 16);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private RetryExecutor retryExecutor;
+
+    private LedgerLoadHarness harness;
+
+    @BeforeEach
+    void setUp() {
+        harness = new LedgerLoadHarness(transactionService, userRepository, accountRepository, transactionRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        setLockMode(TransferLockMode.ATOMIC);
+    }
+
+    @ParameterizedTest
+    @EnumSource(TransferLockMode.class)
+    void concurrentOperations_ShouldPreserveLedgerInvariants(TransferLockMode lockMode) throws Exception {
+        // Arrange
+        setLockMode(lockMode);
+        List<User> principals = harness.createFundedAccounts(ACCOUNTS);
+        long retriesBefore = retryExecutor.getRetryCount();
+
+        // Act
+        LedgerLoadHarness.Report report = harness.run(principals, OPERATIONS, THREADS);
+
+        // Assert
+        System.out.print(report.summary("lock-mode=" + lockMode));
+        System.out.printf("  retries=%d%n", retryExecutor.getRetryCount() - retriesBefore);
+        harness.assertInvariants(report);
+    }
+
+    private void setLockMode(TransferLockMode lockMode) {
+        TransactionService target = AopTestUtils.getTargetObject(transactionService);
+        ReflectionTestUtils.setField(target, "lockMode", lockMode);
+    }
+}
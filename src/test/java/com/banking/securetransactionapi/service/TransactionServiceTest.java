@@ -1,19 +1,40 @@
 package com.banking.securetransactionapi.service;
 
+import com.banking.securetransactionapi.archive.TransactionArchive;
+import com.banking.securetransactionapi.dto.TransactionHistoryResponse;
 import com.banking.securetransactionapi.dto.TransactionResponse;
 import com.banking.securetransactionapi.entity.*;
+import com.banking.securetransactionapi.exception.AccountNotFoundException;
+import com.banking.securetransactionapi.exception.InsufficientFundsException;
+import com.banking.securetransactionapi.exception.InvalidCursorException;
+import com.banking.securetransactionapi.invalidation.CacheInvalidator;
+import com.banking.securetransactionapi.ledger.JournalLedgerService;
+import com.banking.securetransactionapi.ledger.ShardedLedgerEngine;
+import com.banking.securetransactionapi.repository.OutboxJdbcRepository;
 import com.banking.securetransactionapi.repository.TransactionRepository;
+import com.banking.securetransactionapi.util.HistoryCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,6 +50,36 @@ class TransactionServiceTest {
     @Mock
     private AccountService accountService;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private RetryExecutor retryExecutor = new RetryExecutor(3, 1, 5);
+
+    @Mock
+    private GroupCommitExecutor groupCommitExecutor;
+
+    @Mock
+    private ShardedLedgerEngine ledgerEngine;
+
+    @Mock
+    private JournalLedgerService journalLedger;
+
+    @Mock
+    private OutboxJdbcRepository outboxRepository;
+
+    @Mock
+    private TransactionPartitionManager partitionManager;
+
+    @Mock
+    private TransactionArchive transactionArchive;
+
+    @Mock
+    private BalanceCache balanceCache;
+
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -52,6 +103,9 @@ class TransactionServiceTest {
         targetAccount.setId(2L);
         targetAccount.setUserId(2L);
         targetAccount.setBalance(new BigDecimal("500.00"));
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
     }
 
     @Test
@@ -60,9 +114,9 @@ class TransactionServiceTest {
         BigDecimal depositAmount = new BigDecimal("100.00");
         String description = "Test deposit";
         
-        when(accountService.getUserAccount(testUser)).thenReturn(testAccount);
-        when(accountService.updateBalance(anyLong(), any(BigDecimal.class)))
-                .thenReturn(testAccount);
+        when(accountService.getUserAccountId(testUser)).thenReturn(testAccount.getId());
+        when(accountService.credit(1L, depositAmount))
+                .thenReturn(Optional.of(new BigDecimal("1100.00")));
         
         Transaction savedTransaction = new Transaction();
         savedTransaction.setId(1L);
@@ -85,9 +139,13 @@ class TransactionServiceTest {
         assertEquals(description, result.getDescription());
         assertEquals(new BigDecimal("1100.00"), result.getBalanceAfter());
 
-        verify(accountService).getUserAccount(testUser);
-        verify(accountService).updateBalance(1L, new BigDecimal("1100.00"));
+        ArgumentCaptor<Transaction> recorded = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(recorded.capture());
+        assertEquals(new BigDecimal("1100.00"), recorded.getValue().getBalanceAfter());
+        verify(accountService).getUserAccountId(testUser);
+        verify(accountService).credit(1L, depositAmount);
         verify(transactionRepository).save(any(Transaction.class));
+        verify(outboxRepository).append(List.of(savedTransaction));
     }
 
     @Test
@@ -96,10 +154,9 @@ class TransactionServiceTest {
         BigDecimal withdrawAmount = new BigDecimal("100.00");
         String description = "Test withdrawal";
         
-        when(accountService.getUserAccount(testUser)).thenReturn(testAccount);
-        when(accountService.hasSufficientBalance(1L, withdrawAmount)).thenReturn(true);
-        when(accountService.updateBalance(anyLong(), any(BigDecimal.class)))
-                .thenReturn(testAccount);
+        when(accountService.getUserAccountId(testUser)).thenReturn(testAccount.getId());
+        when(accountService.debit(1L, withdrawAmount))
+                .thenReturn(Optional.of(new BigDecimal("900.00")));
         
         Transaction savedTransaction = new Transaction();
         savedTransaction.setId(1L);
@@ -122,8 +179,7 @@ class TransactionServiceTest {
         assertEquals(description, result.getDescription());
         assertEquals(new BigDecimal("900.00"), result.getBalanceAfter());
 
-        verify(accountService).hasSufficientBalance(1L, withdrawAmount);
-        verify(accountService).updateBalance(1L, new BigDecimal("900.00"));
+        verify(accountService).debit(1L, withdrawAmount);
         verify(transactionRepository).save(any(Transaction.class));
     }
 
@@ -133,8 +189,8 @@ class TransactionServiceTest {
         BigDecimal withdrawAmount = new BigDecimal("2000.00");
         String description = "Test withdrawal";
         
-        when(accountService.getUserAccount(testUser)).thenReturn(testAccount);
-        when(accountService.hasSufficientBalance(1L, withdrawAmount)).thenReturn(false);
+        when(accountService.getUserAccountId(testUser)).thenReturn(testAccount.getId());
+        when(accountService.debit(1L, withdrawAmount)).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -142,7 +198,7 @@ class TransactionServiceTest {
         });
 
         assertEquals("Insufficient balance", exception.getMessage());
-        verify(accountService, never()).updateBalance(anyLong(), any(BigDecimal.class));
+        verify(accountService, never()).credit(anyLong(), any(BigDecimal.class));
         verify(transactionRepository, never()).save(any(Transaction.class));
     }
 
@@ -153,9 +209,11 @@ class TransactionServiceTest {
         String description = "Test transfer";
         Long targetAccountId = 2L;
         
-        when(accountService.getUserAccount(testUser)).thenReturn(testAccount);
-        when(accountService.findById(targetAccountId)).thenReturn(targetAccount);
-        when(accountService.hasSufficientBalance(1L, transferAmount)).thenReturn(true);
+        when(accountService.getUserAccountId(testUser)).thenReturn(testAccount.getId());
+        when(accountService.debit(1L, transferAmount))
+                .thenReturn(Optional.of(new BigDecimal("900.00")));
+        when(accountService.credit(targetAccountId, transferAmount))
+                .thenReturn(Optional.of(new BigDecimal("600.00")));
         
         Transaction savedTransaction = new Transaction();
         savedTransaction.setId(1L);
@@ -181,44 +239,333 @@ class TransactionServiceTest {
         assertEquals(description, result.getDescription());
         assertEquals(new BigDecimal("900.00"), result.getBalanceAfter());
 
+        ArgumentCaptor<Transaction> recorded = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository, times(2)).save(recorded.capture());
+        assertEquals(new BigDecimal("900.00"), recorded.getAllValues().get(0).getBalanceAfter());
+        assertEquals(new BigDecimal("600.00"), recorded.getAllValues().get(1).getBalanceAfter());
+        verify(accountService).debit(1L, transferAmount);
+        verify(accountService).credit(2L, transferAmount);
+        verify(accountService, never()).updateBalance(anyLong(), any(BigDecimal.class));
+    }
+
+    @Test
+    void transfer_WithInsufficientBalance_ShouldNotCreditTarget() {
+        // Arrange
+        BigDecimal transferAmount = new BigDecimal("2000.00");
+        
+        when(accountService.getUserAccountId(testUser)).thenReturn(testAccount.getId());
+        when(accountService.debit(1L, transferAmount)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () -> {
+            transactionService.transfer(testUser, 2L, transferAmount, "Test transfer");
+        });
+
+        verify(accountService, never()).credit(anyLong(), any(BigDecimal.class));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void transfer_WithMissingTargetAccount_ShouldThrowAccountNotFound() {
+        // Arrange
+        BigDecimal transferAmount = new BigDecimal("100.00");
+        
+        when(accountService.getUserAccountId(testUser)).thenReturn(testAccount.getId());
+        when(accountService.debit(1L, transferAmount))
+                .thenReturn(Optional.of(new BigDecimal("900.00")));
+        when(accountService.credit(999L, transferAmount)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(AccountNotFoundException.class, () -> {
+            transactionService.transfer(testUser, 999L, transferAmount, "Test transfer");
+        });
+
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void transfer_ToLowerAccountId_ShouldCreditBeforeDebit() {
+        // Arrange
+        BigDecimal transferAmount = new BigDecimal("100.00");
+        testAccount.setId(3L);
+        
+        when(accountService.getUserAccountId(testUser)).thenReturn(testAccount.getId());
+        when(accountService.credit(2L, transferAmount))
+                .thenReturn(Optional.of(new BigDecimal("600.00")));
+        when(accountService.debit(3L, transferAmount))
+                .thenReturn(Optional.of(new BigDecimal("900.00")));
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        TransactionResponse result = transactionService.transfer(testUser, 2L, transferAmount, "Test transfer");
+
+        // Assert
+        assertEquals(new BigDecimal("900.00"), result.getBalanceAfter());
+        InOrder inOrder = inOrder(accountService);
+        inOrder.verify(accountService).credit(2L, transferAmount);
+        inOrder.verify(accountService).debit(3L, transferAmount);
+    }
+
+    @Test
+    void transfer_InPessimisticMode_ShouldLockAccountsInAscendingIdOrder() {
+        // Arrange
+        ReflectionTestUtils.setField(transactionService, "lockMode", TransferLockMode.PESSIMISTIC);
+        BigDecimal transferAmount = new BigDecimal("100.00");
+        testAccount.setId(3L);
+        
+        when(accountService.getUserAccountId(testUser)).thenReturn(testAccount.getId());
+        when(accountService.lockForUpdate(2L)).thenReturn(targetAccount);
+        when(accountService.lockForUpdate(3L)).thenReturn(testAccount);
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        TransactionResponse result = transactionService.transfer(testUser, 2L, transferAmount, "Test transfer");
+
+        // Assert
+        assertEquals(new BigDecimal("900.00"), result.getBalanceAfter());
+        assertEquals(new BigDecimal("900.00"), testAccount.getBalance());
+        assertEquals(new BigDecimal("600.00"), targetAccount.getBalance());
+        InOrder inOrder = inOrder(accountService);
+        inOrder.verify(accountService).lockForUpdate(2L);
+        inOrder.verify(accountService).lockForUpdate(3L);
+        verify(accountService, never()).debit(anyLong(), any(BigDecimal.class));
+    }
+
+    @Test
+    void transfer_InOptimisticMode_ShouldUpdateBothBalancesThroughVersionedEntities() {
+        // Arrange
+        ReflectionTestUtils.setField(transactionService, "lockMode", TransferLockMode.OPTIMISTIC);
+        BigDecimal transferAmount = new BigDecimal("100.00");
+        
+        when(accountService.getUserAccountId(testUser)).thenReturn(testAccount.getId());
+        when(accountService.findById(1L)).thenReturn(testAccount);
+        when(accountService.findById(2L)).thenReturn(targetAccount);
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        transactionService.transfer(testUser, 2L, transferAmount, "Test transfer");
+
+        // Assert
         verify(accountService).updateBalance(1L, new BigDecimal("900.00"));
         verify(accountService).updateBalance(2L, new BigDecimal("600.00"));
-        verify(transactionRepository, times(2)).save(any(Transaction.class));
     }
 
     @Test
-    void getTransactionHistory_ShouldReturnTransactionList() {
+    void transfer_WhenLockAcquisitionFails_ShouldRetryInNewTransaction() {
+        // Arrange
+        BigDecimal transferAmount = new BigDecimal("100.00");
+        
+        when(accountService.getUserAccountId(testUser)).thenReturn(testAccount.getId());
+        when(accountService.debit(1L, transferAmount))
+                .thenThrow(new CannotAcquireLockException("deadlock detected"))
+                .thenReturn(Optional.of(new BigDecimal("900.00")));
+        when(accountService.credit(2L, transferAmount))
+                .thenReturn(Optional.of(new BigDecimal("600.00")));
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        TransactionResponse result = transactionService.transfer(testUser, 2L, transferAmount, "Test transfer");
+
+        // Assert
+        assertEquals(new BigDecimal("900.00"), result.getBalanceAfter());
+        verify(transactionTemplate, times(2)).execute(any());
+        assertEquals(1, retryExecutor.getRetryCount());
+        assertEquals(0, retryExecutor.getAbortCount());
+    }
+
+    @Test
+    void deposit_WithGroupCommitEnabled_ShouldSubmitToGroupCommitExecutor() {
+        // Arrange
+        BigDecimal depositAmount = new BigDecimal("100.00");
+        when(accountService.getUserAccountId(testUser)).thenReturn(1L);
+        when(groupCommitExecutor.isEnabled()).thenReturn(true);
+        when(groupCommitExecutor.submit(eq(1L), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(1).get());
+        when(accountService.credit(1L, depositAmount)).thenReturn(Optional.of(new BigDecimal("1100.00")));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        TransactionResponse result = transactionService.deposit(testUser, depositAmount, "Test deposit");
+
+        // Assert
+        assertEquals(new BigDecimal("1100.00"), result.getBalanceAfter());
+        verify(groupCommitExecutor).submit(eq(1L), any());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    void transfer_WithShardedEngine_ShouldDelegateToLedgerEngine() {
+        // Arrange
+        BigDecimal transferAmount = new BigDecimal("200.00");
+        Transaction outgoing = new Transaction();
+        outgoing.setId(10L);
+        outgoing.setAccountId(1L);
+        outgoing.setType(TransactionType.TRANSFER_OUT);
+        outgoing.setAmount(transferAmount);
+        outgoing.setTargetAccountId(2L);
+        outgoing.setBalanceAfter(new BigDecimal("800.00"));
+        when(accountService.getUserAccountId(testUser)).thenReturn(1L);
+        when(ledgerEngine.isEnabled()).thenReturn(true);
+        when(ledgerEngine.transfer(1L, 2L, transferAmount, "Test transfer")).thenReturn(outgoing);
+
+        // Act
+        TransactionResponse result = transactionService.transfer(testUser, 2L, transferAmount, "Test transfer");
+
+        // Assert
+        assertEquals(10L, result.getId());
+        assertEquals(new BigDecimal("800.00"), result.getBalanceAfter());
+        verify(transactionTemplate, never()).execute(any());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void getTransactionHistory_WithoutCursor_ShouldReturnFirstPageAndNextCursor() {
         // Arrange
         Transaction transaction1 = new Transaction();
-        transaction1.setId(1L);
+        transaction1.setId(3L);
         transaction1.setAccountId(1L);
         transaction1.setType(TransactionType.DEPOSIT);
         transaction1.setAmount(new BigDecimal("100.00"));
-        transaction1.setTimestamp(LocalDateTime.now());
+        transaction1.setTimestamp(LocalDateTime.of(2024, 1, 1, 12, 2));
 
         Transaction transaction2 = new Transaction();
         transaction2.setId(2L);
         transaction2.setAccountId(1L);
         transaction2.setType(TransactionType.WITHDRAWAL);
         transaction2.setAmount(new BigDecimal("50.00"));
-        transaction2.setTimestamp(LocalDateTime.now());
+        transaction2.setTimestamp(LocalDateTime.of(2024, 1, 1, 12, 1));
+        transaction2.setBalanceAfter(new BigDecimal("900.00"));
+
+        Transaction transaction3 = new Transaction();
+        transaction3.setId(1L);
+        transaction3.setAccountId(1L);
+        transaction3.setType(TransactionType.DEPOSIT);
+        transaction3.setAmount(new BigDecimal("25.00"));
+        transaction3.setTimestamp(LocalDateTime.of(2024, 1, 1, 12, 0));
+
+        // The newest row predates balance_after, so the current balance is shown for it
+        when(accountService.getUserAccountId(testUser)).thenReturn(1L);
+        when(accountService.findById(1L)).thenReturn(testAccount);
+        when(transactionRepository.findByAccountIdOrderByTimestampDescIdDesc(1L, Limit.of(3)))
+                .thenReturn(Arrays.asList(transaction1, transaction2, transaction3));
 
-        List<Transaction> transactions = Arrays.asList(transaction1, transaction2);
-        
-        when(accountService.getUserAccount(testUser)).thenReturn(testAccount);
-        when(transactionRepository.findByAccountIdOrderByTimestampDesc(1L))
-                .thenReturn(transactions);
+        // Act
+        TransactionHistoryResponse result = transactionService.getTransactionHistory(testUser, null, 2);
+
+        // Assert
+        assertEquals(2, result.getTransactions().size());
+        assertEquals(TransactionType.DEPOSIT, result.getTransactions().get(0).getType());
+        assertEquals(TransactionType.WITHDRAWAL, result.getTransactions().get(1).getType());
+        assertEquals(testAccount.getBalance(), result.getTransactions().get(0).getBalanceAfter());
+        assertEquals(new BigDecimal("900.00"), result.getTransactions().get(1).getBalanceAfter());
+        assertEquals(new HistoryCursor(transaction2.getTimestamp(), 2L), HistoryCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void getTransactionHistory_WithCursor_ShouldSeekPastCursorAndUseStoredBalances() {
+        // Arrange
+        Transaction transaction = new Transaction();
+        transaction.setId(1L);
+        transaction.setAccountId(1L);
+        transaction.setType(TransactionType.DEPOSIT);
+        transaction.setAmount(new BigDecimal("25.00"));
+        transaction.setTimestamp(LocalDateTime.of(2024, 1, 1, 12, 0));
+        transaction.setBalanceAfter(new BigDecimal("25.00"));
+
+        LocalDateTime cursorTime = LocalDateTime.of(2024, 1, 1, 12, 1);
+        String cursor = new HistoryCursor(cursorTime, 2L).encode();
+        when(accountService.getUserAccountId(testUser)).thenReturn(1L);
+        when(transactionRepository.findPageBefore(1L, cursorTime, 2L, Limit.of(3)))
+                .thenReturn(List.of(transaction));
 
         // Act
-        List<TransactionResponse> result = transactionService.getTransactionHistory(testUser);
+        TransactionHistoryResponse result = transactionService.getTransactionHistory(testUser, cursor, 2);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(TransactionType.DEPOSIT, result.get(0).getType());
-        assertEquals(TransactionType.WITHDRAWAL, result.get(1).getType());
+        assertEquals(1, result.getTransactions().size());
+        assertEquals(new BigDecimal("25.00"), result.getTransactions().get(0).getBalanceAfter());
+        assertNull(result.getNextCursor());
+        verify(accountService, never()).findById(anyLong());
+    }
+
+    @Test
+    void getTransactionHistory_WhenLiveRowsRunOut_ShouldContinueFromArchive() {
+        // Arrange
+        Transaction live = historyRow(5L, LocalDateTime.of(2024, 6, 1, 9, 0), "80.00");
+        Transaction archived = historyRow(4L, LocalDateTime.of(2023, 1, 31, 18, 0), "60.00");
+        when(accountService.getUserAccountId(testUser)).thenReturn(1L);
+        when(transactionRepository.findByAccountIdOrderByTimestampDescIdDesc(1L, Limit.of(3)))
+                .thenReturn(List.of(live));
+        when(transactionArchive.findPageBefore(1L, live.getTimestamp(), 5L, 2))
+                .thenReturn(List.of(archived));
+
+        // Act
+        TransactionHistoryResponse result = transactionService.getTransactionHistory(testUser, null, 2);
+
+        // Assert
+        assertEquals(List.of(5L, 4L), result.getTransactions().stream().map(TransactionResponse::getId).toList());
+        assertEquals(new BigDecimal("60.00"), result.getTransactions().get(1).getBalanceAfter());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getTransactionHistory_WhenPartitioned_ShouldReadCursorPartitionBeforeOlderOnes() {
+        // Arrange
+        LocalDateTime cursorTime = LocalDateTime.of(2024, 6, 3, 12, 0);
+        LocalDateTime partitionStart = LocalDateTime.of(2024, 6, 1, 0, 0);
+        Transaction june = historyRow(7L, LocalDateTime.of(2024, 6, 2, 8, 0), "40.00");
+        Transaction may = historyRow(6L, LocalDateTime.of(2024, 5, 20, 8, 0), "30.00");
+        when(partitionManager.isPartitioned()).thenReturn(true);
+        when(accountService.getUserAccountId(testUser)).thenReturn(1L);
+        when(transactionRepository.findPageBeforeSince(1L, partitionStart, cursorTime, 8L, Limit.of(3)))
+                .thenReturn(List.of(june));
+        when(transactionRepository.findLatestBefore(1L, partitionStart, Limit.of(2)))
+                .thenReturn(List.of(may));
+
+        // Act
+        TransactionHistoryResponse result = transactionService.getTransactionHistory(
+                testUser, new HistoryCursor(cursorTime, 8L).encode(), 2);
+
+        // Assert
+        assertEquals(List.of(7L, 6L), result.getTransactions().stream().map(TransactionResponse::getId).toList());
+        verify(transactionRepository, never()).findPageBefore(anyLong(), any(), anyLong(), any());
+        verify(transactionArchive).findPageBefore(1L, may.getTimestamp(), 6L, 1);
+    }
+
+    @Test
+    void getTransactionHistory_WithLimitAboveMaximum_ShouldCapPageSize() {
+        // Arrange
+        when(accountService.getUserAccountId(testUser)).thenReturn(1L);
+        when(transactionRepository.findByAccountIdOrderByTimestampDescIdDesc(eq(1L), any(Limit.class)))
+                .thenReturn(List.of());
+
+        // Act
+        transactionService.getTransactionHistory(testUser, null, 1_000_000);
+
+        // Assert
+        verify(transactionRepository).findByAccountIdOrderByTimestampDescIdDesc(1L, Limit.of(501));
+    }
+
+    @Test
+    void getTransactionHistory_WithMalformedCursor_ShouldThrowInvalidCursorException() {
+        // Act & Assert
+        assertThrows(InvalidCursorException.class,
+                () -> transactionService.getTransactionHistory(testUser, "not-a-cursor", 10));
+        verifyNoInteractions(transactionRepository);
+    }
 
-        verify(accountService).getUserAccount(testUser);
-        verify(transactionRepository).findByAccountIdOrderByTimestampDesc(1L);
+    private static Transaction historyRow(Long id, LocalDateTime timestamp, String balanceAfter) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setAccountId(1L);
+        transaction.setType(TransactionType.DEPOSIT);
+        transaction.setAmount(new BigDecimal("10.00"));
+        transaction.setTimestamp(timestamp);
+        transaction.setBalanceAfter(new BigDecimal(balanceAfter));
+        return transaction;
     }
 }
@@ -2,16 +2,21 @@ package com.banking.securetransactionapi.service;
 
 import com.banking.securetransactionapi.entity.Role;
 import com.banking.securetransactionapi.entity.User;
+import com.banking.securetransactionapi.invalidation.CacheInvalidator;
+import com.banking.securetransactionapi.repository.AccountRepository;
 import com.banking.securetransactionapi.repository.UserRepository;
+import com.banking.securetransactionapi.util.ExpiringLruCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,6 +28,15 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Spy
+    private ExpiringLruCache<String, User> principalCache = new ExpiringLruCache<>(100, Duration.ofMinutes(5));
+
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+
     @InjectMocks
     private UserService userService;
 
@@ -54,6 +68,21 @@ class UserServiceTest {
         verify(userRepository).findByUsername("testuser");
     }
 
+    @Test
+    void findByUsername_ShouldResolveAccountIdOnceAndCacheIt() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(accountRepository.findIdByUserId(1L)).thenReturn(Optional.of(42L));
+
+        // Act
+        userService.findByUsername("testuser");
+        User result = userService.findByUsername("testuser");
+
+        // Assert
+        assertEquals(42L, result.getAccountId());
+        verify(accountRepository, times(1)).findIdByUserId(1L);
+    }
+
     @Test
     void loadUserByUsername_WithNonExistingUser_ShouldThrowException() {
         // Arrange
@@ -93,4 +122,57 @@ class UserServiceTest {
         assertFalse(result);
         verify(userRepository).existsByUsername("nonexistent");
     }
+
+    @Test
+    void loadUserByUsername_CalledTwice_ShouldQueryRepositoryOnce() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // Act
+        UserDetails first = userService.loadUserByUsername("testuser");
+        UserDetails second = userService.loadUserByUsername("testuser");
+
+        // Assert
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsername("testuser");
+        assertEquals(1, principalCache.getHitCount());
+    }
+
+    @Test
+    void save_ShouldInvalidateCachedPrincipal() {
+        // Arrange
+        User updatedUser = new User();
+        updatedUser.setId(1L);
+        updatedUser.setUsername("testuser");
+        updatedUser.setPassword("newPassword");
+        updatedUser.setRole(Role.ROLE_ADMIN);
+
+        when(userRepository.findByUsername("testuser"))
+                .thenReturn(Optional.of(testUser))
+                .thenReturn(Optional.of(updatedUser));
+        when(userRepository.save(updatedUser)).thenReturn(updatedUser);
+        userService.loadUserByUsername("testuser");
+
+        // Act
+        userService.save(updatedUser);
+        UserDetails result = userService.loadUserByUsername("testuser");
+
+        // Assert
+        assertEquals("newPassword", result.getPassword());
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
+
+    @Test
+    void loadUserByUsername_WithNonExistingUser_ShouldNotCacheMiss() {
+        // Arrange
+        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+
+        // Act
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("nonexistent"));
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("nonexistent"));
+
+        // Assert
+        verify(userRepository, times(2)).findByUsername("nonexistent");
+        assertEquals(0, principalCache.size());
+    }
 }
@@ -0,0 +1,116 @@
+package com.banking.securetransactionapi.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringLruCacheTest {
+
+    private MutableClock clock;
+    private ExpiringLruCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        cache = new ExpiringLruCache<>(2, Duration.ofSeconds(10), clock);
+    }
+
+    @Test
+    void getOrLoad_ShouldLoadOnceAndServeHitsFromCache() {
+        // Act
+        String first = cache.getOrLoad("alice", key -> key.toUpperCase());
+        String second = cache.getOrLoad("alice", key -> fail("Should not load again"));
+
+        // Assert
+        assertEquals("ALICE", first);
+        assertEquals("ALICE", second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void get_AfterTtl_ShouldExpireEntry() {
+        // Arrange
+        cache.put("alice", "A");
+
+        // Act
+        clock.advance(Duration.ofSeconds(11));
+
+        // Assert
+        assertNull(cache.get("alice"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_BeyondMaxSize_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        cache.put("alice", "A");
+        cache.put("bob", "B");
+        cache.get("alice");
+
+        // Act
+        cache.put("carol", "C");
+
+        // Assert
+        assertEquals("A", cache.get("alice"));
+        assertNull(cache.get("bob"));
+        assertEquals("C", cache.get("carol"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void getOrLoad_WhenInvalidatedDuringLoad_ShouldNotCacheStaleValue() {
+        // Act
+        String loaded = cache.getOrLoad("alice", key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        // Assert
+        assertEquals("stale", loaded);
+        assertNull(cache.get("alice"));
+    }
+
+    @Test
+    void invalidate_ShouldRemoveEntry() {
+        // Arrange
+        cache.put("alice", "A");
+
+        // Act
+        cache.invalidate("alice");
+
+        // Assert
+        assertNull(cache.get("alice"));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -2,10 +2,14 @@ package com.banking.securetransactionapi.util;
 
 import com.banking.securetransactionapi.entity.Role;
 import com.banking.securetransactionapi.entity.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class JwtUtilTest {
@@ -59,4 +63,113 @@ class JwtUtilTest {
         // Assert
         assertTrue(isValid);
     }
+
+    @Test
+    void validate_WithValidToken_ShouldReturnClaims() {
+        // Arrange
+        String token = jwtUtil.generateToken(testUser);
+
+        // Act
+        JwtClaims claims = jwtUtil.validate(token);
+
+        // Assert
+        assertEquals("testuser", claims.getSubject());
+        assertEquals(List.of("ROLE_USER"), claims.getAuthorities());
+        assertFalse(claims.isExpired());
+    }
+
+    @Test
+    void validate_WithRepeatedToken_ShouldReturnCachedClaims() {
+        // Arrange
+        String token = jwtUtil.generateToken(testUser);
+
+        // Act
+        JwtClaims first = jwtUtil.validate(token);
+        JwtClaims second = jwtUtil.validate(token);
+
+        // Assert
+        assertSame(first, second);
+    }
+
+    @Test
+    void validate_WithTamperedToken_ShouldThrowException() {
+        // Arrange
+        String token = jwtUtil.generateToken(testUser);
+        jwtUtil.validate(token);
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> jwtUtil.validate(tampered));
+    }
+
+    @Test
+    void extractClaim_ShouldUseVerifiedClaims() {
+        // Arrange
+        String token = jwtUtil.generateToken(testUser, 42L);
+        JwtClaims verified = jwtUtil.validate(token);
+
+        // Act
+        JwtClaims claims = jwtUtil.extractClaim(token, resolved -> resolved);
+
+        // Assert
+        assertSame(verified, claims);
+        assertEquals(42L, jwtUtil.extractClaim(token, JwtClaims::getAccountId));
+    }
+
+    @Test
+    void extractClaim_WithExpiredToken_ShouldThrowException() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -1000L);
+        String token = jwtUtil.generateToken(testUser);
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.extractClaim(token, JwtClaims::getSubject));
+    }
+
+    @Test
+    void validate_WithExpiredToken_ShouldThrowException() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -1000L);
+        String token = jwtUtil.generateToken(testUser);
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.validate(token));
+    }
+
+    @Test
+    void validateToken_WithClaimsOfAnotherUser_ShouldReturnFalse() {
+        // Arrange
+        JwtClaims claims = jwtUtil.validate(jwtUtil.generateToken(testUser));
+        User otherUser = new User();
+        otherUser.setUsername("otheruser");
+
+        // Act & Assert
+        assertFalse(jwtUtil.validateToken(claims, otherUser));
+    }
+
+    @Test
+    void generateToken_WithAccountId_ShouldEmbedPrincipalClaims() {
+        // Arrange
+        String token = jwtUtil.generateToken(testUser, 42L);
+
+        // Act
+        JwtClaims claims = jwtUtil.validate(token);
+
+        // Assert
+        assertTrue(claims.hasPrincipalDetails());
+        assertEquals(1L, claims.getUserId());
+        assertEquals(42L, claims.getAccountId());
+        assertEquals("ROLE_USER", claims.getRole());
+    }
+
+    @Test
+    void generateToken_WithoutAccountId_ShouldNotClaimPrincipalDetails() {
+        // Act
+        JwtClaims claims = jwtUtil.validate(jwtUtil.generateToken(testUser));
+
+        // Assert
+        assertFalse(claims.hasPrincipalDetails());
+        assertNull(claims.getAccountId());
+    }
 }
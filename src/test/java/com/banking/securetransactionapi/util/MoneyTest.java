@@ -0,0 +1,55 @@
+package com.banking.securetransactionapi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_ShouldConvertToCentsAndBack() {
+        // Act
+        Money money = Money.of(new BigDecimal("15000.75"));
+
+        // Assert
+        assertEquals(1_500_075, money.cents());
+        assertEquals(new BigDecimal("15000.75"), money.toBigDecimal());
+        assertEquals(new BigDecimal("5.00"), Money.of(new BigDecimal("5")).toBigDecimal());
+    }
+
+    @Test
+    void of_WithMoreThanTwoDecimals_ShouldRoundHalfUpLikeTheColumn() {
+        // Act & Assert
+        assertEquals(101, Money.of(new BigDecimal("1.005")).cents());
+        assertEquals(-101, Money.of(new BigDecimal("-1.005")).cents());
+        assertEquals(100, Money.of(new BigDecimal("1.004")).cents());
+    }
+
+    @Test
+    void arithmetic_ShouldMatchBigDecimal() {
+        // Arrange
+        Money balance = Money.of(new BigDecimal("100.10"));
+        Money amount = Money.of(new BigDecimal("0.20"));
+
+        // Act & Assert
+        assertEquals(Money.of(new BigDecimal("100.30")), balance.plus(amount));
+        assertEquals(Money.of(new BigDecimal("99.90")), balance.minus(amount));
+        assertEquals(Money.of(new BigDecimal("-0.20")), amount.negate());
+        assertTrue(amount.isLessThan(balance));
+        assertFalse(balance.isLessThan(balance));
+        assertEquals("99.90", balance.minus(amount).toString());
+    }
+
+    @Test
+    void arithmetic_OnOverflow_ShouldThrow() {
+        // Arrange
+        Money max = Money.ofCents(Long.MAX_VALUE);
+
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).minus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1E+17")));
+    }
+}
@@ -0,0 +1,139 @@
+package com.banking.securetransactionapi.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    private MutableClock clock;
+    private SnowflakeIdGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        generator = new SnowflakeIdGenerator(5, clock);
+    }
+
+    @Test
+    void nextId_ShouldEncodeTimestampAndNodeId() {
+        // Act
+        long id = generator.nextId();
+
+        // Assert
+        assertEquals(clock.instant(), SnowflakeIdGenerator.timestampOf(id));
+        assertEquals(5, SnowflakeIdGenerator.nodeIdOf(id));
+    }
+
+    @Test
+    void nextId_WithinSameMillisecond_ShouldIncrementSequence() {
+        // Act
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        // Assert
+        assertEquals(first + 1, second);
+    }
+
+    @Test
+    void nextId_WhenSequenceExhausted_ShouldBorrowNextMillisecond() {
+        // Arrange
+        long last = 0;
+        for (int i = 0; i < 1 << SnowflakeIdGenerator.SEQUENCE_BITS; i++) {
+            last = generator.nextId();
+        }
+
+        // Act
+        long borrowed = generator.nextId();
+
+        // Assert
+        assertTrue(borrowed > last);
+        assertEquals(clock.instant().plusMillis(1), SnowflakeIdGenerator.timestampOf(borrowed));
+    }
+
+    @Test
+    void nextId_WhenClockStepsBackwards_ShouldStayMonotonic() {
+        // Arrange
+        long before = generator.nextId();
+        clock.advance(Duration.ofSeconds(-5));
+
+        // Act
+        long after = generator.nextId();
+
+        // Assert
+        assertTrue(after > before);
+    }
+
+    @Test
+    void nextId_ShouldStayWithinJsonSafeIntegerRange() {
+        // Arrange
+        clock.advance(Duration.ofDays(365 * 60));
+
+        // Act & Assert
+        assertTrue(generator.nextId() < (1L << 53));
+    }
+
+    @Test
+    void nextId_UnderConcurrency_ShouldNeverRepeat() throws Exception {
+        // Arrange
+        SnowflakeIdGenerator systemGenerator = new SnowflakeIdGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(systemGenerator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    void constructor_WithNodeIdOutOfRange_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1, clock));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-06-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+-- DDL as Hibernate's ddl-auto=update issued it before Flyway took over, including its generated
+-- constraint names, with one row per table
+create table users (id bigint generated by default as identity, password varchar(255) not null, role varchar(255) check (role in ('ROLE_USER','ROLE_ADMIN')), username varchar(255) not null, primary key (id));
+create table accounts (balance numeric(19,2) not null, id bigint generated by default as identity, user_id bigint not null, primary key (id));
+create table transactions (amount numeric(19,2) not null, account_id bigint not null, id bigint generated by default as identity, target_account_id bigint, timestamp timestamp(6) not null, description varchar(255), type varchar(255) check (type in ('DEPOSIT','WITHDRAWAL','TRANSFER_OUT','TRANSFER_IN')), primary key (id));
+alter table if exists users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+alter table if exists accounts add constraint FKnjuop33mo69pd79ctplkck40n foreign key (user_id) references users;
+alter table if exists transactions add constraint FK20w7wsg13u9srbq3bd7chfxdh foreign key (account_id) references accounts;
+
+insert into users (username, password, role) values ('legacy', 'password', 'ROLE_USER');
+insert into accounts (user_id, balance) values (1, 100.00);
+insert into transactions (account_id, type, amount, description, timestamp) values (1, 'DEPOSIT', 100.00, 'Opening', TIMESTAMP '2024-01-02 09:00:00');